@@ -83,6 +83,9 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** Cache with Method as key and advisor chain List as value. */
 	private transient Map<MethodCacheKey, List<Object>> methodCache;
 
+	/** Number of advice changes, letting proxies detect outdated fixed chains. */
+	private transient volatile int adviceChangeCount;
+
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
 	 * of registration, to create JDK proxy with specified order of interfaces.
@@ -508,6 +511,17 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	protected void adviceChanged() {
 		this.methodCache.clear();
+		this.adviceChangeCount++;
+	}
+
+	/**
+	 * Return the number of times that {@link #adviceChanged()} has been invoked,
+	 * allowing proxies that fix interceptor chains for a frozen configuration
+	 * to detect that those chains are outdated.
+	 * @since 5.2
+	 */
+	int getAdviceChangeCount() {
+		return this.adviceChangeCount;
 	}
 
 	/**
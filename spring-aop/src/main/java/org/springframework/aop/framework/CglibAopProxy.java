@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -112,7 +113,7 @@ class CglibAopProxy implements AopProxy, Serializable {
 	/** Dispatcher used for methods on Advised. */
 	private final transient AdvisedDispatcher advisedDispatcher;
 
-	private transient Map<String, Integer> fixedInterceptorMap = Collections.emptyMap();
+	private transient Map<Method, Integer> fixedInterceptorMap = Collections.emptyMap();
 
 	private transient int fixedInterceptorOffset;
 
@@ -308,7 +309,7 @@ class CglibAopProxy implements AopProxy, Serializable {
 		/**
 		 * 将拦截器封装到 `DynamicAdvisedInterceptor` {@link DynamicAdvisedInterceptor
 		 */
-		Callback aopInterceptor = new DynamicAdvisedInterceptor(this.advised);
+		DynamicAdvisedInterceptor aopInterceptor = new DynamicAdvisedInterceptor(this.advised);
 
 		// Choose a "straight to target" interceptor. (used for calls that are
 		// unadvised but can return this). May be required to expose the proxy.
@@ -347,17 +348,22 @@ class CglibAopProxy implements AopProxy, Serializable {
 		// direct to the target using the fixed chain for that method.
 		if (isStatic && isFrozen) {
 			Method[] methods = rootClass.getMethods();
-			Callback[] fixedCallbacks = new Callback[methods.length];
+			List<Callback> fixedCallbackList = new ArrayList<>(methods.length);
+			int adviceChangeCount = this.advised.getAdviceChangeCount();
 			this.fixedInterceptorMap = new HashMap<>(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
-			for (int x = 0; x < methods.length; x++) {
-				Method method = methods[x];
+			// Only advised methods need a fixed chain: ProxyCallbackFilter
+			// dispatches unadvised methods straight to the target.
+			for (Method method : methods) {
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-				this.fixedInterceptorMap.put(methods.toString(), x);
+				if (!chain.isEmpty()) {
+					this.fixedInterceptorMap.put(method, fixedCallbackList.size());
+					fixedCallbackList.add(new FixedChainStaticTargetInterceptor(
+							chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass(),
+							this.advised, adviceChangeCount, aopInterceptor));
+				}
 			}
+			Callback[] fixedCallbacks = fixedCallbackList.toArray(new Callback[0]);
 
 			// Now copy both the callbacks from mainCallbacks
 			// and fixedCallbacks into the callbacks array.
@@ -648,17 +654,35 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final Class<?> targetClass;
 
-		public FixedChainStaticTargetInterceptor(
-				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
+		private final AdvisedSupport advised;
+
+		private final TargetSource targetSource;
+
+		private final int adviceChangeCount;
+
+		private final MethodInterceptor fallbackInterceptor;
+
+		public FixedChainStaticTargetInterceptor(List<Object> adviceChain, @Nullable Object target,
+				@Nullable Class<?> targetClass, AdvisedSupport advised, int adviceChangeCount,
+				MethodInterceptor fallbackInterceptor) {
 
 			this.adviceChain = adviceChain;
 			this.target = target;
 			this.targetClass = targetClass;
+			this.advised = advised;
+			this.targetSource = advised.getTargetSource();
+			this.adviceChangeCount = adviceChangeCount;
+			this.fallbackInterceptor = fallbackInterceptor;
 		}
 
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+			if (!this.advised.isFrozen() || this.advised.getTargetSource() != this.targetSource ||
+					this.advised.getAdviceChangeCount() != this.adviceChangeCount) {
+				// Configuration changed since the proxy was created: the fixed chain may be outdated.
+				return this.fallbackInterceptor.intercept(proxy, method, args, methodProxy);
+			}
 			MethodInvocation invocation = new CglibMethodInvocation(
 					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
 			// If we get here, we need to create a MethodInvocation.
@@ -798,12 +822,12 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 		private final AdvisedSupport advised;
 
-		private final Map<String, Integer> fixedInterceptorMap;
+		private final Map<Method, Integer> fixedInterceptorMap;
 
 		private final int fixedInterceptorOffset;
 
 		public ProxyCallbackFilter(
-				AdvisedSupport advised, Map<String, Integer> fixedInterceptorMap, int fixedInterceptorOffset) {
+				AdvisedSupport advised, Map<Method, Integer> fixedInterceptorMap, int fixedInterceptorOffset) {
 
 			this.advised = advised;
 			this.fixedInterceptorMap = fixedInterceptorMap;
@@ -888,15 +912,14 @@ class CglibAopProxy implements AopProxy, Serializable {
 					}
 					return AOP_PROXY;
 				}
-				String key = method.toString();
 				// Check to see if we have fixed interceptor to serve this method.
 				// Else use the AOP_PROXY.
-				if (isStatic && isFrozen && this.fixedInterceptorMap.containsKey(key)) {
+				Integer index = (isStatic && isFrozen ? this.fixedInterceptorMap.get(method) : null);
+				if (index != null) {
 					if (logger.isTraceEnabled()) {
 						logger.trace("Method has advice and optimizations are enabled: " + method);
 					}
 					// We know that we are optimizing so we can use the FixedStaticChainInterceptors.
-					int index = this.fixedInterceptorMap.get(key);
 					return (index + this.fixedInterceptorOffset);
 				}
 				else {
@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -92,6 +94,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interceptor chains per proxied interface method, fixed for a frozen
+	 * configuration with a static target.
+	 */
+	@Nullable
+	private transient volatile FixedChains fixedChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -105,6 +114,59 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			throw new AopConfigException("No advisors and no TargetSource specified");
 		}
 		this.advised = config;
+		this.fixedChains = computeFixedChains(config);
+	}
+
+	/**
+	 * Determine the interceptor chain for each method on the proxied interfaces,
+	 * provided that the configuration is frozen and the target is static.
+	 * @param config the AOP configuration
+	 * @return the fixed chains, or {@code null} if chains need to be obtained
+	 * per invocation
+	 */
+	@Nullable
+	private static FixedChains computeFixedChains(AdvisedSupport config) {
+		TargetSource targetSource = config.getTargetSource();
+		if (!config.isFrozen() || !targetSource.isStatic()) {
+			return null;
+		}
+		int adviceChangeCount = config.getAdviceChangeCount();
+		Object target;
+		try {
+			target = targetSource.getTarget();
+		}
+		catch (Exception ex) {
+			// Fall back to obtaining the chain per invocation.
+			return null;
+		}
+		Class<?> targetClass = (target != null ? target.getClass() : null);
+		Map<Method, List<Object>> chains = new HashMap<>();
+		for (Class<?> proxiedInterface : config.getProxiedInterfaces()) {
+			for (Method method : proxiedInterface.getMethods()) {
+				chains.put(method, config.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			}
+		}
+		return new FixedChains(chains, targetSource, adviceChangeCount);
+	}
+
+	/**
+	 * Return the fixed interceptor chain for the given method, recomputing
+	 * the fixed chains if the advice has changed since they were determined.
+	 * @param method the proxied method
+	 * @return the fixed chain, or {@code null} if the chain needs to be
+	 * obtained from the configuration
+	 */
+	@Nullable
+	private List<Object> getFixedChain(Method method) {
+		if (!this.advised.isFrozen()) {
+			return null;
+		}
+		FixedChains fixedChains = this.fixedChains;
+		if (fixedChains == null || !fixedChains.isCurrent(this.advised)) {
+			fixedChains = computeFixedChains(this.advised);
+			this.fixedChains = fixedChains;
+		}
+		return (fixedChains != null ? fixedChains.chains.get(method) : null);
 	}
 
 
@@ -236,7 +298,11 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			 *   	1、方法拦截器
 			 *   	2、方法匹配器
 			 */
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			// A fixed chain avoids the method cache lookup on frozen proxies with a static target.
+			List<Object> chain = getFixedChain(method);
+			if (chain == null) {
+				chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -353,4 +419,29 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		return JdkDynamicAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
 	}
 
+
+	/**
+	 * Interceptor chains per method, along with the target source and the
+	 * advice change count of the configuration that they were determined for.
+	 */
+	private static final class FixedChains {
+
+		final Map<Method, List<Object>> chains;
+
+		private final TargetSource targetSource;
+
+		private final int adviceChangeCount;
+
+		FixedChains(Map<Method, List<Object>> chains, TargetSource targetSource, int adviceChangeCount) {
+			this.chains = chains;
+			this.targetSource = targetSource;
+			this.adviceChangeCount = adviceChangeCount;
+		}
+
+		boolean isCurrent(AdvisedSupport config) {
+			return (config.getTargetSource() == this.targetSource &&
+					config.getAdviceChangeCount() == this.adviceChangeCount);
+		}
+	}
+
 }
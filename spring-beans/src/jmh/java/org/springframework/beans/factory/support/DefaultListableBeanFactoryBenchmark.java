@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * Benchmark for retrieving singleton and prototype beans through
+ * {@link DefaultListableBeanFactory#getBean}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({BeanDefinition.SCOPE_SINGLETON, BeanDefinition.SCOPE_PROTOTYPE})
+		public String scope;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			RootBeanDefinition rbd = new RootBeanDefinition(TestBean.class);
+			rbd.setScope(this.scope);
+			rbd.getPropertyValues().add("name", "juergen");
+			rbd.getPropertyValues().add("age", "99");
+			this.beanFactory.registerBeanDefinition("test", rbd);
+		}
+	}
+
+
+	@Benchmark
+	public Object getBeanByName(BenchmarkState state) {
+		return state.beanFactory.getBean("test");
+	}
+
+	@Benchmark
+	public Object getBeanByType(BenchmarkState state) {
+		return state.beanFactory.getBean(TestBean.class);
+	}
+
+}
@@ -76,6 +76,7 @@ import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -569,6 +570,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					"BeanPostProcessor before instantiation of bean failed", ex);
 		}
 
+		StartupStep beanCreation = getApplicationStartup().start("spring.beans.instantiate")
+				.tag("beanName", beanName);
+		if (resolvedClass != null) {
+			beanCreation.tag("beanType", resolvedClass::getName);
+		}
 		try {
 			/**
 			 * 【 创建 Bean 入口 】 {@link #doCreateBean(String, RootBeanDefinition, Object[])}
@@ -588,6 +594,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			throw new BeanCreationException(
 					mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
 		}
+		finally {
+			beanCreation.end();
+		}
 	}
 
 	/**
@@ -1137,6 +1146,12 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	@Nullable
 	private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
 		synchronized (getSingletonMutex()) {
+			// A FactoryBean being created by another thread cannot be introspected
+			// before that thread is done with it: wait rather than report no type.
+			awaitConcurrentSingletonCreation(beanName);
+			if (mbd.getFactoryBeanName() != null) {
+				awaitConcurrentSingletonCreation(mbd.getFactoryBeanName());
+			}
 			BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
 			if (bw != null) {
 				return (FactoryBean<?>) bw.getWrappedInstance();
@@ -30,7 +30,9 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -39,7 +41,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -48,6 +53,7 @@ import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -69,8 +75,10 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.core.OrderComparator;
@@ -156,6 +164,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
+	/** Optional Executor for pre-instantiating independent singletons in parallel. */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 	/** Map from dependency type to corresponding autowired value. */
 	// 按依赖类型注入 bean 注册表
 	private final Map<Class<?>, Object> resolvableDependencies = new ConcurrentHashMap<>(16);
@@ -324,6 +336,33 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating independent groups of
+	 * non-lazy singletons in parallel within {@link #preInstantiateSingletons()}.
+	 * <p>Singletons which refer to each other through their bean definitions
+	 * (bean references, {@code depends-on}, factory beans) or through
+	 * dependencies registered already are created in the same group, in
+	 * registration order. Dependencies which only show up during creation
+	 * (e.g. autowiring) are resolved by waiting for the creating thread,
+	 * which includes type checks against a FactoryBean in creation.
+	 * {@link SmartInitializingSingleton} callbacks are still invoked
+	 * sequentially, once all singletons have been created.
+	 * <p>Default is none, creating all singletons in the calling thread.
+	 * @since 5.2
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -333,6 +372,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(
 					BeanUtils.instantiateClass(otherListableFactory.getAutowireCandidateResolver().getClass()));
@@ -862,50 +902,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-
-			/**
-			 * 获取bean 定义 {@link #getMergedLocalBeanDefinition(String)}
-			 */
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-
-			// bean 不是抽象，是单例模式，lazy-init 属性为false。
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					/**
-					 * 当 bean 名称前加 & 符合，获取容器本身，而不是容器产生的bean。调用getBean 方法，触发Bean实例化。
-					 */
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-
-						// 校验是否需要预实例化
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-
-							/**
-							 * 触发bean 实例化和依赖注入 {@link #getBean(String)}
-							 */
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-
-					/**
-					 * 触发 bean 实例化和依赖注入 {@link #getBean(String)}
-					 */
-					getBean(beanName);
-				}
+		Executor executor = this.preInstantiationExecutor;
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -943,6 +946,211 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Trigger initialization of the given bean if it is a non-lazy singleton.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		/**
+		 * 获取bean 定义 {@link #getMergedLocalBeanDefinition(String)}
+		 */
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+
+		// bean 不是抽象，是单例模式，lazy-init 属性为false。
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			if (isFactoryBean(beanName)) {
+				/**
+				 * 当 bean 名称前加 & 符合，获取容器本身，而不是容器产生的bean。调用getBean 方法，触发Bean实例化。
+				 */
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+
+					// 校验是否需要预实例化
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+
+						/**
+						 * 触发bean 实例化和依赖注入 {@link #getBean(String)}
+						 */
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+
+				/**
+				 * 触发 bean 实例化和依赖注入 {@link #getBean(String)}
+				 */
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given singletons in groups of beans which refer to each
+	 * other, running independent groups in parallel on the given Executor.
+	 * @param beanNames the names of the beans, in registration order
+	 * @param executor the Executor to run each group of beans on
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		List<List<String>> groups = getIndependentSingletonGroups(beanNames);
+		if (groups.size() <= 1) {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+			return;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating " + groups.size() + " independent groups of singletons in parallel");
+		}
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+		for (List<String> group : groups) {
+			futures.add(CompletableFuture.runAsync(() -> runWithConcurrentSingletonCreation(() -> {
+				for (String beanName : group) {
+					preInstantiateSingleton(beanName);
+				}
+			}), executor));
+		}
+
+		// Wait for all groups, then propagate the failure of the earliest registered group
+		Throwable failure = null;
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				if (failure == null) {
+					failure = (ex.getCause() != null ? ex.getCause() : ex);
+				}
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new BeanCreationException("Singleton pre-instantiation failed", failure);
+		}
+	}
+
+	/**
+	 * Determine the groups of non-lazy singletons which are connected through the
+	 * dependencies expressed in their bean definitions or registered already.
+	 * @param beanNames the names of the beans, in registration order
+	 * @return the groups of bean names, each in registration order, ordered
+	 * by the registration of their first bean
+	 */
+	private List<List<String>> getIndependentSingletonGroups(List<String> beanNames) {
+		Map<String, String> parents = new HashMap<>(beanNames.size() * 2);
+		List<String> candidateNames = new ArrayList<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				candidateNames.add(beanName);
+			}
+			Set<String> dependencies = new LinkedHashSet<>();
+			collectBeanReferences(bd, dependencies);
+			Collections.addAll(dependencies, getDependenciesForBean(beanName));
+			for (String dependency : dependencies) {
+				unionSingletonGroups(parents, beanName, transformedBeanName(dependency));
+			}
+		}
+
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : candidateNames) {
+			groups.computeIfAbsent(findSingletonGroup(parents, beanName), key -> new ArrayList<>()).add(beanName);
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	private static void unionSingletonGroups(Map<String, String> parents, String beanName, String otherBeanName) {
+		String group = findSingletonGroup(parents, beanName);
+		String otherGroup = findSingletonGroup(parents, otherBeanName);
+		if (!group.equals(otherGroup)) {
+			parents.put(otherGroup, group);
+		}
+	}
+
+	private static String findSingletonGroup(Map<String, String> parents, String beanName) {
+		String group = beanName;
+		String parent = parents.get(group);
+		while (parent != null) {
+			group = parent;
+			parent = parents.get(group);
+		}
+		if (!group.equals(beanName)) {
+			parents.put(beanName, group);
+		}
+		return group;
+	}
+
+	/**
+	 * Collect the names of all beans that the given bean definition value
+	 * refers to, including references from within inner bean definitions
+	 * and managed collections.
+	 * @param value the bean definition or bean definition value to introspect
+	 * @param beanNames the set of referenced bean names to add to
+	 */
+	private void collectBeanReferences(@Nullable Object value, Set<String> beanNames) {
+		if (value instanceof BeanReference) {
+			beanNames.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectBeanReferences(((BeanDefinitionHolder) value).getBeanDefinition(), beanNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			BeanDefinition bd = (BeanDefinition) value;
+			String[] dependsOn = bd.getDependsOn();
+			if (dependsOn != null) {
+				Collections.addAll(beanNames, dependsOn);
+			}
+			if (bd.getFactoryBeanName() != null) {
+				beanNames.add(bd.getFactoryBeanName());
+			}
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectBeanReferences(pv.getValue(), beanNames);
+			}
+			ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getIndexedArgumentValues().values()) {
+				collectBeanReferences(valueHolder.getValue(), beanNames);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getGenericArgumentValues()) {
+				collectBeanReferences(valueHolder.getValue(), beanNames);
+			}
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectBeanReferences(element, beanNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectBeanReferences(entry.getKey(), beanNames);
+				collectBeanReferences(entry.getValue(), beanNames);
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectBeanReferences(element, beanNames);
+			}
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
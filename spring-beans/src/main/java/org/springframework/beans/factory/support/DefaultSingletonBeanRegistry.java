@@ -32,6 +32,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -109,6 +110,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Map between depending bean names: bean name to Set of bean names for the bean's dependencies. */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
+	/** Singletons created outside of the singleton lock: bean name to creating thread. */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for the concurrent creation of a singleton: thread to bean name. */
+	private final Map<Thread, String> singletonCreationWaits = new ConcurrentHashMap<>(16);
+
+	/** Whether the current thread creates singletons outside of the singleton lock. */
+	private final ThreadLocal<Boolean> concurrentSingletonCreation =
+			new NamedThreadLocal<>("Concurrent singleton creation");
+
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
@@ -231,6 +242,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			 */
 			synchronized (this.singletonObjects) {
 
+				// Wait for a singleton that is being created concurrently by another thread:
+				// its early reference is only exposed for resolving a circular reference.
+				if (allowEarlyReference && awaitConcurrentSingletonCreation(beanName)) {
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject != null) {
+						return singletonObject;
+					}
+				}
+
 				// 【从缓存中获取】 从 earlySingletonObjects 中获取提前曝光的 bean，用于处理循环引用
 				singletonObject = this.earlySingletonObjects.get(beanName);
 
@@ -281,9 +301,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (Boolean.TRUE.equals(this.concurrentSingletonCreation.get())) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 
 		// 全局变量需要同步
 		synchronized (this.singletonObjects) {
+			awaitConcurrentSingletonCreation(beanName);
 
 			// 从缓存中获取单例 bean，若不为空，则直接返回，不用再初始化
 			Object singletonObject = this.singletonObjects.get(beanName);
@@ -351,6 +375,153 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Create the given singleton without holding the singleton lock during the
+	 * factory callback, for a thread within {@link #runWithConcurrentSingletonCreation}.
+	 * <p>Every such singleton is claimed by its creating thread, with other threads
+	 * waiting for it to be fully initialized.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton with
+	 * @return the registered singleton object
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		synchronized (this.singletonObjects) {
+			awaitConcurrentSingletonCreation(beanName);
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName +
+						"' in thread [" + Thread.currentThread().getName() + "]");
+			}
+			beforeSingletonCreation(beanName);
+			this.singletonCreationThreads.put(beanName, Thread.currentThread());
+		}
+
+		Object singletonObject = null;
+		boolean newSingleton = false;
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				try {
+					afterSingletonCreation(beanName);
+					if (newSingleton) {
+						addSingleton(beanName, singletonObject);
+					}
+				}
+				finally {
+					this.singletonCreationThreads.remove(beanName);
+					this.singletonObjects.notifyAll();
+				}
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Wait until the given singleton is not being created concurrently by another
+	 * thread anymore, unless that thread is itself (indirectly) waiting for the
+	 * current thread: i.e. a circular reference between concurrently created singletons.
+	 * <p>To be called with the singleton lock held, which is released while waiting.
+	 * @param beanName the name of the bean
+	 * @return whether the current thread had to wait
+	 * @since 5.2
+	 * @see #runWithConcurrentSingletonCreation
+	 */
+	protected boolean awaitConcurrentSingletonCreation(String beanName) {
+		if (this.singletonCreationThreads.isEmpty()) {
+			return false;
+		}
+		Thread currentThread = Thread.currentThread();
+		boolean waited = false;
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		while (creationThread != null && creationThread != currentThread &&
+				!isAwaitingSingletonCreation(creationThread, currentThread)) {
+			this.singletonCreationWaits.put(currentThread, beanName);
+			try {
+				this.singletonObjects.wait();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException(beanName,
+						"Interrupted while waiting for concurrent creation of singleton bean");
+			}
+			finally {
+				this.singletonCreationWaits.remove(currentThread);
+			}
+			waited = true;
+			creationThread = this.singletonCreationThreads.get(beanName);
+		}
+		return waited;
+	}
+
+	/**
+	 * Determine whether the given thread is (indirectly) waiting for a singleton
+	 * that is being created by the specified creation thread.
+	 * @param thread the potentially waiting thread
+	 * @param creationThread the thread creating singletons
+	 */
+	private boolean isAwaitingSingletonCreation(Thread thread, Thread creationThread) {
+		Thread current = thread;
+		for (int i = 0; i <= this.singletonCreationWaits.size(); i++) {
+			String awaitedBeanName = this.singletonCreationWaits.get(current);
+			if (awaitedBeanName == null) {
+				return false;
+			}
+			current = this.singletonCreationThreads.get(awaitedBeanName);
+			if (current == null) {
+				return false;
+			}
+			if (current == creationThread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Run the given task with singletons being created outside of the singleton lock
+	 * in the current thread, allowing for several threads to create independent
+	 * singletons at the same time. Each singleton is created by one thread only,
+	 * with other threads waiting for its completion unless resolving a circular
+	 * reference.
+	 * @param task the task to run, typically triggering singleton creation
+	 * @since 5.2
+	 * @see DefaultListableBeanFactory#setPreInstantiationExecutor
+	 */
+	protected void runWithConcurrentSingletonCreation(Runnable task) {
+		Boolean previous = this.concurrentSingletonCreation.get();
+		this.concurrentSingletonCreation.set(Boolean.TRUE);
+		try {
+			task.run();
+		}
+		finally {
+			if (previous != null) {
+				this.concurrentSingletonCreation.set(previous);
+			}
+			else {
+				this.concurrentSingletonCreation.remove();
+			}
+		}
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
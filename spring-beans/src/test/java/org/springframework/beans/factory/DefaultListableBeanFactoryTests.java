@@ -37,6 +37,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -2873,6 +2877,103 @@ public class DefaultListableBeanFactoryTests {
 		assertEquals(NonPublicEnum.VALUE_1, holder.getNonPublicEnum());
 	}
 
+	@Test(timeout = 5000)
+	public void testParallelPreInstantiationOfIndependentSingletons() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(BarrierBean.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		lbf.registerBeanDefinition("barrier1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(BarrierBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		lbf.registerBeanDefinition("barrier2", bd2);
+		RootBeanDefinition dependent = new RootBeanDefinition(DependingBarrierBean.class);
+		dependent.getPropertyValues().add("barrierBean", new RuntimeBeanReference("barrier1"));
+		lbf.registerBeanDefinition("dependent", dependent);
+		lbf.registerBeanDefinition("smart", new RootBeanDefinition(SmartSingletonBean.class));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		DependingBarrierBean dependingBean = (DependingBarrierBean) lbf.getBean("dependent");
+		assertSame(lbf.getBean("barrier1"), dependingBean.getBarrierBean());
+		assertTrue(lbf.containsSingleton("barrier2"));
+		assertTrue(lbf.getBean("smart", SmartSingletonBean.class).afterSingletonsInstantiated);
+	}
+
+	@Test(timeout = 5000)
+	public void testParallelPreInstantiationAwaitsSingletonInCreationByOtherThread() {
+		RootBeanDefinition consumer = new RootBeanDefinition(SlowBeanConsumer.class);
+		consumer.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("consumer", consumer);
+		lbf.registerBeanDefinition("slow", new RootBeanDefinition(SlowInitializingBean.class));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		SlowBeanConsumer consumerBean = lbf.getBean(SlowBeanConsumer.class);
+		assertSame(lbf.getBean("slow"), consumerBean.slowBean);
+		assertTrue(consumerBean.slowBeanInitialized);
+	}
+
+	@Test(timeout = 5000)
+	public void testParallelPreInstantiationWithCircularReferenceAcrossThreads() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(CircularBarrierBean1.class);
+		bd1.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		lbf.registerBeanDefinition("circular1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(CircularBarrierBean2.class);
+		bd2.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		lbf.registerBeanDefinition("circular2", bd2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		CircularBarrierBean1 bean1 = lbf.getBean(CircularBarrierBean1.class);
+		CircularBarrierBean2 bean2 = lbf.getBean(CircularBarrierBean2.class);
+		assertSame(bean2, bean1.bean2);
+		assertSame(bean1, bean2.bean1);
+	}
+
+	@Test(timeout = 5000)
+	public void testParallelPreInstantiationAwaitsFactoryBeanInCreationForTypeMatch() {
+		lbf.registerBeanDefinition("slowFactory", new RootBeanDefinition(SlowFactoryBean.class));
+		RootBeanDefinition consumer = new RootBeanDefinition(SlowProductConsumer.class);
+		consumer.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("consumer", consumer);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		SlowProductConsumer consumerBean = lbf.getBean(SlowProductConsumer.class);
+		assertSame(lbf.getBean("slowFactory"), consumerBean.product);
+	}
+
 	/**
 	 * Test that by-type bean lookup caching is working effectively by searching for a
 	 * bean of type B 10K times within a container having 1K additional beans of type A.
@@ -2927,6 +3028,128 @@ public class DefaultListableBeanFactoryTests {
 	static class B { }
 
 
+	public static class BarrierBean {
+
+		public BarrierBean(CyclicBarrier barrier) throws Exception {
+			barrier.await(2, TimeUnit.SECONDS);
+		}
+	}
+
+
+	public static class DependingBarrierBean {
+
+		private BarrierBean barrierBean;
+
+		public void setBarrierBean(BarrierBean barrierBean) {
+			this.barrierBean = barrierBean;
+		}
+
+		public BarrierBean getBarrierBean() {
+			return this.barrierBean;
+		}
+	}
+
+
+	public static class SmartSingletonBean implements SmartInitializingSingleton {
+
+		boolean afterSingletonsInstantiated;
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.afterSingletonsInstantiated = true;
+		}
+	}
+
+
+	public static class SlowInitializingBean implements InitializingBean {
+
+		volatile boolean initialized;
+
+		@Override
+		public void afterPropertiesSet() throws Exception {
+			Thread.sleep(200);
+			this.initialized = true;
+		}
+	}
+
+
+	public static class SlowBeanConsumer {
+
+		final SlowInitializingBean slowBean;
+
+		final boolean slowBeanInitialized;
+
+		public SlowBeanConsumer(SlowInitializingBean slowBean) {
+			this.slowBean = slowBean;
+			this.slowBeanInitialized = slowBean.initialized;
+		}
+	}
+
+
+	public static class SlowProduct {
+	}
+
+
+	@SuppressWarnings("rawtypes")
+	public static class SlowFactoryBean implements FactoryBean, InitializingBean {
+
+		private final SlowProduct product = new SlowProduct();
+
+		@Override
+		public void afterPropertiesSet() throws Exception {
+			Thread.sleep(200);
+		}
+
+		@Override
+		public Object getObject() {
+			return this.product;
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return SlowProduct.class;
+		}
+	}
+
+
+	public static class SlowProductConsumer {
+
+		final SlowProduct product;
+
+		public SlowProductConsumer(SlowProduct product) {
+			this.product = product;
+		}
+	}
+
+
+	public static class CircularBarrierBean1 {
+
+		CircularBarrierBean2 bean2;
+
+		public CircularBarrierBean1(CyclicBarrier barrier) throws Exception {
+			barrier.await(2, TimeUnit.SECONDS);
+		}
+
+		public void setBean2(CircularBarrierBean2 bean2) {
+			this.bean2 = bean2;
+		}
+	}
+
+
+	public static class CircularBarrierBean2 {
+
+		CircularBarrierBean1 bean1;
+
+		public CircularBarrierBean2(CyclicBarrier barrier) throws Exception {
+			barrier.await(2, TimeUnit.SECONDS);
+		}
+
+		public void setBean1(CircularBarrierBean1 bean1) {
+			this.bean1 = bean1;
+		}
+	}
+
+
 	public static class NoDependencies {
 
 		private NoDependencies() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,11 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>As of 5.2, the class and annotation metadata of each candidate component
+ * and of its superclasses compiled in the same build is written as well, allowing
+ * Spring's {@code CachingMetadataReaderFactory} to serve that metadata without
+ * reading the class files at runtime.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -55,6 +60,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private ClassMetadataEncoder classMetadataEncoder;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -77,8 +84,10 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.classMetadataEncoder = new ClassMetadataEncoder(env);
 		this.metadataStore = new MetadataStore(env);
-		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		this.metadataCollector = new MetadataCollector(env,
+				this.metadataStore.readMetadata(), this.metadataStore.readClassMetadata());
 	}
 
 	@Override
@@ -118,6 +127,23 @@ public class CandidateComponentsIndexer implements Processor {
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			addClassMetadataFor(element);
+		}
+	}
+
+	private void addClassMetadataFor(Element element) {
+		Element current = element;
+		while (current instanceof TypeElement) {
+			String type = this.typeHelper.getType(current);
+			if (current != element && !this.metadataCollector.isSourceType(type)) {
+				break;
+			}
+			String encoded = this.classMetadataEncoder.encode((TypeElement) current);
+			if (encoded != null) {
+				this.metadataCollector.addClassMetadata(
+						this.classMetadataEncoder.getClassName((TypeElement) current), encoded);
+			}
+			current = this.typeHelper.getSuperClass(current);
 		}
 	}
 
@@ -126,6 +152,7 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!metadata.getItems().isEmpty()) {
 			try {
 				this.metadataStore.writeMetadata(metadata);
+				this.metadataStore.writeClassMetadata(this.metadataCollector.getClassMetadata());
 			}
 			catch (IOException ex) {
 				throw new IllegalStateException("Failed to write metadata", ex);
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the class and annotation metadata of a type as the class file visitor
+ * events that Spring's {@code MetadataIndex} replays at runtime, so that the
+ * class file does not need to be read. Only annotations retained in the class
+ * file and methods carrying such annotations are recorded.
+ *
+ * @author agent
+ * @since 5.2
+ */
+class ClassMetadataEncoder {
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public ClassMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the class name of the given type, as used for
+	 * loading it and as the key of its encoded metadata.
+	 */
+	public String getClassName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Encode the metadata of the given top-level or member type.
+	 * @return the encoded metadata, or {@code null} if the type cannot be
+	 * encoded (e.g. since it refers to types that could not be resolved)
+	 */
+	public String encode(TypeElement type) {
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER) {
+			return null;
+		}
+		try {
+			Tokens tokens = new Tokens();
+			tokens.add("C").add(getAccess(type, false)).add(getInternalName(type));
+			if (type.getKind().isInterface()) {
+				tokens.add("java/lang/Object");
+			}
+			else {
+				TypeMirror superclass = type.getSuperclass();
+				tokens.add(superclass.getKind() == TypeKind.NONE ? "-" : getInternalName(superclass));
+			}
+			List<? extends TypeMirror> interfaces = type.getInterfaces();
+			tokens.add(interfaces.size());
+			for (TypeMirror ifc : interfaces) {
+				tokens.add(getInternalName(ifc));
+			}
+			addAnnotations(tokens, type);
+			if (type.getNestingKind() == NestingKind.MEMBER) {
+				addInnerClass(tokens, type);
+			}
+			for (TypeElement memberType : ElementFilter.typesIn(type.getEnclosedElements())) {
+				addInnerClass(tokens, memberType);
+			}
+			for (Element member : type.getEnclosedElements()) {
+				if (member.getKind() == ElementKind.METHOD || member.getKind() == ElementKind.CONSTRUCTOR) {
+					addMethod(tokens, (ExecutableElement) member);
+				}
+			}
+			return tokens.toString();
+		}
+		catch (IllegalStateException ex) {
+			return null;
+		}
+	}
+
+	private void addInnerClass(Tokens tokens, TypeElement type) {
+		tokens.add("I").add(getInternalName(type)).add(getInternalName((TypeElement) type.getEnclosingElement()))
+				.add(type.getSimpleName().toString()).add(getAccess(type, true));
+	}
+
+	private void addMethod(Tokens tokens, ExecutableElement method) {
+		List<AnnotationMirror> annotations = getRetainedAnnotations(method);
+		if (annotations.isEmpty()) {
+			return;
+		}
+		boolean constructor = (method.getKind() == ElementKind.CONSTRUCTOR);
+		StringBuilder desc = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			desc.append(getDescriptor(parameter.asType()));
+		}
+		desc.append(')').append(constructor ? "V" : getDescriptor(method.getReturnType()));
+		tokens.add("M").add(getAccess(method)).add(constructor ? "<init>" : method.getSimpleName().toString())
+				.add(desc.toString());
+		addAnnotations(tokens, annotations);
+	}
+
+	private void addAnnotations(Tokens tokens, Element element) {
+		addAnnotations(tokens, getRetainedAnnotations(element));
+	}
+
+	private void addAnnotations(Tokens tokens, List<AnnotationMirror> annotations) {
+		for (AnnotationMirror annotation : annotations) {
+			boolean visible = (getRetention(annotation) == RetentionPolicy.RUNTIME);
+			tokens.add("A").add(getDescriptor(annotation.getAnnotationType())).add(visible ? "1" : "0");
+			addAnnotationValues(tokens, annotation);
+		}
+	}
+
+	private void addAnnotationValues(Tokens tokens, AnnotationMirror annotation) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			addValue(tokens, entry.getKey().getSimpleName().toString(),
+					entry.getKey().getReturnType(), entry.getValue().getValue());
+		}
+		tokens.add(")");
+	}
+
+	private void addValue(Tokens tokens, String name, TypeMirror type, Object value) {
+		if (value instanceof List) {
+			List<?> values = (List<?>) value;
+			TypeMirror componentType = ((ArrayType) type).getComponentType();
+			if (componentType.getKind().isPrimitive()) {
+				StringBuilder array = new StringBuilder("[").append(getDescriptor(componentType)).append(':');
+				for (int i = 0; i < values.size(); i++) {
+					if (i > 0) {
+						array.append(',');
+					}
+					array.append(encodePrimitive(((AnnotationValue) values.get(i)).getValue()));
+				}
+				tokens.add("v").add(name).add(array.toString());
+			}
+			else {
+				tokens.add("[").add(name);
+				for (Object element : values) {
+					addValue(tokens, "-", componentType, ((AnnotationValue) element).getValue());
+				}
+				tokens.add(")");
+			}
+		}
+		else if (value instanceof AnnotationMirror) {
+			AnnotationMirror annotation = (AnnotationMirror) value;
+			tokens.add("a").add(name).add(getDescriptor(annotation.getAnnotationType()));
+			addAnnotationValues(tokens, annotation);
+		}
+		else if (value instanceof VariableElement) {
+			VariableElement constant = (VariableElement) value;
+			tokens.add("e").add(name).add(getDescriptor(constant.asType())).add(constant.getSimpleName().toString());
+		}
+		else if (value instanceof TypeMirror) {
+			tokens.add("v").add(name).add("T:" + getDescriptor((TypeMirror) value));
+		}
+		else if (value instanceof String) {
+			tokens.add("v").add(name).add("s:" + encodeString((String) value));
+		}
+		else {
+			tokens.add("v").add(name).add(getPrimitiveType(value) + ":" + encodePrimitive(value));
+		}
+	}
+
+	private List<AnnotationMirror> getRetainedAnnotations(Element element) {
+		// Runtime-visible annotations precede runtime-invisible ones in the class file
+		List<AnnotationMirror> visible = new ArrayList<>();
+		List<AnnotationMirror> invisible = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			RetentionPolicy retention = getRetention(annotation);
+			if (retention == RetentionPolicy.RUNTIME) {
+				visible.add(annotation);
+			}
+			else if (retention == RetentionPolicy.CLASS) {
+				invisible.add(annotation);
+			}
+		}
+		visible.addAll(invisible);
+		return visible;
+	}
+
+	private RetentionPolicy getRetention(AnnotationMirror annotation) {
+		Element annotationType = annotation.getAnnotationType().asElement();
+		for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+			TypeElement metaAnnotationType = (TypeElement) metaAnnotation.getAnnotationType().asElement();
+			if (metaAnnotationType.getQualifiedName().contentEquals("java.lang.annotation.Retention")) {
+				for (AnnotationValue value : metaAnnotation.getElementValues().values()) {
+					return RetentionPolicy.valueOf(((VariableElement) value.getValue()).getSimpleName().toString());
+				}
+			}
+		}
+		return RetentionPolicy.CLASS;
+	}
+
+	private int getAccess(TypeElement type, boolean innerClassEntry) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC) || (!innerClassEntry && modifiers.contains(Modifier.PROTECTED))) {
+			access |= ACC_PUBLIC;
+		}
+		if (innerClassEntry) {
+			if (modifiers.contains(Modifier.PRIVATE)) {
+				access |= ACC_PRIVATE;
+			}
+			if (modifiers.contains(Modifier.PROTECTED)) {
+				access |= ACC_PROTECTED;
+			}
+			if (modifiers.contains(Modifier.STATIC) || type.getKind() != ElementKind.CLASS ||
+					type.getEnclosingElement().getKind().isInterface()) {
+				access |= ACC_STATIC;
+			}
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT) || type.getKind().isInterface()) {
+			access |= ACC_ABSTRACT;
+		}
+		if (type.getKind().isInterface()) {
+			access |= ACC_INTERFACE;
+		}
+		if (type.getKind() == ElementKind.ANNOTATION_TYPE) {
+			access |= ACC_ANNOTATION;
+		}
+		if (type.getKind() == ElementKind.ENUM) {
+			access |= ACC_ENUM;
+		}
+		return access;
+	}
+
+	private int getAccess(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		boolean interfaceMember = method.getEnclosingElement().getKind().isInterface();
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC) || (interfaceMember && !modifiers.contains(Modifier.PRIVATE))) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			access |= ACC_PRIVATE;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.SYNCHRONIZED)) {
+			access |= ACC_SYNCHRONIZED;
+		}
+		if (modifiers.contains(Modifier.NATIVE)) {
+			access |= ACC_NATIVE;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT) || (interfaceMember && !modifiers.contains(Modifier.DEFAULT) &&
+				!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.PRIVATE))) {
+			access |= ACC_ABSTRACT;
+		}
+		return access;
+	}
+
+	private String getInternalName(TypeMirror type) {
+		TypeMirror erased = this.types.erasure(type);
+		if (erased.getKind() != TypeKind.DECLARED) {
+			throw new IllegalStateException("Unresolvable type " + type);
+		}
+		return getInternalName((TypeElement) ((DeclaredType) erased).asElement());
+	}
+
+	private String getInternalName(TypeElement type) {
+		return getClassName(type).replace('.', '/');
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case VOID:
+				return "V";
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+			case TYPEVAR:
+				return "L" + getInternalName(type) + ";";
+			default:
+				throw new IllegalStateException("Unresolvable type " + type);
+		}
+	}
+
+	private static String getPrimitiveType(Object value) {
+		if (value instanceof Boolean) {
+			return "Z";
+		}
+		if (value instanceof Byte) {
+			return "B";
+		}
+		if (value instanceof Character) {
+			return "C";
+		}
+		if (value instanceof Short) {
+			return "S";
+		}
+		if (value instanceof Integer) {
+			return "I";
+		}
+		if (value instanceof Long) {
+			return "J";
+		}
+		if (value instanceof Float) {
+			return "F";
+		}
+		if (value instanceof Double) {
+			return "D";
+		}
+		throw new IllegalStateException("Unsupported annotation value " + value);
+	}
+
+	private static String encodePrimitive(Object value) {
+		return (value instanceof Character ? Integer.toString((Character) value) : value.toString());
+	}
+
+	private static String encodeString(String value) {
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ' ' || c == '%' || c < 0x20) {
+				result.append('%').append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+
+	/**
+	 * Space-separated tokens of an encoded entry.
+	 */
+	private static class Tokens {
+
+		private final StringBuilder content = new StringBuilder();
+
+		public Tokens add(String token) {
+			if (this.content.length() > 0) {
+				this.content.append(' ');
+			}
+			this.content.append(token);
+			return this;
+		}
+
+		public Tokens add(int token) {
+			return add(Integer.toString(token));
+		}
+
+		@Override
+		public String toString() {
+			return this.content.toString();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,10 @@ package org.springframework.context.index.processor;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import javax.annotation.processing.ProcessingEnvironment;
@@ -40,6 +43,10 @@ class MetadataCollector {
 
 	private final CandidateComponentsMetadata previousMetadata;
 
+	private final Map<String, String> classMetadata = new LinkedHashMap<>();
+
+	private final Properties previousClassMetadata;
+
 	private final TypeHelper typeHelper;
 
 	private final Set<String> processedSourceTypes = new HashSet<>();
@@ -53,8 +60,22 @@ class MetadataCollector {
 	public MetadataCollector(ProcessingEnvironment processingEnvironment,
 			CandidateComponentsMetadata previousMetadata) {
 
+		this(processingEnvironment, previousMetadata, null);
+	}
+
+	/**
+	 * Create a new {@code MetadataProcessor} instance.
+	 * @param processingEnvironment the processing environment of the build
+	 * @param previousMetadata any previous metadata or {@code null}
+	 * @param previousClassMetadata any previous encoded class metadata or {@code null}
+	 * @since 5.2
+	 */
+	public MetadataCollector(ProcessingEnvironment processingEnvironment,
+			CandidateComponentsMetadata previousMetadata, Properties previousClassMetadata) {
+
 		this.processingEnvironment = processingEnvironment;
 		this.previousMetadata = previousMetadata;
+		this.previousClassMetadata = previousClassMetadata;
 		this.typeHelper = new TypeHelper(processingEnvironment);
 	}
 
@@ -75,6 +96,39 @@ class MetadataCollector {
 		this.metadataItems.add(metadata);
 	}
 
+	/**
+	 * Add the encoded class metadata for the given type.
+	 * @since 5.2
+	 */
+	public void addClassMetadata(String type, String encodedMetadata) {
+		this.classMetadata.put(type, encodedMetadata);
+	}
+
+	/**
+	 * Determine whether the given type is a source type of the current build.
+	 * @since 5.2
+	 */
+	public boolean isSourceType(String type) {
+		return processedInCurrentBuild(type);
+	}
+
+	/**
+	 * Return the encoded class metadata per type, merged with the
+	 * previous class metadata of types not processed in this build.
+	 * @since 5.2
+	 */
+	public Map<String, String> getClassMetadata() {
+		Map<String, String> result = new LinkedHashMap<>(this.classMetadata);
+		if (this.previousClassMetadata != null) {
+			for (String type : this.previousClassMetadata.stringPropertyNames()) {
+				if (!result.containsKey(type) && !deletedInCurrentBuild(type) && !processedInCurrentBuild(type)) {
+					result.put(type, this.previousClassMetadata.getProperty(type));
+				}
+			}
+		}
+		return result;
+	}
+
 	public CandidateComponentsMetadata getMetadata() {
 		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
 		for (ItemMetadata item : this.metadataItems) {
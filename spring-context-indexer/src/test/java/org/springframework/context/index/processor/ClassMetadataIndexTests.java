@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.index.sample.AbstractSampleConfiguration;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConfiguration;
+import org.springframework.context.index.sample.SampleValues;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.ObjectUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class metadata written by {@link CandidateComponentsIndexer},
+ * comparing the metadata served from the index with the metadata read from
+ * the class files.
+ *
+ * @author agent
+ */
+public class ClassMetadataIndexTests {
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void candidateAndSourceSuperclassAreIndexed() throws IOException {
+		Properties index = compile(SampleConfiguration.class, AbstractSampleConfiguration.class,
+				SampleComponent.class, SampleValues.class);
+		assertTrue(index.containsKey(SampleConfiguration.class.getName()));
+		assertTrue(index.containsKey(SampleConfiguration.class.getName() + "$NestedConfiguration"));
+		assertTrue(index.containsKey(AbstractSampleConfiguration.class.getName()));
+		assertTrue(index.containsKey(SampleComponent.class.getName()));
+		assertFalse(index.containsKey(SampleValues.class.getName()));
+		assertFalse(index.containsKey(Object.class.getName()));
+	}
+
+	@Test
+	public void indexedMetadataMatchesClassFile() throws IOException {
+		compile(SampleConfiguration.class, AbstractSampleConfiguration.class,
+				SampleComponent.class, SampleValues.class);
+		assertSameMetadata(SampleConfiguration.class.getName());
+		assertSameMetadata(SampleConfiguration.class.getName() + "$NestedConfiguration");
+		assertSameMetadata(AbstractSampleConfiguration.class.getName());
+		assertSameMetadata(SampleComponent.class.getName());
+	}
+
+
+	private Properties compile(Class<?>... types) throws IOException {
+		this.compiler.getTask(types).call(new CandidateComponentsIndexer());
+		File file = new File(this.compiler.getOutputLocation(), MetadataStore.CLASS_METADATA_PATH);
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private void assertSameMetadata(String className) throws IOException {
+		URL[] urls = new URL[] {this.compiler.getOutputLocation().toURI().toURL()};
+		try (URLClassLoader classLoader = new URLClassLoader(urls, getClass().getClassLoader())) {
+			MetadataReader indexed = new CachingMetadataReaderFactory(classLoader).getMetadataReader(className);
+			MetadataReader read = new SimpleMetadataReaderFactory(classLoader).getMetadataReader(className);
+			assertEquals("IndexedMetadataReader", indexed.getClass().getSimpleName());
+			assertEquals("SimpleMetadataReader", read.getClass().getSimpleName());
+			assertSameMetadata(indexed.getAnnotationMetadata(), read.getAnnotationMetadata());
+		}
+	}
+
+	private void assertSameMetadata(AnnotationMetadata indexed, AnnotationMetadata read) {
+		assertEquals(read.getClassName(), indexed.getClassName());
+		assertEquals(read.isInterface(), indexed.isInterface());
+		assertEquals(read.isAnnotation(), indexed.isAnnotation());
+		assertEquals(read.isAbstract(), indexed.isAbstract());
+		assertEquals(read.isFinal(), indexed.isFinal());
+		assertEquals(read.isIndependent(), indexed.isIndependent());
+		assertEquals(read.getEnclosingClassName(), indexed.getEnclosingClassName());
+		assertEquals(read.getSuperClassName(), indexed.getSuperClassName());
+		assertArrayEquals(read.getInterfaceNames(), indexed.getInterfaceNames());
+		assertArrayEquals(read.getMemberClassNames(), indexed.getMemberClassNames());
+		assertEquals(read.getAnnotationTypes(), indexed.getAnnotationTypes());
+		for (String annotationType : read.getAnnotationTypes()) {
+			assertEquals(read.getMetaAnnotationTypes(annotationType), indexed.getMetaAnnotationTypes(annotationType));
+			assertEquals(deepToString(read.getAnnotationAttributes(annotationType, true)),
+					deepToString(indexed.getAnnotationAttributes(annotationType, true)));
+			assertEquals(deepToString(read.getAllAnnotationAttributes(annotationType, true)),
+					deepToString(indexed.getAllAnnotationAttributes(annotationType, true)));
+		}
+		assertEquals(describe(read.getAnnotatedMethods(Bean.class.getName())),
+				describe(indexed.getAnnotatedMethods(Bean.class.getName())));
+		assertEquals(describe(read.getAnnotatedMethods(Deprecated.class.getName())),
+				describe(indexed.getAnnotatedMethods(Deprecated.class.getName())));
+	}
+
+	private String describe(Set<MethodMetadata> methods) {
+		return methods.stream().map(method -> method.getMethodName() + ":" + method.getReturnTypeName() + ":" +
+				method.isStatic() + ":" + method.isFinal() + ":" + method.isOverridable() + ":" +
+				deepToString(method.getAnnotationAttributes(Bean.class.getName(), true)) + ":" +
+				deepToString(method.getAnnotationAttributes(SampleValues.class.getName(), true)))
+				.collect(Collectors.joining(", "));
+	}
+
+	private static String deepToString(Object value) {
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).entrySet().stream()
+					.map(entry -> entry.getKey() + "=" + deepToString(entry.getValue()))
+					.collect(Collectors.joining(", ", "{", "}"));
+		}
+		if (value instanceof List) {
+			return ((List<?>) value).stream().map(ClassMetadataIndexTests::deepToString)
+					.collect(Collectors.joining(", ", "[", "]"));
+		}
+		if (value instanceof Object[]) {
+			return deepToString(Arrays.asList((Object[]) value));
+		}
+		return ObjectUtils.nullSafeToString(value);
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.RetentionPolicy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test {@link Configuration} class with a variety of annotation attributes.
+ *
+ * @author agent
+ */
+@Configuration
+@Import(SampleComponent.class)
+@Profile({"dev", "with space"})
+@ComponentScan(basePackageClasses = SampleComponent.class,
+		excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Repository.class))
+@SampleValues(flag = true, b = 1, c = 'x', s = 2, i = 3, l = 4L, f = 5.5f, d = 6.5, text = "100% text\n",
+		type = String[].class, ints = {1, 2}, flags = true, chars = {}, texts = {"a", ""}, types = {int.class, Serializable.class},
+		policy = RetentionPolicy.CLASS, elementTypes = {ElementType.TYPE, ElementType.METHOD})
+public class SampleConfiguration extends AbstractSampleConfiguration implements Serializable {
+
+	@Autowired
+	public SampleConfiguration(SampleComponent component) {
+	}
+
+
+	@Bean(name = {"one", "uno"}, initMethod = "init")
+	@Lazy
+	@Scope("prototype")
+	public String one() {
+		return "one";
+	}
+
+	@Bean
+	public static int[] numbers() {
+		return new int[0];
+	}
+
+	@Deprecated
+	final void notABean() {
+	}
+
+	public void plain() {
+	}
+
+
+	@Configuration
+	static class NestedConfiguration {
+
+		@Bean
+		@SampleValues(ints = 1)
+		public Object nested() {
+			return new Object();
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test annotation with attributes of all supported types.
+ *
+ * @author agent
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SampleValues {
+
+	boolean flag() default false;
+
+	byte b() default 0;
+
+	char c() default 'c';
+
+	short s() default 0;
+
+	int i() default 0;
+
+	long l() default 0;
+
+	float f() default 0;
+
+	double d() default 0;
+
+	String text() default "";
+
+	Class<?> type() default Object.class;
+
+	int[] ints() default {};
+
+	boolean[] flags() default {};
+
+	char[] chars() default {};
+
+	String[] texts() default {};
+
+	Class<?>[] types() default {};
+
+	RetentionPolicy policy() default RetentionPolicy.RUNTIME;
+
+	ElementType[] elementTypes() default {};
+
+}
@@ -0,0 +1,1069 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * A {@link ConcurrentMap} with a maximum size or weight, optional expiration
+ * of entries and hit/miss/eviction statistics, suitable as a bounded store for
+ * a {@link ConcurrentMapCache}.
+ *
+ * <p>Entries are held in a {@link ConcurrentHashMap}, so reads remain lock-free:
+ * a read merely records the access in a lossy buffer which is drained into the
+ * access order whenever the eviction lock is available. With a maximum size or
+ * weight or an expiration setting, writes take the eviction lock in order to
+ * maintain the access and write order and to evict entries once the maximum
+ * has been exceeded. Without any of those, writes do not take any lock.
+ *
+ * <p>Two eviction policies are supported: {@link EvictionPolicy#LRU} evicts the
+ * least recently used entry, whereas {@link EvictionPolicy#TINY_LFU} admits new
+ * entries through a small LRU window and then only retains them over the least
+ * recently used entry of the main space if they have been accessed more frequently,
+ * as estimated by a compact frequency sketch.
+ *
+ * <p>Expired entries are never returned; they are removed when they are
+ * accessed and during the maintenance performed on writes and buffer drains,
+ * or explicitly through {@link #cleanUp()}. Note that {@link #size()} may
+ * therefore include expired entries which have not been removed yet.
+ *
+ * <p>This map does not allow {@code null} keys or values.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ */
+public class BoundedConcurrentMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	/**
+	 * The policy used to select the entries to evict when the maximum size
+	 * or weight has been exceeded.
+	 */
+	public enum EvictionPolicy {
+
+		/**
+		 * Evict the least recently used entry.
+		 */
+		LRU,
+
+		/**
+		 * Admit new entries through a small LRU window, retaining them over the
+		 * least recently used entry of the main space only if they are used more
+		 * frequently (W-TinyLFU style admission).
+		 */
+		TINY_LFU
+	}
+
+
+	private static final long UNBOUNDED = Long.MAX_VALUE;
+
+	private static final int READ_BUFFER_SIZE = 128;
+
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+
+
+	private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>(256);
+
+	private final long maximum;
+
+	@Nullable
+	private final ToIntBiFunction<? super K, ? super V> weigher;
+
+	private volatile long expireAfterWriteMillis;
+
+	private volatile long expireAfterAccessMillis;
+
+	/** Whether writes maintain the access and write order, set once any bound is configured. */
+	private volatile boolean maintained;
+
+	private volatile EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+	private volatile Clock clock = Clock.systemUTC();
+
+	private final ReadBuffer<K, V> readBuffer = new ReadBuffer<>();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	// All of the following fields are guarded by the eviction lock
+
+	private final AccessOrder<K, V> window = new AccessOrder<>();
+
+	private final AccessOrder<K, V> main = new AccessOrder<>();
+
+	@Nullable
+	private Node<K, V> writeOrderHead;
+
+	@Nullable
+	private Node<K, V> writeOrderTail;
+
+	@Nullable
+	private FrequencySketch sketch;
+
+	private long windowMaximum;
+
+	private long windowWeightedSize;
+
+	private long weightedSize;
+
+
+	/**
+	 * Create a new {@code BoundedConcurrentMap} without a maximum size,
+	 * typically used in combination with an expiration setting.
+	 */
+	public BoundedConcurrentMap() {
+		this(UNBOUNDED, null);
+	}
+
+	/**
+	 * Create a new {@code BoundedConcurrentMap} holding at most the given
+	 * number of entries.
+	 * @param maximumSize the maximum number of entries
+	 */
+	public BoundedConcurrentMap(long maximumSize) {
+		this(maximumSize, null);
+	}
+
+	/**
+	 * Create a new {@code BoundedConcurrentMap} with the given maximum weight,
+	 * determining the weight of each entry through the given weigher.
+	 * @param maximumWeight the maximum total weight of all entries
+	 * @param weigher the function to calculate the (non-negative) weight of
+	 * an entry, or {@code null} for a weight of 1 per entry
+	 */
+	public BoundedConcurrentMap(long maximumWeight, @Nullable ToIntBiFunction<? super K, ? super V> weigher) {
+		Assert.isTrue(maximumWeight >= 0, "Maximum weight must not be negative");
+		this.maximum = maximumWeight;
+		this.weigher = weigher;
+		this.maintained = (maximumWeight != UNBOUNDED);
+	}
+
+
+	/**
+	 * Set the {@link EvictionPolicy} to apply once the maximum size or weight
+	 * has been exceeded.
+	 * <p>Default is {@link EvictionPolicy#LRU}. Without a maximum size or weight,
+	 * nothing is ever evicted and the policy has no effect.
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+		Assert.notNull(evictionPolicy, "EvictionPolicy must not be null");
+		this.evictionPolicy = evictionPolicy;
+		if (this.maximum == UNBOUNDED) {
+			// No need for a frequency sketch (sized for the maximum) in the first place
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			if (evictionPolicy == EvictionPolicy.TINY_LFU && this.sketch == null) {
+				this.sketch = new FrequencySketch(this.maximum);
+				this.windowMaximum = Math.max(1, this.maximum / 100);
+			}
+			else if (evictionPolicy == EvictionPolicy.LRU) {
+				this.sketch = null;
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the {@link EvictionPolicy} in use.
+	 */
+	public EvictionPolicy getEvictionPolicy() {
+		return this.evictionPolicy;
+	}
+
+	/**
+	 * Expire entries once the given duration has elapsed after their creation
+	 * or the most recent replacement of their value.
+	 * <p>By default, entries do not expire after write. Expiration is meant to be
+	 * configured before use: on a map without a maximum size or weight, entries
+	 * added before are only removed once they are accessed after expiring.
+	 * @param expireAfterWrite the expiration duration, or {@code null} for none
+	 */
+	public void setExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+		this.expireAfterWriteMillis = toExpirationMillis(expireAfterWrite);
+		if (this.expireAfterWriteMillis > 0) {
+			this.maintained = true;
+		}
+	}
+
+	/**
+	 * Expire entries once the given duration has elapsed after their creation,
+	 * the most recent replacement of their value, or their last read.
+	 * <p>By default, entries do not expire after access.
+	 * @param expireAfterAccess the expiration duration, or {@code null} for none
+	 * @see #setExpireAfterWrite
+	 */
+	public void setExpireAfterAccess(@Nullable Duration expireAfterAccess) {
+		this.expireAfterAccessMillis = toExpirationMillis(expireAfterAccess);
+		if (this.expireAfterAccessMillis > 0) {
+			this.maintained = true;
+		}
+	}
+
+	private static long toExpirationMillis(@Nullable Duration duration) {
+		if (duration == null) {
+			return 0;
+		}
+		Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Expiration duration must be positive");
+		return duration.toMillis();
+	}
+
+	/**
+	 * Configure the {@link Clock} to use for expiration, primarily for testing.
+	 * <p>By default this is {@link Clock#systemUTC()}.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+
+	/**
+	 * Return the number of lookups which found a non-expired entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which did not find an entry or found an
+	 * expired one.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted due to the maximum size or weight
+	 * or due to expiration.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the total weight of the entries currently in this map, which is
+	 * the number of entries unless a weigher has been specified.
+	 */
+	public long getWeightedSize() {
+		if (!this.maintained) {
+			// Weight is 1 per entry without a maximum weight
+			return this.data.size();
+		}
+		this.evictionLock.lock();
+		try {
+			return this.weightedSize;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Reset the hit, miss and eviction counters.
+	 */
+	public void resetStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.evictionCount.reset();
+	}
+
+	/**
+	 * Perform pending maintenance: apply buffered reads to the access order
+	 * and remove expired entries.
+	 */
+	public void cleanUp() {
+		this.evictionLock.lock();
+		try {
+			maintenance();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public V get(Object key) {
+		Node<K, V> node = this.data.get(key);
+		if (node == null) {
+			this.missCount.increment();
+			return null;
+		}
+		long now = now();
+		if (hasExpired(node, now)) {
+			this.missCount.increment();
+			removeExpired(node);
+			return null;
+		}
+		this.hitCount.increment();
+		afterRead(node, now);
+		return node.value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Node<K, V> node = this.data.get(key);
+		return (node != null && !hasExpired(node, now()));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		long now = now();
+		for (Node<K, V> node : this.data.values()) {
+			if (node.value.equals(value) && !hasExpired(node, now)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return this.data.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.data.isEmpty();
+	}
+
+	@Override
+	@Nullable
+	public V put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		Node<K, V> node = createNode(key, value, now());
+		Node<K, V> prior = this.data.put(key, node);
+		afterWrite(node, prior);
+		return valueIfAlive(prior, node.writeTime);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		long now = now();
+		Node<K, V> node = createNode(key, value, now);
+		while (true) {
+			Node<K, V> existing = this.data.putIfAbsent(key, node);
+			if (existing == null) {
+				afterWrite(node, null);
+				return null;
+			}
+			if (!hasExpired(existing, now)) {
+				return existing.value;
+			}
+			if (this.data.replace(key, existing, node)) {
+				afterWrite(node, existing);
+				return null;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public V replace(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		long now = now();
+		Node<K, V> node = createNode(key, value, now);
+		while (true) {
+			Node<K, V> existing = this.data.get(key);
+			if (existing == null || hasExpired(existing, now)) {
+				return null;
+			}
+			if (this.data.replace(key, existing, node)) {
+				afterWrite(node, existing);
+				return existing.value;
+			}
+		}
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Assert.notNull(newValue, "Value must not be null");
+		long now = now();
+		Node<K, V> node = createNode(key, newValue, now);
+		while (true) {
+			Node<K, V> existing = this.data.get(key);
+			if (existing == null || hasExpired(existing, now) || !existing.value.equals(oldValue)) {
+				return false;
+			}
+			if (this.data.replace(key, existing, node)) {
+				afterWrite(node, existing);
+				return true;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public V remove(Object key) {
+		Node<K, V> node = this.data.remove(key);
+		if (node == null) {
+			return null;
+		}
+		afterRemoval(node);
+		return valueIfAlive(node, now());
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		long now = now();
+		while (true) {
+			Node<K, V> existing = this.data.get(key);
+			if (existing == null || hasExpired(existing, now) || !existing.value.equals(value)) {
+				return false;
+			}
+			if (this.data.remove(key, existing)) {
+				afterRemoval(existing);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Atomically compute the value for the given key if there is no
+	 * (non-expired) entry yet, invoking the mapping function at most once.
+	 */
+	@Override
+	@Nullable
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Assert.notNull(mappingFunction, "Mapping function must not be null");
+		long now = now();
+		Node<K, V> node = this.data.get(key);
+		if (node != null && !hasExpired(node, now)) {
+			this.hitCount.increment();
+			afterRead(node, now);
+			return node.value;
+		}
+		this.missCount.increment();
+		ComputeResult<K, V> result = new ComputeResult<>();
+		Node<K, V> current = this.data.compute(key, (k, existing) -> {
+			if (existing != null && !hasExpired(existing, now)) {
+				return existing;
+			}
+			result.replaced = existing;
+			V value = mappingFunction.apply(k);
+			if (value == null) {
+				return null;
+			}
+			result.created = createNode(k, value, now);
+			return result.created;
+		});
+		if (result.created != null) {
+			afterWrite(result.created, result.replaced);
+		}
+		else if (result.replaced != null) {
+			afterRemoval(result.replaced);
+		}
+		return (current != null ? current.value : null);
+	}
+
+	@Override
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			for (Node<K, V> node : this.data.values()) {
+				if (this.data.remove(node.key, node)) {
+					retire(node);
+				}
+			}
+			this.readBuffer.drain(n -> { });
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+
+	private long now() {
+		return (this.expireAfterWriteMillis > 0 || this.expireAfterAccessMillis > 0 ? this.clock.millis() : 0);
+	}
+
+	private boolean hasExpired(Node<K, V> node, long now) {
+		long expireAfterWrite = this.expireAfterWriteMillis;
+		long expireAfterAccess = this.expireAfterAccessMillis;
+		return ((expireAfterWrite > 0 && now - node.writeTime >= expireAfterWrite) ||
+				(expireAfterAccess > 0 && now - node.accessTime >= expireAfterAccess));
+	}
+
+	@Nullable
+	private V valueIfAlive(@Nullable Node<K, V> node, long now) {
+		return (node != null && !hasExpired(node, now) ? node.value : null);
+	}
+
+	private Node<K, V> createNode(K key, V value, long now) {
+		int weight = (this.weigher != null ? this.weigher.applyAsInt(key, value) : 1);
+		if (weight < 0) {
+			throw new IllegalStateException("Weigher returned negative weight " + weight + " for key '" + key + "'");
+		}
+		return new Node<>(key, value, weight, now);
+	}
+
+	private boolean isAccessOrderRequired() {
+		return (this.maximum != UNBOUNDED || this.expireAfterAccessMillis > 0);
+	}
+
+	private void afterRead(Node<K, V> node, long now) {
+		if (this.expireAfterAccessMillis > 0) {
+			node.accessTime = now;
+		}
+		if (isAccessOrderRequired()) {
+			int pending = this.readBuffer.offer(node);
+			if (pending >= READ_BUFFER_DRAIN_THRESHOLD && this.evictionLock.tryLock()) {
+				try {
+					maintenance();
+				}
+				finally {
+					this.evictionLock.unlock();
+				}
+			}
+		}
+	}
+
+	private void afterWrite(Node<K, V> node, @Nullable Node<K, V> replaced) {
+		if (!this.maintained) {
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			if (replaced != null) {
+				retire(replaced);
+			}
+			link(node);
+			if (this.sketch != null) {
+				this.sketch.increment(node.key);
+			}
+			maintenance();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void afterRemoval(Node<K, V> node) {
+		if (!this.maintained) {
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			retire(node);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void removeExpired(Node<K, V> node) {
+		if (this.data.remove(node.key, node)) {
+			this.evictionCount.increment();
+			afterRemoval(node);
+		}
+	}
+
+
+	// Maintenance operations, to be called with the eviction lock held
+
+	private void maintenance() {
+		this.readBuffer.drain(this::onAccess);
+		expireEntries();
+		evictEntries();
+	}
+
+	private void onAccess(Node<K, V> node) {
+		if (node.linked) {
+			(node.inWindow ? this.window : this.main).moveToEnd(node);
+			if (this.sketch != null) {
+				this.sketch.increment(node.key);
+			}
+		}
+	}
+
+	private void link(Node<K, V> node) {
+		if (!node.alive) {
+			// Already replaced or removed by a concurrent write
+			return;
+		}
+		node.linked = true;
+		if (this.sketch != null) {
+			node.inWindow = true;
+			this.window.linkLast(node);
+			this.windowWeightedSize += node.weight;
+		}
+		else {
+			this.main.linkLast(node);
+		}
+		this.weightedSize += node.weight;
+		if (this.writeOrderTail == null) {
+			this.writeOrderHead = node;
+		}
+		else {
+			this.writeOrderTail.writeNext = node;
+			node.writePrev = this.writeOrderTail;
+		}
+		this.writeOrderTail = node;
+	}
+
+	private void retire(Node<K, V> node) {
+		node.alive = false;
+		if (!node.linked) {
+			return;
+		}
+		node.linked = false;
+		if (node.inWindow) {
+			this.window.unlink(node);
+			this.windowWeightedSize -= node.weight;
+			node.inWindow = false;
+		}
+		else {
+			this.main.unlink(node);
+		}
+		this.weightedSize -= node.weight;
+		Node<K, V> prev = node.writePrev;
+		Node<K, V> next = node.writeNext;
+		if (prev == null) {
+			this.writeOrderHead = next;
+		}
+		else {
+			prev.writeNext = next;
+		}
+		if (next == null) {
+			this.writeOrderTail = prev;
+		}
+		else {
+			next.writePrev = prev;
+		}
+		node.writePrev = null;
+		node.writeNext = null;
+	}
+
+	private void evict(Node<K, V> node) {
+		if (this.data.remove(node.key, node)) {
+			this.evictionCount.increment();
+		}
+		retire(node);
+	}
+
+	private void expireEntries() {
+		if (this.expireAfterWriteMillis <= 0 && this.expireAfterAccessMillis <= 0) {
+			return;
+		}
+		long now = now();
+		if (this.expireAfterAccessMillis > 0) {
+			expireEntries(this.window, now);
+			expireEntries(this.main, now);
+		}
+		if (this.expireAfterWriteMillis > 0) {
+			while (this.writeOrderHead != null && hasExpired(this.writeOrderHead, now)) {
+				evict(this.writeOrderHead);
+			}
+		}
+	}
+
+	private void expireEntries(AccessOrder<K, V> accessOrder, long now) {
+		while (accessOrder.head != null && hasExpired(accessOrder.head, now)) {
+			evict(accessOrder.head);
+		}
+	}
+
+	private void evictEntries() {
+		if (this.weightedSize <= this.maximum) {
+			return;
+		}
+		FrequencySketch sketch = this.sketch;
+		if (sketch != null) {
+			// Promote entries from the admission window, letting each candidate
+			// compete against the least recently used entry of the main space
+			while (this.windowWeightedSize > this.windowMaximum && this.window.head != null) {
+				Node<K, V> candidate = this.window.head;
+				this.window.unlink(candidate);
+				this.windowWeightedSize -= candidate.weight;
+				candidate.inWindow = false;
+				this.main.linkLast(candidate);
+				if (this.weightedSize > this.maximum) {
+					Node<K, V> victim = this.main.head;
+					if (victim != null && victim != candidate &&
+							sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+						evict(victim);
+					}
+					else {
+						evict(candidate);
+					}
+				}
+			}
+		}
+		while (this.weightedSize > this.maximum) {
+			Node<K, V> victim = (this.main.head != null ? this.main.head : this.window.head);
+			if (victim == null) {
+				break;
+			}
+			evict(victim);
+		}
+	}
+
+
+	/**
+	 * An entry in the map, linked into the access order (of either the
+	 * admission window or the main space) and into the write order.
+	 */
+	private static final class Node<K, V> {
+
+		final K key;
+
+		final V value;
+
+		final int weight;
+
+		final long writeTime;
+
+		volatile long accessTime;
+
+		// The following fields are guarded by the eviction lock
+
+		boolean alive = true;
+
+		boolean linked;
+
+		boolean inWindow;
+
+		@Nullable
+		Node<K, V> prev;
+
+		@Nullable
+		Node<K, V> next;
+
+		@Nullable
+		Node<K, V> writePrev;
+
+		@Nullable
+		Node<K, V> writeNext;
+
+		Node(K key, V value, int weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+	}
+
+
+	/**
+	 * A doubly-linked list of nodes in access order, least recently used first.
+	 */
+	private static final class AccessOrder<K, V> {
+
+		@Nullable
+		Node<K, V> head;
+
+		@Nullable
+		Node<K, V> tail;
+
+		void linkLast(Node<K, V> node) {
+			node.prev = this.tail;
+			node.next = null;
+			if (this.tail == null) {
+				this.head = node;
+			}
+			else {
+				this.tail.next = node;
+			}
+			this.tail = node;
+		}
+
+		void unlink(Node<K, V> node) {
+			Node<K, V> prev = node.prev;
+			Node<K, V> next = node.next;
+			if (prev == null) {
+				this.head = next;
+			}
+			else {
+				prev.next = next;
+			}
+			if (next == null) {
+				this.tail = prev;
+			}
+			else {
+				next.prev = prev;
+			}
+			node.prev = null;
+			node.next = null;
+		}
+
+		void moveToEnd(Node<K, V> node) {
+			if (node != this.tail) {
+				unlink(node);
+				linkLast(node);
+			}
+		}
+	}
+
+
+	/**
+	 * A lossy, bounded multi-producer buffer of recent reads, drained
+	 * by the thread holding the eviction lock. Reads are dropped rather
+	 * than blocking when the buffer is full or contended.
+	 */
+	private static final class ReadBuffer<K, V> {
+
+		private final AtomicReferenceArray<Node<K, V>> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+		private final AtomicLong writeCounter = new AtomicLong();
+
+		private volatile long readCounter;
+
+		/**
+		 * Record the given node, returning the number of pending reads.
+		 */
+		int offer(Node<K, V> node) {
+			long head = this.readCounter;
+			long tail = this.writeCounter.get();
+			long pending = tail - head;
+			if (pending < READ_BUFFER_SIZE && this.writeCounter.compareAndSet(tail, tail + 1)) {
+				this.buffer.lazySet((int) (tail & (READ_BUFFER_SIZE - 1)), node);
+				pending++;
+			}
+			return (int) pending;
+		}
+
+		void drain(Consumer<Node<K, V>> consumer) {
+			long head = this.readCounter;
+			long tail = this.writeCounter.get();
+			while (head < tail) {
+				int index = (int) (head & (READ_BUFFER_SIZE - 1));
+				Node<K, V> node = this.buffer.get(index);
+				if (node == null) {
+					// Not published yet by the producer
+					break;
+				}
+				this.buffer.lazySet(index, null);
+				consumer.accept(node);
+				head++;
+			}
+			this.readCounter = head;
+		}
+	}
+
+
+	/**
+	 * A count-min sketch estimating the access frequency of keys, with
+	 * 4 hash functions over saturating counters that are periodically
+	 * halved so that the estimate favors recent popularity.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int MAXIMUM_COUNT = 15;
+
+		private static final int[] SEEDS = {0x97cb3127, 0xb492b66f, 0x9ae16a3b, 0xc3a5c85c};
+
+		private final byte[] table;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(long maximum) {
+			int capacity = (int) Math.min(Math.max(maximum, 16), 1 << 24);
+			int size = Integer.highestOneBit(capacity - 1) << 1;
+			this.table = new byte[size];
+			this.mask = size - 1;
+			this.sampleSize = (size <= Integer.MAX_VALUE / 10 ? size * 10 : Integer.MAX_VALUE);
+		}
+
+		void increment(Object key) {
+			int hash = spread(key);
+			boolean added = false;
+			for (int seed : SEEDS) {
+				int index = indexOf(hash, seed);
+				if (this.table[index] < MAXIMUM_COUNT) {
+					this.table[index]++;
+					added = true;
+				}
+			}
+			if (added && ++this.additions >= this.sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(Object key) {
+			int hash = spread(key);
+			int frequency = MAXIMUM_COUNT;
+			for (int seed : SEEDS) {
+				frequency = Math.min(frequency, this.table[indexOf(hash, seed)]);
+			}
+			return frequency;
+		}
+
+		private void reset() {
+			for (int i = 0; i < this.table.length; i++) {
+				this.table[i] = (byte) (this.table[i] >>> 1);
+			}
+			this.additions /= 2;
+		}
+
+		private int indexOf(int hash, int seed) {
+			int h = (hash ^ seed) * 0x9e3779b9;
+			return (h ^ (h >>> 16)) & this.mask;
+		}
+
+		private static int spread(Object key) {
+			int hash = ObjectUtils.nullSafeHashCode(key);
+			return hash ^ (hash >>> 16);
+		}
+	}
+
+
+	/**
+	 * Holder for the outcome of {@link #computeIfAbsent}.
+	 */
+	private static final class ComputeResult<K, V> {
+
+		@Nullable
+		Node<K, V> created;
+
+		@Nullable
+		Node<K, V> replaced;
+	}
+
+
+	/**
+	 * Entry set view, skipping expired entries.
+	 */
+	private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(@Nullable Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Node<K, V> node = data.get(entry.getKey());
+				return (node != null && !hasExpired(node, now()) && node.value.equals(entry.getValue()));
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return BoundedConcurrentMap.this.remove(entry.getKey(), entry.getValue());
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return BoundedConcurrentMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			BoundedConcurrentMap.this.clear();
+		}
+	}
+
+
+	/**
+	 * Iterator over the non-expired entries.
+	 */
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+
+		private final Iterator<Node<K, V>> iterator = data.values().iterator();
+
+		private final long now = now();
+
+		@Nullable
+		private Node<K, V> next;
+
+		@Nullable
+		private Node<K, V> last;
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && this.iterator.hasNext()) {
+				Node<K, V> node = this.iterator.next();
+				if (!hasExpired(node, this.now)) {
+					this.next = node;
+				}
+			}
+			return (this.next != null);
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Node<K, V> node = this.next;
+			this.next = null;
+			this.last = node;
+			return new SimpleImmutableEntry<>(node.key, node.value);
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last != null, "No element to remove");
+			if (data.remove(this.last.key, this.last)) {
+				afterRemoval(this.last);
+			}
+			this.last = null;
+		}
+	}
+
+}
@@ -41,6 +41,9 @@ import org.springframework.util.Assert;
  * them with a predefined internal object. This behavior can be changed through the
  * {@link #ConcurrentMapCache(String, ConcurrentMap, boolean)} constructor.
  *
+ * <p>For a cache with a maximum size, expiration and statistics, pass a
+ * {@link BoundedConcurrentMap} as the internal store.
+ *
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
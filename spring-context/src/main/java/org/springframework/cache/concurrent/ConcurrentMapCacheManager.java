@@ -16,12 +16,14 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntBiFunction;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.cache.Cache;
@@ -35,9 +37,14 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
- * caching scenarios. For advanced local caching needs, consider
+ * <p>By default, caches are unbounded. A maximum size or weight as well as
+ * expiration settings may be specified, in which case each cache is backed by a
+ * {@link BoundedConcurrentMap} which evicts entries accordingly and keeps
+ * hit/miss/eviction statistics (accessible through the cache's native store).
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager. However, it may be
+ * useful for testing or simple caching scenarios. For advanced local caching needs,
+ * consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
  * {@link org.springframework.cache.caffeine.CaffeineCacheManager}.
@@ -59,6 +66,21 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	@Nullable
 	private SerializationDelegate serialization;
 
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private ToIntBiFunction<Object, Object> weigher;
+
+	@Nullable
+	private Duration expireAfterWrite;
+
+	@Nullable
+	private Duration expireAfterAccess;
+
+	private BoundedConcurrentMap.EvictionPolicy evictionPolicy = BoundedConcurrentMap.EvictionPolicy.LRU;
+
 
 	/**
 	 * Construct a dynamic ConcurrentMapCacheManager,
@@ -146,6 +168,91 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries per cache, evicting entries
+	 * according to the {@link #setEvictionPolicy eviction policy} once exceeded.
+	 * <p>Default is none, i.e. unbounded caches.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 * @since 5.2
+	 * @see BoundedConcurrentMap
+	 */
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the maximum total weight of the entries per cache, as determined
+	 * through the given {@link #setWeigher weigher}.
+	 * <p>Default is none, i.e. unbounded caches. Takes precedence over a
+	 * {@link #setMaximumSize maximum size} if both are specified.
+	 * <p>Note: A change of the maximum weight will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 * @since 5.2
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the function used to calculate the weight of each cache entry
+	 * in combination with a {@link #setMaximumWeight maximum weight}.
+	 * <p>The function is invoked with the cache key and the store value,
+	 * which is a serialized byte array in {@link #setStoreByValue store-by-value}
+	 * mode and may be a null holder object if null values are allowed.
+	 * <p>Default is none, i.e. a weight of 1 per entry.
+	 * @since 5.2
+	 */
+	public void setWeigher(@Nullable ToIntBiFunction<Object, Object> weigher) {
+		this.weigher = weigher;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the duration after which cache entries expire once written.
+	 * <p>Default is none.
+	 * @since 5.2
+	 * @see BoundedConcurrentMap#setExpireAfterWrite
+	 */
+	public void setExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+		this.expireAfterWrite = expireAfterWrite;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the duration after which cache entries expire once written
+	 * or last read.
+	 * <p>Default is none.
+	 * @since 5.2
+	 * @see BoundedConcurrentMap#setExpireAfterAccess
+	 */
+	public void setExpireAfterAccess(@Nullable Duration expireAfterAccess) {
+		this.expireAfterAccess = expireAfterAccess;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the policy for evicting entries from bounded caches.
+	 * <p>Default is {@link BoundedConcurrentMap.EvictionPolicy#LRU LRU}.
+	 * @since 5.2
+	 */
+	public void setEvictionPolicy(BoundedConcurrentMap.EvictionPolicy evictionPolicy) {
+		this.evictionPolicy = evictionPolicy;
+		recreateCaches();
+	}
+
+	/**
+	 * Return whether this cache manager creates caches with a maximum size or
+	 * weight or with expiration settings, backed by a {@link BoundedConcurrentMap}.
+	 * @since 5.2
+	 */
+	public boolean isBounded() {
+		return (this.maximumSize >= 0 || this.maximumWeight >= 0 ||
+				this.expireAfterWrite != null || this.expireAfterAccess != null);
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -190,9 +297,30 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
-		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
-				isAllowNullValues(), actualSerialization);
+		ConcurrentMap<Object, Object> store = (isBounded() ? createBoundedStore() : new ConcurrentHashMap<>(256));
+		return new ConcurrentMapCache(name, store, isAllowNullValues(), actualSerialization);
+	}
 
+	/**
+	 * Create a {@link BoundedConcurrentMap} store according to the bounds and
+	 * expiration settings of this cache manager.
+	 * @since 5.2
+	 */
+	protected BoundedConcurrentMap<Object, Object> createBoundedStore() {
+		BoundedConcurrentMap<Object, Object> store;
+		if (this.maximumWeight >= 0) {
+			store = new BoundedConcurrentMap<>(this.maximumWeight, this.weigher);
+		}
+		else if (this.maximumSize >= 0) {
+			store = new BoundedConcurrentMap<>(this.maximumSize);
+		}
+		else {
+			store = new BoundedConcurrentMap<>();
+		}
+		store.setEvictionPolicy(this.evictionPolicy);
+		store.setExpireAfterWrite(this.expireAfterWrite);
+		store.setExpireAfterAccess(this.expireAfterAccess);
+		return store;
 	}
 
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
@@ -27,6 +28,7 @@ import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -208,6 +210,17 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.reader.register(componentClasses);
 	}
 
+	/**
+	 * Set whether {@link #scan(String...)} should read and introspect class
+	 * files in parallel.
+	 * <p>Any call to this method must occur prior to calls to {@link #scan(String...)}.
+	 * @since 5.2
+	 * @see ClassPathScanningCandidateComponentProvider#setParallelScanning
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.scanner.setParallelScanning(parallelScanning);
+	}
+
 	/**
 	 * Perform a scan within the specified base packages.
 	 * <p>Note that {@link #refresh()} must be called in order for the context
@@ -221,12 +234,19 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 	@Override
 	public void scan(String... basePackages) {
 		Assert.notEmpty(basePackages, "At least one base package must be specified");
-
-		/**
-		 * 调用类路径 Bean 定义，扫描器入口方法
-		 * 扫描给定包及其子包下所有类 {@link ClassPathBeanDefinitionScanner#scan(String...)}
-		 */
-		this.scanner.scan(basePackages);
+		StartupStep scanPackages = getApplicationStartup().start("spring.context.base-packages.scan")
+				.tag("packages", () -> Arrays.toString(basePackages));
+
+		try {
+			/**
+			 * 调用类路径 Bean 定义，扫描器入口方法
+			 * 扫描给定包及其子包下所有类 {@link ClassPathBeanDefinitionScanner#scan(String...)}
+			 */
+			this.scanner.scan(basePackages);
+		}
+		finally {
+			scanPackages.end();
+		}
 	}
 
 
@@ -18,11 +18,15 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -116,6 +120,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning = false;
+
+	@Nullable
+	private ForkJoinPool parallelScanningPool;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -316,6 +325,41 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.metadataReaderFactory = metadataReaderFactory;
 	}
 
+	/**
+	 * Set whether to read and introspect the class files found during classpath
+	 * scanning in parallel, across the {@link #setParallelScanningPool fork-join pool}.
+	 * <p>The resulting candidate components are returned in the same order as for
+	 * sequential scanning. This requires a thread-safe {@link MetadataReaderFactory}
+	 * (such as the default {@link CachingMetadataReaderFactory}) as well as thread-safe
+	 * {@link TypeFilter TypeFilters} and {@link #isCandidateComponent} implementations.
+	 * <p>The worker threads run with the thread context class loader of the thread
+	 * that triggered the scan, so that type filters resolving classes through the
+	 * context class loader see the same classes as with sequential scanning.
+	 * <p>Default is {@code false}.
+	 * @since 5.2
+	 * @see ComponentScan#parallelScanning()
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether classpath scanning is performed in parallel.
+	 * @since 5.2
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
+	/**
+	 * Specify the {@link ForkJoinPool} to use for {@link #setParallelScanning parallel scanning}.
+	 * <p>Default is the {@link ForkJoinPool#commonPool() common pool}.
+	 * @since 5.2
+	 */
+	public void setParallelScanningPool(@Nullable ForkJoinPool parallelScanningPool) {
+		this.parallelScanningPool = parallelScanningPool;
+	}
+
 	/**
 	 * Return the MetadataReaderFactory used by this component provider.
 	 */
@@ -481,64 +525,121 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 			// 获取类资源集合
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			if (this.parallelScanning && resources.length > 1) {
+				candidates.addAll(scanCandidateComponentsInParallel(resources));
+			}
+			else {
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource);
+					if (sbd != null) {
+						candidates.add(sbd);
+					}
 				}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
 
-				// 资源可读取
-				if (resource.isReadable()) {
-					try {
-
-						// 获取资源中 `MetadataReader` 对象。
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-
-						/**
-						 * isCandidateComponent  {@link #isCandidateComponent(MetadataReader)}
-						 */
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+
+	/**
+	 * Read the given resources in parallel, returning the candidate components
+	 * in the order of the given resources.
+	 */
+	private List<ScannedGenericBeanDefinition> scanCandidateComponentsInParallel(Resource[] resources) {
+		ForkJoinPool pool = (this.parallelScanningPool != null ?
+				this.parallelScanningPool : ForkJoinPool.commonPool());
+		ClassLoader callerClassLoader = Thread.currentThread().getContextClassLoader();
+		// Capture failures per resource, rethrowing the first one in resource order
+		List<Object> results = pool.submit(() -> Stream.of(resources).parallel().map(resource -> {
+			ClassLoader previousClassLoader = ClassUtils.overrideThreadContextClassLoader(callerClassLoader);
+			try {
+				ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource);
+				return (sbd != null ? sbd : resource);
+			}
+			catch (BeanDefinitionStoreException ex) {
+				return ex;
+			}
+			finally {
+				if (previousClassLoader != null) {
+					Thread.currentThread().setContextClassLoader(previousClassLoader);
+				}
+			}
+		}).collect(Collectors.toList())).join();
+
+		List<ScannedGenericBeanDefinition> candidates = new ArrayList<>();
+		for (Object result : results) {
+			if (result instanceof BeanDefinitionStoreException) {
+				throw (BeanDefinitionStoreException) result;
+			}
+			if (result instanceof ScannedGenericBeanDefinition) {
+				candidates.add((ScannedGenericBeanDefinition) result);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read the given resource and turn it into a candidate component, if eligible.
+	 * @param resource the class file resource
+	 * @return the candidate component, or {@code null} if not eligible
+	 * @throws BeanDefinitionStoreException if the class file could not be read
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+
+		// 资源可读取
+		if (resource.isReadable()) {
+			try {
+
+				// 获取资源中 `MetadataReader` 对象。
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+
+				/**
+				 * isCandidateComponent  {@link #isCandidateComponent(MetadataReader)}
+				 */
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setResource(resource);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						return sbd;
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
-
 	/**
 	 * Resolve the specified base package into a pattern specification for
 	 * the package search path.
@@ -150,6 +150,16 @@ public @interface ComponentScan {
 	 */
 	boolean lazyInit() default false;
 
+	/**
+	 * Specify whether class files should be read and introspected in parallel,
+	 * which may speed up the scanning of large packages.
+	 * <p>Default is {@code false}; switch this to {@code true} when the type
+	 * filters in use are thread-safe.
+	 * @since 5.2
+	 * @see ClassPathScanningCandidateComponentProvider#setParallelScanning
+	 */
+	boolean parallelScanning() default false;
+
 
 	/**
 	 * Declares the type filter to be used as an {@linkplain ComponentScan#includeFilters
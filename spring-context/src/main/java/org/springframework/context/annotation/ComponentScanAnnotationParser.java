@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.filter.AbstractTypeHierarchyTraversingFilter;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AspectJTypeFilter;
@@ -109,6 +111,8 @@ class ComponentScanAnnotationParser {
 			scanner.getBeanDefinitionDefaults().setLazyInit(true);
 		}
 
+		scanner.setParallelScanning(componentScan.getBoolean("parallelScanning"));
+
 		Set<String> basePackages = new LinkedHashSet<>();
 		String[] basePackagesArray = componentScan.getStringArray("basePackages");
 		for (String pkg : basePackagesArray) {
@@ -133,7 +137,16 @@ class ComponentScanAnnotationParser {
 		/**
 		 * 【 扫描指定包 】{@link ClassPathBeanDefinitionScanner#doScan(String...)}
 		 */
-		return scanner.doScan(StringUtils.toStringArray(basePackages));
+		String[] packagesToScan = StringUtils.toStringArray(basePackages);
+		StartupStep scanPackages = ConfigurationClassPostProcessor.getApplicationStartup(this.registry)
+				.start("spring.context.component-scan")
+				.tag("packages", () -> Arrays.toString(packagesToScan));
+		try {
+			return scanner.doScan(packagesToScan);
+		}
+		finally {
+			scanPackages.end();
+		}
 	}
 
 	private List<TypeFilter> typeFiltersFor(AnnotationAttributes filterAttributes) {
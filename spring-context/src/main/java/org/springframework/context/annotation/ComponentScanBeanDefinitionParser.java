@@ -71,6 +71,8 @@ public class ComponentScanBeanDefinitionParser implements BeanDefinitionParser {
 
 	private static final String SCOPED_PROXY_ATTRIBUTE = "scoped-proxy";
 
+	private static final String PARALLEL_SCANNING_ATTRIBUTE = "parallel-scanning";
+
 	private static final String EXCLUDE_FILTER_ELEMENT = "exclude-filter";
 
 	private static final String INCLUDE_FILTER_ELEMENT = "include-filter";
@@ -143,6 +145,10 @@ public class ComponentScanBeanDefinitionParser implements BeanDefinitionParser {
 			scanner.setResourcePattern(element.getAttribute(RESOURCE_PATTERN_ATTRIBUTE));
 		}
 
+		if (element.hasAttribute(PARALLEL_SCANNING_ATTRIBUTE)) {
+			scanner.setParallelScanning(Boolean.valueOf(element.getAttribute(PARALLEL_SCANNING_ATTRIBUTE)));
+		}
+
 		try {
 
 			// 解析name-generator属性 beanName生成器
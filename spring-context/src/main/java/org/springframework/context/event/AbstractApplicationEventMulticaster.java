@@ -18,11 +18,13 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.BeanClassLoaderAware;
@@ -88,6 +90,12 @@ public abstract class AbstractApplicationEventMulticaster
 
 	private Object retrievalMutex = this.defaultRetriever;
 
+	/** Incremented on every registration change, guarding against stale cache entries. */
+	private final AtomicInteger registrationVersion = new AtomicInteger();
+
+	/** Listener instances obtained from singleton listener beans, with their bean names. */
+	private final Map<ApplicationListener<?>, String> singletonListenerBeans = new ConcurrentHashMap<>(16);
+
 
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
@@ -127,7 +135,7 @@ public abstract class AbstractApplicationEventMulticaster
 
 			// 使用 Set 集合，进行去重。
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
@@ -137,7 +145,7 @@ public abstract class AbstractApplicationEventMulticaster
 
 			// 使用 Set 集合，进行去重。
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
@@ -145,7 +153,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
@@ -153,7 +161,8 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			this.singletonListenerBeans.values().removeIf(listenerBeanName::equals);
+			invalidateRetrieverCache();
 		}
 	}
 
@@ -162,11 +171,18 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			this.singletonListenerBeans.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
 
+	private void invalidateRetrieverCache() {
+		this.registrationVersion.incrementAndGet();
+		this.retrieverCache.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -178,6 +194,25 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 	}
 
+	/**
+	 * Determine whether the given listener is a shared instance: either registered
+	 * directly or obtained from a singleton listener bean, as opposed to an
+	 * instance of a non-singleton listener bean that gets created per retrieval.
+	 * <p>Singleton listener beans are recorded as such when they get resolved
+	 * for an event, so this check never triggers the creation of a bean.
+	 * @param listener the listener to check (as returned for an event)
+	 * @return whether the listener will be returned as the same instance again
+	 * @since 5.2
+	 */
+	protected boolean isSharedListener(ApplicationListener<?> listener) {
+		if (this.singletonListenerBeans.containsKey(listener)) {
+			return true;
+		}
+		synchronized (this.retrievalMutex) {
+			return this.defaultRetriever.applicationListeners.contains(listener);
+		}
+	}
+
 	/**
 	 * Return a Collection of ApplicationListeners matching the given
 	 * event type. Non-matching listeners get excluded early.
@@ -212,18 +247,20 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
+			// Build a ListenerRetriever without holding the retrieval mutex, and only
+			// publish it if no listener registration changed in the meantime.
+			int version = this.registrationVersion.get();
+			retriever = new ListenerRetriever(true);
+			Collection<ApplicationListener<?>> listeners =
+					retrieveApplicationListeners(eventType, sourceType, retriever);
+			if (this.registrationVersion.get() == version) {
+				ListenerRetriever existing = this.retrieverCache.putIfAbsent(cacheKey, retriever);
+				if (existing == null && this.registrationVersion.get() != version) {
+					// Concurrent registration change: do not keep a potentially stale entry
+					this.retrieverCache.remove(cacheKey, retriever);
 				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
 			}
+			return listeners;
 		}
 		else {
 			// No ListenerRetriever caching -> no synchronization necessary
@@ -265,8 +302,12 @@ public abstract class AbstractApplicationEventMulticaster
 						ApplicationListener<?> listener =
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
+							boolean singleton = beanFactory.isSingleton(listenerBeanName);
+							if (singleton) {
+								this.singletonListenerBeans.put(listener, listenerBeanName);
+							}
 							if (retriever != null) {
-								if (beanFactory.isSingleton(listenerBeanName)) {
+								if (singleton) {
 									retriever.applicationListeners.add(listener);
 								}
 								else {
@@ -389,6 +430,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * A cached instance that only holds listener instances (no listener bean
+	 * names to resolve) precomputes its sorted listeners on first retrieval.
 	 */
 	private class ListenerRetriever {
 
@@ -398,6 +441,9 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> resolvedListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
@@ -407,6 +453,10 @@ public abstract class AbstractApplicationEventMulticaster
 		 * @return
 		 */
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			List<ApplicationListener<?>> resolved = this.resolvedListeners;
+			if (resolved != null) {
+				return resolved;
+			}
 
 			/**
 			 * 获取全部  listener =  applicationListeners + applicationListenerBeans
@@ -432,6 +482,11 @@ public abstract class AbstractApplicationEventMulticaster
 			if (!this.preFiltered || !this.applicationListenerBeans.isEmpty()) {
 				AnnotationAwareOrderComparator.sort(allListeners);
 			}
+			else {
+				resolved = Collections.unmodifiableList(allListeners);
+				this.resolvedListeners = resolved;
+				return resolved;
+			}
 			return allListeners;
 		}
 	}
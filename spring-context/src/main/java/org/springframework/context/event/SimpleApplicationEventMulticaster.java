@@ -16,7 +16,18 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +51,12 @@ import org.springframework.util.ErrorHandler;
  * This allows the danger of a rogue listener blocking the entire application,
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
+ * With {@link #setOrderedAsyncDelivery ordered async delivery}, each listener
+ * then receives its events one at a time and in order of publication.
+ *
+ * <p>{@link #multicastEvents} allows for publishing a batch of events at once,
+ * resolving the listeners once per event type and handing each listener all of
+ * its events together.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -54,6 +71,10 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private boolean orderedAsyncDelivery = false;
+
+	private final Map<ApplicationListener<?>, ListenerLane> listenerLanes = new ConcurrentHashMap<>(64);
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -85,6 +106,7 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	 */
 	public void setTaskExecutor(@Nullable Executor taskExecutor) {
 		this.taskExecutor = taskExecutor;
+		this.listenerLanes.clear();
 	}
 
 	/**
@@ -123,6 +145,55 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Set whether events handed to the {@linkplain #setTaskExecutor task executor}
+	 * should be delivered to each listener in order of publication.
+	 * <p>Default is "false", submitting one task per listener and event, without
+	 * any ordering guarantees. Switch this to "true" to queue events per listener
+	 * instead, with at most one task per listener being active at any time and
+	 * each such task delivering all events queued for its listener.
+	 * <p>This setting has no effect without a task executor. Queues are held per
+	 * listener instance until that listener gets removed from this multicaster,
+	 * for directly registered listeners and singleton listener beans only:
+	 * instances of non-singleton listener beans are not retained, receiving
+	 * the events of each multicast call in order but without ordering
+	 * across calls.
+	 * @since 5.2
+	 * @see #setTaskExecutor
+	 */
+	public void setOrderedAsyncDelivery(boolean orderedAsyncDelivery) {
+		this.orderedAsyncDelivery = orderedAsyncDelivery;
+	}
+
+	/**
+	 * Return whether events are delivered to each listener in order of publication
+	 * when using a task executor.
+	 * @since 5.2
+	 */
+	public boolean isOrderedAsyncDelivery() {
+		return this.orderedAsyncDelivery;
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerLanes.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		if (!this.listenerLanes.isEmpty()) {
+			this.listenerLanes.keySet().removeIf(listener -> !isSharedListener(listener));
+		}
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerLanes.clear();
+	}
+
 	/**
 	 * 广播事件
 	 * @param event the event to multicast
@@ -141,7 +212,10 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		 * 获取 事件对应的监听器 {@link #getApplicationListeners(ApplicationEvent, ResolvableType)}
 		 */
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			if (executor != null) {
+			if (executor != null && this.orderedAsyncDelivery) {
+				getListenerLane(listener, executor).add(event);
+			}
+			else if (executor != null) {
 
 				/**
 				 *  调用对应监听器  {@link #invokeListener(ApplicationListener, ApplicationEvent)}
@@ -154,6 +228,61 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Multicast the given batch of application events to appropriate listeners.
+	 * <p>Listeners are resolved once per distinct event type and source type
+	 * in the batch, and each listener receives its events in the given order.
+	 * With a {@linkplain #setTaskExecutor task executor}, a single task is
+	 * submitted per listener for all of its events in the batch.
+	 * @param events the events to multicast
+	 * @since 5.2
+	 * @see #multicastEvent(ApplicationEvent)
+	 */
+	public void multicastEvents(List<? extends ApplicationEvent> events) {
+		Map<ApplicationListener<?>, List<ApplicationEvent>> eventsByListener = new LinkedHashMap<>();
+		Map<Object, Collection<ApplicationListener<?>>> listenersByType = new HashMap<>();
+		for (ApplicationEvent event : events) {
+			Object source = event.getSource();
+			Class<?> sourceType = (source != null ? source.getClass() : null);
+			ResolvableType type = resolveDefaultEventType(event);
+			Object typeKey = Arrays.asList(type, sourceType);
+			Collection<ApplicationListener<?>> listeners = listenersByType.get(typeKey);
+			if (listeners == null) {
+				listeners = getApplicationListeners(event, type);
+				listenersByType.put(typeKey, listeners);
+			}
+			for (ApplicationListener<?> listener : listeners) {
+				eventsByListener.computeIfAbsent(listener, key -> new ArrayList<>()).add(event);
+			}
+		}
+
+		Executor executor = getTaskExecutor();
+		eventsByListener.forEach((listener, listenerEvents) -> {
+			if (executor != null && this.orderedAsyncDelivery) {
+				ListenerLane lane = getListenerLane(listener, executor);
+				listenerEvents.forEach(lane::add);
+			}
+			else if (executor != null) {
+				executor.execute(() -> listenerEvents.forEach(event -> invokeListener(listener, event)));
+			}
+			else {
+				listenerEvents.forEach(event -> invokeListener(listener, event));
+			}
+		});
+	}
+
+	private ListenerLane getListenerLane(ApplicationListener<?> listener, Executor executor) {
+		ListenerLane lane = this.listenerLanes.get(listener);
+		if (lane != null) {
+			return lane;
+		}
+		if (!isSharedListener(listener)) {
+			// Fresh instance of a non-singleton listener bean: do not hold on to it
+			return new ListenerLane(listener, executor);
+		}
+		return this.listenerLanes.computeIfAbsent(listener, key -> new ListenerLane(key, executor));
+	}
+
 	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
 		return ResolvableType.forInstance(event);
 	}
@@ -220,4 +349,57 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+
+	/**
+	 * Queue of events for a single listener, delivered by at most one task at a
+	 * time on the task executor so that the listener sees events in publication order.
+	 */
+	private class ListenerLane implements Runnable {
+
+		private final ApplicationListener<?> listener;
+
+		private final Executor executor;
+
+		private final Queue<ApplicationEvent> events = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		public ListenerLane(ApplicationListener<?> listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		public void add(ApplicationEvent event) {
+			this.events.add(event);
+			schedule();
+		}
+
+		private void schedule() {
+			if (!this.events.isEmpty() && this.scheduled.compareAndSet(false, true)) {
+				try {
+					this.executor.execute(this);
+				}
+				catch (RuntimeException ex) {
+					this.scheduled.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				ApplicationEvent event;
+				while ((event = this.events.poll()) != null) {
+					invokeListener(this.listener, event);
+				}
+			}
+			finally {
+				this.scheduled.set(false);
+				schedule();
+			}
+		}
+	}
+
 }
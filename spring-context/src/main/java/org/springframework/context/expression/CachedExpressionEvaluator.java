@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,10 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -39,6 +42,9 @@ public abstract class CachedExpressionEvaluator {
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private volatile SpelExpressionCache expressionCache;
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -63,6 +69,30 @@ public abstract class CachedExpressionEvaluator {
 		return this.parser;
 	}
 
+	/**
+	 * Specify a {@link SpelExpressionCache} to parse expressions through,
+	 * sharing parsed expressions with other components, typically the
+	 * {@link StandardBeanExpressionResolver#findExpressionCache expression cache}
+	 * of the containing application context.
+	 * <p>The cache is only used with the SpEL compiler turned off: a compiled
+	 * expression is specific to the types seen on the element it is defined on.
+	 * By default, no shared cache is used.
+	 * @param expressionCache the cache to use, or {@code null} for none
+	 * @since 5.2
+	 */
+	public void setExpressionCache(@Nullable SpelExpressionCache expressionCache) {
+		this.expressionCache = expressionCache;
+	}
+
+	/**
+	 * Return the shared {@link SpelExpressionCache} to parse expressions through, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public SpelExpressionCache getExpressionCache() {
+		return this.expressionCache;
+	}
+
 	/**
 	 * Return a shared parameter name discoverer which caches data internally.
 	 * @since 4.3
@@ -85,7 +115,13 @@ public abstract class CachedExpressionEvaluator {
 		ExpressionKey expressionKey = createKey(elementKey, expression);
 		Expression expr = cache.get(expressionKey);
 		if (expr == null) {
-			expr = getParser().parseExpression(expression);
+			SpelExpressionCache expressionCache = this.expressionCache;
+			if (expressionCache != null && getParser().getConfiguration().getCompilerMode() == SpelCompilerMode.OFF) {
+				expr = expressionCache.parseExpression(getParser(), expression);
+			}
+			else {
+				expr = getParser().parseExpression(expression);
+			}
 			cache.put(expressionKey, expr);
 		}
 		return expr;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,13 +21,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanExpressionException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.BeanExpressionResolver;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
 import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
@@ -62,7 +65,7 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	private ExpressionParser expressionParser;
 
-	private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>(256);
+	private SpelExpressionCache expressionCache = new SpelExpressionCache(Integer.MAX_VALUE);
 
 	private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache = new ConcurrentHashMap<>(8);
 
@@ -129,6 +132,28 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 		this.expressionParser = expressionParser;
 	}
 
+	/**
+	 * Specify the cache to keep parsed expressions in.
+	 * <p>Default is an unbounded cache local to this resolver. Specify a
+	 * {@link SpelExpressionCache#SpelExpressionCache(int) size-limited} cache
+	 * to bound the number of parsed expressions held.
+	 * @since 5.2
+	 */
+	public void setExpressionCache(SpelExpressionCache expressionCache) {
+		Assert.notNull(expressionCache, "SpelExpressionCache must not be null");
+		this.expressionCache = expressionCache;
+	}
+
+	/**
+	 * Return the cache that parsed expressions are kept in, also used by
+	 * other components of the same application context.
+	 * @since 5.2
+	 * @see #findExpressionCache(BeanFactory)
+	 */
+	public SpelExpressionCache getExpressionCache() {
+		return this.expressionCache;
+	}
+
 
 	@Override
 	@Nullable
@@ -137,11 +162,8 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 			return value;
 		}
 		try {
-			Expression expr = this.expressionCache.get(value);
-			if (expr == null) {
-				expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
-				this.expressionCache.put(value, expr);
-			}
+			Expression expr = this.expressionCache.parseExpression(
+					this.expressionParser, value, this.beanExpressionParserContext);
 			StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
 			if (sec == null) {
 				sec = new StandardEvaluationContext(evalContext);
@@ -165,6 +187,26 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 		}
 	}
 
+	/**
+	 * Find the expression cache of the given bean factory's
+	 * {@code StandardBeanExpressionResolver}, allowing other components
+	 * to share one expression cache per application context.
+	 * @param beanFactory the bean factory to check
+	 * @return the expression cache, or {@code null} if the bean factory does
+	 * not use a {@code StandardBeanExpressionResolver}
+	 * @since 5.2
+	 */
+	@Nullable
+	public static SpelExpressionCache findExpressionCache(BeanFactory beanFactory) {
+		if (beanFactory instanceof ConfigurableBeanFactory) {
+			BeanExpressionResolver resolver = ((ConfigurableBeanFactory) beanFactory).getBeanExpressionResolver();
+			if (resolver instanceof StandardBeanExpressionResolver) {
+				return ((StandardBeanExpressionResolver) resolver).getExpressionCache();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Template method for customizing the expression evaluation context.
 	 * <p>The default implementation is empty.
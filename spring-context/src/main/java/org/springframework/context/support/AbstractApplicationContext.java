@@ -80,6 +80,8 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -223,6 +225,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/** Application startup metrics. **/
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -342,6 +347,17 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return new StandardEnvironment();
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 	/**
 	 * Return this context's internal bean factory as AutowireCapableBeanFactory,
 	 * if already available.
@@ -549,67 +565,75 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
-			// Prepare this context for refreshing.
-
-			/**
-			 * 1、刷新预处理
-			 *
-			 * 调用容器准备刷新的方法，获取容器的当前时间，同时给容器设置同步标识 {@link #prepareRefresh()}
-			 */
-			prepareRefresh();
-
-			// Tell the subclass to refresh the internal bean factory.
-
-			/**
-			 * 2、
-			 *
-			 * 	a) 创建IOC容器（DefaultListableBeanFactory）
-			 * 	b) 加载解析XML文件（最终存储到Document对象中）
-			 * 	c) 读取Document对象，并完成BeanDefinition的加载和注册工作
-			 *
-			 *  告诉子类启动 refreshBeanFactory() bean 定义资源文件从子类 refreshBeanFactory {@link #obtainFreshBeanFactory()}
-			 */
-			ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
-
-			// Prepare the bean factory for use in this context.
-
-			/**
-			 * 3、对IOC容器做一些预处理（设置一些公共属性）
-			 *
-			 * 为BeanFactory 配置容器特性。例如：容器加载器、事件处理器 {@link #prepareBeanFactory(ConfigurableListableBeanFactory)}
-			 */
-			prepareBeanFactory(beanFactory);
-
+			StartupStep contextRefresh = this.applicationStartup.start("spring.context.refresh");
+			ConfigurableListableBeanFactory beanFactory = null;
 			try {
-				// Allows post-processing of the bean factory in context subclasses.
+				// Prepare this context for refreshing.
 
 				/**
-				 * 4、【 子类可扩展 】
+				 * 1、刷新预处理
 				 *
-				 * 为容器的某些子类指定特殊POST 事件处理。
+				 * 调用容器准备刷新的方法，获取容器的当前时间，同时给容器设置同步标识 {@link #prepareRefresh()}
 				 */
-				postProcessBeanFactory(beanFactory);
+				prepareRefresh();
 
-				// Invoke factory processors registered as beans in the context.
+				// Tell the subclass to refresh the internal bean factory.
 
 				/**
-				 * 5、调用BeanFactoryPostProcessor后置处理器对BeanDefinition处理
+				 * 2、
 				 *
-				 * 调用所有注册的 BeanFactoryPostProcessor Bean {@link #invokeBeanFactoryPostProcessors(ConfigurableListableBeanFactory)}
+				 * 	a) 创建IOC容器（DefaultListableBeanFactory）
+				 * 	b) 加载解析XML文件（最终存储到Document对象中）
+				 * 	c) 读取Document对象，并完成BeanDefinition的加载和注册工作
 				 *
+				 *  告诉子类启动 refreshBeanFactory() bean 定义资源文件从子类 refreshBeanFactory {@link #obtainFreshBeanFactory()}
 				 */
-				invokeBeanFactoryPostProcessors(beanFactory);
+				beanFactory = obtainFreshBeanFactory();
 
-				// Register bean processors that intercept bean creation.
+				// Prepare the bean factory for use in this context.
 
 				/**
-				 * 6、注册BeanPostProcessor后置处理器
+				 * 3、对IOC容器做一些预处理（设置一些公共属性）
 				 *
-				 * 注册Bean后处理器 根据反射机制从BeanDefinitionRegistry中找出所有实现了BeanPostProcessor接口的bean，
-				 * 真正的调用在getBean时候
-				 *  并将它们注册到容器Bean后处理器的注册表中，这里只是注册， {@link PostProcessorRegistrationDelegate#registerBeanPostProcessors(ConfigurableListableBeanFactory, AbstractApplicationContext)}
+				 * 为BeanFactory 配置容器特性。例如：容器加载器、事件处理器 {@link #prepareBeanFactory(ConfigurableListableBeanFactory)}
 				 */
-				registerBeanPostProcessors(beanFactory);
+				prepareBeanFactory(beanFactory);
+
+				StartupStep beanPostProcess = this.applicationStartup.start("spring.context.beans.post-process");
+				try {
+					// Allows post-processing of the bean factory in context subclasses.
+
+					/**
+					 * 4、【 子类可扩展 】
+					 *
+					 * 为容器的某些子类指定特殊POST 事件处理。
+					 */
+					postProcessBeanFactory(beanFactory);
+
+					// Invoke factory processors registered as beans in the context.
+
+					/**
+					 * 5、调用BeanFactoryPostProcessor后置处理器对BeanDefinition处理
+					 *
+					 * 调用所有注册的 BeanFactoryPostProcessor Bean {@link #invokeBeanFactoryPostProcessors(ConfigurableListableBeanFactory)}
+					 *
+					 */
+					invokeBeanFactoryPostProcessors(beanFactory);
+
+					// Register bean processors that intercept bean creation.
+
+					/**
+					 * 6、注册BeanPostProcessor后置处理器
+					 *
+					 * 注册Bean后处理器 根据反射机制从BeanDefinitionRegistry中找出所有实现了BeanPostProcessor接口的bean，
+					 * 真正的调用在getBean时候
+					 *  并将它们注册到容器Bean后处理器的注册表中，这里只是注册， {@link PostProcessorRegistrationDelegate#registerBeanPostProcessors(ConfigurableListableBeanFactory, AbstractApplicationContext)}
+					 */
+					registerBeanPostProcessors(beanFactory);
+				}
+				finally {
+					beanPostProcess.end();
+				}
 
 				// Initialize message source for this context.
 
@@ -655,7 +679,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				 *
 				 * 初始化所有剩余单例bean {@link #finishBeanFactoryInitialization(ConfigurableListableBeanFactory)}
 				 */
-				finishBeanFactoryInitialization(beanFactory);
+				StartupStep singletonsInstantiate = this.applicationStartup.start("spring.context.singletons.instantiate");
+				try {
+					finishBeanFactoryInitialization(beanFactory);
+				}
+				finally {
+					singletonsInstantiate.end();
+				}
 
 				// Last step: publish corresponding event.
 
@@ -675,7 +705,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 
 				// Destroy already created singletons to avoid dangling resources.
 				// 销毁已创建的 bean
-				destroyBeans();
+				if (beanFactory != null) {
+					destroyBeans();
+				}
 
 				// Reset 'active' flag.
 				// 取消刷新操作，重置容器的同步标识。
@@ -690,6 +722,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// might not ever need metadata for singleton beans anymore...
 				// 重设公共缓存。
 				resetCommonCaches();
+				contextRefresh.end();
 			}
 		}
 	}
@@ -780,6 +813,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
 		// Tell the internal bean factory to use the context's class loader etc.
 		beanFactory.setBeanClassLoader(getClassLoader());
+		beanFactory.setApplicationStartup(getApplicationStartup());
 
 		/**
 		 * SpEL 支持。
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.aopalliance.aop.Advice;
 import org.aopalliance.intercept.MethodInterceptor;
@@ -53,6 +54,7 @@ import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.DelegatingIntroductionInterceptor;
 import org.springframework.aop.support.DynamicMethodMatcherPointcut;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
 import org.springframework.aop.support.Pointcuts;
 import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
 import org.springframework.aop.target.HotSwappableTargetSource;
@@ -912,6 +914,83 @@ public abstract class AbstractAopProxyTests {
 		assertEquals(0, advised.getAdvisors().length);
 	}
 
+	@Test
+	public void testFixedChainsWhenFrozen() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		target.setName("tb");
+		NopInterceptor nop = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(nop);
+		advisor.setMappedName("getAge");
+		ProxyFactory pc = new ProxyFactory(target);
+		pc.addAdvisor(advisor);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+
+		assertEquals(21, proxied.getAge());
+		assertEquals(21, proxied.getAge());
+		assertEquals("tb", proxied.getName());
+		assertEquals(2, nop.getCount());
+		assertTrue(proxied.equals(proxied));
+		assertEquals(1, ((Advised) proxied).getAdvisors().length);
+	}
+
+	@Test
+	public void testFixedChainsNotLookedUpPerInvocationWhenFrozen() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		NopInterceptor nop = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(nop);
+		advisor.setMappedName("getAge");
+		AtomicInteger chainLookups = new AtomicInteger();
+		AdvisorChainFactory chainFactory = new DefaultAdvisorChainFactory();
+		ProxyFactory pc = new ProxyFactory(target);
+		pc.setAdvisorChainFactory((config, method, targetClass) -> {
+			chainLookups.incrementAndGet();
+			return chainFactory.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+		});
+		pc.addAdvisor(advisor);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+		int chainLookupsOnCreation = chainLookups.get();
+
+		assertEquals(21, proxied.getAge());
+		assertEquals(21, proxied.getAge());
+		proxied.getName();
+		assertEquals(2, nop.getCount());
+		assertEquals(chainLookupsOnCreation, chainLookups.get());
+	}
+
+	@Test
+	public void testFixedChainsWhenRefrozen() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		NopInterceptor nop1 = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(nop1);
+		advisor.setMappedName("getAge");
+		ProxyFactory pc = new ProxyFactory(target);
+		pc.addAdvisor(advisor);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+		assertEquals(21, proxied.getAge());
+		assertEquals(1, nop1.getCount());
+
+		pc.setFrozen(false);
+		NopInterceptor nop2 = new NopInterceptor();
+		pc.addAdvice(nop2);
+		pc.setFrozen(true);
+		assertEquals(21, proxied.getAge());
+		assertEquals(2, nop1.getCount());
+		assertEquals(1, nop2.getCount());
+
+		pc.setFrozen(false);
+		pc.removeAdvisor(advisor);
+		pc.setFrozen(true);
+		assertEquals(21, proxied.getAge());
+		assertEquals(2, nop1.getCount());
+		assertEquals(2, nop2.getCount());
+	}
+
 	@Test
 	public void testUseAsHashKey() {
 		TestBean target1 = new TestBean();
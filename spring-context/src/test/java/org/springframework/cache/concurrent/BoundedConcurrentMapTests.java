@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.cache.concurrent.BoundedConcurrentMap.EvictionPolicy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedConcurrentMap}.
+ *
+ * @author agent
+ */
+public class BoundedConcurrentMapTests {
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(3);
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		assertEquals("1", map.get("a"));
+		map.put("d", "4");
+		map.cleanUp();
+
+		assertEquals(3, map.size());
+		assertTrue(map.containsKey("a"));
+		assertFalse(map.containsKey("b"));
+		assertTrue(map.containsKey("c"));
+		assertTrue(map.containsKey("d"));
+		assertEquals(1, map.getEvictionCount());
+		assertEquals(3, map.getWeightedSize());
+	}
+
+	@Test
+	public void evictByWeight() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10, (key, value) -> value.length());
+		map.put("a", "12345");
+		map.put("b", "1234");
+		assertEquals(9, map.getWeightedSize());
+		map.put("c", "12");
+		assertEquals(6, map.getWeightedSize());
+		assertFalse(map.containsKey("a"));
+		map.put("b", "1");
+		assertEquals(3, map.getWeightedSize());
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void tinyLfuRetainsFrequentlyUsedEntries() {
+		BoundedConcurrentMap<Integer, Integer> map = new BoundedConcurrentMap<>(100);
+		map.setEvictionPolicy(EvictionPolicy.TINY_LFU);
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 10; i++) {
+				assertEquals(Integer.valueOf(i), map.get(i));
+			}
+			map.cleanUp();
+		}
+		// Scan through entries which are only used once
+		for (int i = 1000; i < 2000; i++) {
+			map.put(i, i);
+		}
+		map.cleanUp();
+
+		assertEquals(100, map.size());
+		for (int i = 0; i < 10; i++) {
+			assertTrue("Hot entry " + i + " has been evicted", map.containsKey(i));
+		}
+	}
+
+	@Test
+	public void tinyLfuWithoutMaximum() {
+		BoundedConcurrentMap<Integer, Integer> map = new BoundedConcurrentMap<>();
+		map.setEvictionPolicy(EvictionPolicy.TINY_LFU);
+		assertEquals(EvictionPolicy.TINY_LFU, map.getEvictionPolicy());
+		for (int i = 0; i < 1000; i++) {
+			map.put(i, i);
+		}
+		map.remove(0);
+		map.cleanUp();
+
+		assertEquals(999, map.size());
+		assertEquals(999, map.getWeightedSize());
+		assertEquals(0, map.getEvictionCount());
+	}
+
+	@Test
+	public void expireAfterWrite() {
+		MutableClock clock = new MutableClock();
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>();
+		map.setClock(clock);
+		map.setExpireAfterWrite(Duration.ofMinutes(1));
+		map.put("a", "1");
+		clock.advance(Duration.ofSeconds(30));
+		map.put("b", "2");
+		assertEquals("1", map.get("a"));
+
+		clock.advance(Duration.ofSeconds(30));
+		assertNull(map.get("a"));
+		assertEquals("2", map.get("b"));
+		assertEquals("3", map.computeIfAbsent("a", key -> "3"));
+
+		clock.advance(Duration.ofSeconds(30));
+		map.cleanUp();
+		assertEquals(1, map.size());
+		assertEquals("3", map.get("a"));
+	}
+
+	@Test
+	public void expireAfterAccess() {
+		MutableClock clock = new MutableClock();
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>();
+		map.setClock(clock);
+		map.setExpireAfterAccess(Duration.ofMinutes(1));
+		map.put("a", "1");
+		map.put("b", "2");
+		clock.advance(Duration.ofSeconds(50));
+		assertEquals("1", map.get("a"));
+
+		clock.advance(Duration.ofSeconds(50));
+		map.cleanUp();
+		assertEquals(1, map.size());
+		assertEquals("1", map.get("a"));
+		assertFalse(map.containsKey("b"));
+		assertEquals(1, map.getEvictionCount());
+	}
+
+	@Test
+	public void statistics() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		map.put("a", "1");
+		map.get("a");
+		map.get("a");
+		map.get("b");
+		assertEquals("2", map.computeIfAbsent("b", key -> "2"));
+		assertEquals("2", map.computeIfAbsent("b", key -> "3"));
+
+		assertEquals(3, map.getHitCount());
+		assertEquals(2, map.getMissCount());
+		assertEquals(0, map.getEvictionCount());
+		map.resetStatistics();
+		assertEquals(0, map.getHitCount());
+	}
+
+	@Test
+	public void concurrentMapOperations() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		assertNull(map.putIfAbsent("a", "1"));
+		assertEquals("1", map.putIfAbsent("a", "2"));
+		assertFalse(map.replace("a", "2", "3"));
+		assertTrue(map.replace("a", "1", "3"));
+		assertEquals("3", map.replace("a", "4"));
+		assertNull(map.replace("b", "4"));
+		assertFalse(map.remove("a", "3"));
+		assertTrue(map.remove("a", "4"));
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.getWeightedSize());
+
+		map.put("a", "1");
+		map.put("b", "2");
+		assertEquals(2, map.entrySet().size());
+		assertTrue(map.containsValue("2"));
+		map.keySet().remove("a");
+		assertEquals(1, map.getWeightedSize());
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.getWeightedSize());
+	}
+
+	@Test
+	public void concurrentAccessRespectsMaximumSize() throws Exception {
+		BoundedConcurrentMap<Integer, Integer> map = new BoundedConcurrentMap<>(50);
+		map.setEvictionPolicy(EvictionPolicy.TINY_LFU);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch latch = new CountDownLatch(threads);
+		AtomicInteger failures = new AtomicInteger();
+		List<Runnable> tasks = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * 1000;
+			tasks.add(() -> {
+				try {
+					for (int i = 0; i < 1000; i++) {
+						map.computeIfAbsent((offset + i) % 200, key -> key);
+						map.get(i % 200);
+						if (i % 7 == 0) {
+							map.remove(i % 200);
+						}
+					}
+				}
+				catch (Throwable ex) {
+					failures.incrementAndGet();
+				}
+				finally {
+					latch.countDown();
+				}
+			});
+		}
+		tasks.forEach(executor::execute);
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+		map.cleanUp();
+
+		assertEquals(0, failures.get());
+		assertTrue(map.size() <= 50);
+		assertEquals(map.size(), map.getWeightedSize());
+	}
+
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant = Instant.now();
+
+		void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("GMT");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+	}
+
+}
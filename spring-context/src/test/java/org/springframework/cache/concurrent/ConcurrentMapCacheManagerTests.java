@@ -16,6 +16,8 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
+
 import org.junit.Test;
 
 import org.springframework.cache.Cache;
@@ -131,4 +133,33 @@ public class ConcurrentMapCacheManagerTests {
 		assertNull(cache1x.get("key"));
 	}
 
+	@Test
+	public void testBoundedCaches() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		assertFalse(cm.isBounded());
+		Cache cache1 = cm.getCache("c1");
+		assertFalse(((ConcurrentMapCache) cache1).getNativeCache() instanceof BoundedConcurrentMap);
+
+		cm.setMaximumSize(2);
+		cm.setExpireAfterWrite(Duration.ofMinutes(10));
+		assertTrue(cm.isBounded());
+		Cache cache1x = cm.getCache("c1");
+		assertTrue(cache1x != cache1);
+		BoundedConcurrentMap<?, ?> store =
+				(BoundedConcurrentMap<?, ?>) ((ConcurrentMapCache) cache1x).getNativeCache();
+
+		cache1x.put("key1", "value1");
+		cache1x.put("key2", "value2");
+		cache1x.put("key3", null);
+		assertEquals(2, store.size());
+		assertEquals(1, store.getEvictionCount());
+		assertNull(cache1x.get("key1"));
+		assertEquals("value2", cache1x.get("key2").get());
+		assertNull(cache1x.get("key3").get());
+		assertEquals(2, store.getHitCount());
+		assertEquals(1, store.getMissCount());
+		assertEquals("value4", cache1x.get("key4", () -> "value4"));
+		assertEquals(2, store.size());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.context.annotation;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 import org.junit.Test;
@@ -31,6 +33,9 @@ import org.springframework.context.annotation6.ComponentForScanning;
 import org.springframework.context.annotation6.ConfigForScanning;
 import org.springframework.context.annotation6.Jsr330NamedForScanning;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.BufferedStartupStep;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.util.ObjectUtils;
 
 import static java.lang.String.*;
@@ -58,6 +63,104 @@ public class AnnotationConfigApplicationContextTests {
 		assertEquals(1, beans.size());
 	}
 
+	@Test
+	public void scanInParallelAndRefresh() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setParallelScanning(true);
+		context.scan("org.springframework.context.annotation6");
+		context.refresh();
+
+		context.getBean(uncapitalize(ConfigForScanning.class.getSimpleName()));
+		context.getBean("testBean"); // contributed by ConfigForScanning
+		context.getBean(uncapitalize(ComponentForScanning.class.getSimpleName()));
+		context.getBean(uncapitalize(Jsr330NamedForScanning.class.getSimpleName()));
+		Map<String, Object> beans = context.getBeansWithAnnotation(Configuration.class);
+		assertEquals(1, beans.size());
+	}
+
+	@Test
+	public void scanAndRefreshWithApplicationStartup() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(startup);
+		context.scan("org.springframework.context.annotation6");
+		context.refresh();
+
+		List<BufferedStartupStep> steps = startup.getRecordedSteps();
+		BufferedStartupStep refresh = steps.get(steps.size() - 1);
+		assertEquals("spring.context.refresh", refresh.getName());
+		assertEquals("spring.context.base-packages.scan", steps.get(0).getName());
+
+		BufferedStartupStep parse = steps.stream()
+				.filter(step -> step.getName().equals("spring.context.config-classes.parse"))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		BufferedStartupStep registryPostProcess = steps.stream()
+				.filter(step -> Objects.equals(step.getId(), parse.getParentId()))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		assertEquals("spring.context.beandef-registry.post-process", registryPostProcess.getName());
+
+		BufferedStartupStep beanCreation = steps.stream()
+				.filter(step -> step.getName().equals("spring.beans.instantiate") &&
+						tagValue(step, "beanName").equals("componentForScanning"))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		assertEquals(ComponentForScanning.class.getName(), tagValue(beanCreation, "beanType"));
+		BufferedStartupStep singletons = steps.stream()
+				.filter(step -> Objects.equals(step.getId(), beanCreation.getParentId()))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		assertEquals("spring.context.singletons.instantiate", singletons.getName());
+		assertEquals(Long.valueOf(refresh.getId()), singletons.getParentId());
+	}
+
+	@Test
+	public void refreshFailureEndsApplicationStartupSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(startup);
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			throw new IllegalStateException("Expected failure");
+		});
+		try {
+			context.refresh();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Expected failure", ex.getMessage());
+		}
+
+		List<BufferedStartupStep> steps = startup.getRecordedSteps();
+		assertTrue(steps.stream().anyMatch(step -> step.getName().equals("spring.context.bean-factory.post-process")));
+		assertTrue(steps.stream().anyMatch(step -> step.getName().equals("spring.context.beans.post-process")));
+		assertEquals("spring.context.refresh", steps.get(steps.size() - 1).getName());
+	}
+
+	@Test
+	public void repeatedRefreshFailureLeavesNoCurrentStartupStep() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(startup);
+		context.refresh();
+		try {
+			context.refresh();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected: GenericApplicationContext does not support multiple refresh attempts
+		}
+
+		StartupStep step = startup.start("test.step");
+		assertNull(step.getParentId());
+		step.end();
+	}
+
+	private static String tagValue(StartupStep step, String key) {
+		for (StartupStep.Tag tag : step.getTags()) {
+			if (tag.getKey().equals(key)) {
+				return tag.getValue();
+			}
+		}
+		return "";
+	}
+
 	@Test
 	public void registerAndRefresh() {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
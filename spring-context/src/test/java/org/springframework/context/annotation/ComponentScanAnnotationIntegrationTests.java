@@ -112,6 +112,18 @@ public class ComponentScanAnnotationIntegrationTests {
 				ctx.containsBean("fooServiceImpl"), is(true));
 	}
 
+	@Test
+	public void viaContextRegistration_WithParallelScanning() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.register(ComponentScanAnnotatedConfig_WithParallelScanning.class);
+		ctx.refresh();
+		ctx.getBean(TestBean.class);
+		assertThat("parallel scan for example.scannable package failed to register FooServiceImpl bean",
+				ctx.containsBean("fooServiceImpl"), is(true));
+		assertThat("parallel scan for example.scannable package failed to register StubFooDao bean",
+				ctx.containsBean("stubFooDao"), is(true));
+	}
+
 	@Test
 	public void viaContextRegistration_FromPackageOfConfigClass() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
@@ -342,6 +354,16 @@ class ComponentScanAnnotatedConfig_WithValueAttribute {
 	}
 }
 
+@Configuration
+@ComponentScan(basePackages = "example.scannable", parallelScanning = true)
+class ComponentScanAnnotatedConfig_WithParallelScanning {
+
+	@Bean
+	public TestBean testBean() {
+		return new TestBean();
+	}
+}
+
 @Configuration
 @ComponentScan
 class ComponentScanWithNoPackagesConfig {
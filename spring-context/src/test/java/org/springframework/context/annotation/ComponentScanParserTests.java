@@ -91,6 +91,14 @@ public class ComponentScanParserTests {
 		context.close();
 	}
 
+	@Test
+	public void parallelScanning() {
+		ClassPathXmlApplicationContext context = loadContext("parallelScanningTests.xml");
+		assertTrue(context.containsBean("fooServiceImpl"));
+		assertTrue(context.containsBean("stubFooDao"));
+		context.close();
+	}
+
 	@Test
 	public void componentScanWithAutowiredQualifier() {
 		ClassPathXmlApplicationContext context = loadContext("componentScanWithAutowiredQualifierTests.xml");
@@ -16,9 +16,14 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -29,6 +34,7 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -178,6 +184,157 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		smc.multicastEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedAsyncDelivery() {
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setOrderedAsyncDelivery(true);
+		smc.addApplicationListener(listener);
+
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+		MyOtherEvent event3 = new MyOtherEvent(this);
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		smc.multicastEvent(event3);
+		assertEquals(1, tasks.size());
+		assertTrue(listener.seenEvents.isEmpty());
+
+		tasks.remove(0).run();
+		assertEquals(Arrays.asList(event1, event2, event3), listener.seenEvents);
+		assertTrue(tasks.isEmpty());
+
+		MyEvent event4 = new MyEvent(this);
+		smc.multicastEvent(event4);
+		assertEquals(1, tasks.size());
+		tasks.remove(0).run();
+		assertEquals(Arrays.asList(event1, event2, event3, event4), listener.seenEvents);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedAsyncDeliveryAfterRemoval() {
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setOrderedAsyncDelivery(true);
+		smc.addApplicationListener(listener);
+
+		MyEvent event1 = new MyEvent(this);
+		smc.multicastEvent(event1);
+		assertEquals(1, tasks.size());
+
+		smc.removeApplicationListener(listener);
+		smc.addApplicationListener(listener);
+		MyEvent event2 = new MyEvent(this);
+		smc.multicastEvent(event2);
+		assertEquals(2, tasks.size());
+
+		smc.removeAllListeners();
+		smc.addApplicationListener(listener);
+		MyEvent event3 = new MyEvent(this);
+		smc.multicastEvent(event3);
+		assertEquals(3, tasks.size());
+
+		tasks.forEach(Runnable::run);
+		assertEquals(Arrays.asList(event1, event2, event3), listener.seenEvents);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedAsyncDeliveryForNonSingletonListener() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition listenerDefinition = new RootBeanDefinition(MyOrderedListener1.class);
+		listenerDefinition.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototypeListener", listenerDefinition);
+		beanFactory.registerBeanDefinition("singletonListener", new RootBeanDefinition(MyOrderedListener3.class));
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster(beanFactory);
+		smc.setTaskExecutor(tasks::add);
+		smc.setOrderedAsyncDelivery(true);
+		smc.addApplicationListenerBean("prototypeListener");
+		smc.addApplicationListenerBean("singletonListener");
+
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		// One task per event for the fresh prototype instances, one lane for the singleton
+		assertEquals(4, tasks.size());
+		tasks.forEach(Runnable::run);
+		assertEquals(3, beanFactory.getBean("singletonListener", MyOrderedListener3.class).seenEvents.size());
+
+		Field field = ReflectionUtils.findField(SimpleApplicationEventMulticaster.class, "listenerLanes");
+		ReflectionUtils.makeAccessible(field);
+		Map<?, ?> listenerLanes = (Map<?, ?>) ReflectionUtils.getField(field, smc);
+		assertEquals(1, listenerLanes.size());
+		assertTrue(listenerLanes.containsKey(beanFactory.getBean("singletonListener")));
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedAsyncDeliveryDoesNotCreateListenerBeans() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition listenerDefinition = new RootBeanDefinition(MyOrderedListener1.class);
+		listenerDefinition.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototypeListener", listenerDefinition);
+		RootBeanDefinition lazyDefinition = new RootBeanDefinition(MyOrderedListener4.class);
+		lazyDefinition.getConstructorArgumentValues().addGenericArgumentValue(new MyOrderedListener3());
+		lazyDefinition.setLazyInit(true);
+		beanFactory.registerBeanDefinition("lazyListener", lazyDefinition);
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster(beanFactory);
+		smc.setTaskExecutor(tasks::add);
+		smc.setOrderedAsyncDelivery(true);
+		smc.addApplicationListenerBean("prototypeListener");
+		smc.addApplicationListenerBean("lazyListener");
+
+		smc.multicastEvent(new MyOtherEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertEquals(2, tasks.size());
+		assertFalse(beanFactory.containsSingleton("lazyListener"));
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithEventBatch() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener3 listener2 = new MyOrderedListener3();
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.addApplicationListener(listener1);
+		smc.addApplicationListener(listener2);
+
+		MyEvent event1 = new MyEvent(this);
+		MyOtherEvent event2 = new MyOtherEvent(this);
+		MyEvent event3 = new MyEvent(this);
+		smc.multicastEvents(Arrays.asList(event1, event2, event3));
+		assertEquals(2, tasks.size());
+
+		tasks.forEach(Runnable::run);
+		assertEquals(Arrays.asList(event1, event2, event3), listener1.seenEvents);
+		assertEquals(3, listener2.seenEvents.size());
+	}
+
+	@Test
+	public void listenerCacheRefreshedAfterRegistration() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener1 listener2 = new MyOrderedListener1();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+
+		MyEvent event1 = new MyEvent(this);
+		smc.multicastEvent(event1);
+		assertEquals(1, smc.retrieverCache.size());
+
+		smc.addApplicationListener(listener2);
+		assertEquals(0, smc.retrieverCache.size());
+
+		MyEvent event2 = new MyEvent(this);
+		smc.multicastEvent(event2);
+		assertEquals(Arrays.asList(event1, event2), listener1.seenEvents);
+		assertEquals(Collections.singletonList(event2), listener2.seenEvents);
+	}
+
 	@Test
 	public void orderedListeners() {
 		MyOrderedListener1 listener1 = new MyOrderedListener1();
@@ -51,6 +51,7 @@ import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.tests.Assume;
 import org.springframework.tests.TestGroup;
 import org.springframework.tests.sample.beans.TestBean;
@@ -310,6 +311,18 @@ public class ApplicationContextExpressionTests {
 		}
 	}
 
+	@Test
+	public void expressionCacheSharedPerContext() {
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.refresh();
+		SpelExpressionCache expressionCache = StandardBeanExpressionResolver.findExpressionCache(ac.getBeanFactory());
+		assertNotNull(expressionCache);
+		assertEquals(Integer.MAX_VALUE, expressionCache.sizeLimit());
+		assertSame(expressionCache, StandardBeanExpressionResolver.findExpressionCache(ac.getBeanFactory()));
+		assertNull(StandardBeanExpressionResolver.findExpressionCache(new DefaultListableBeanFactory()));
+		ac.close();
+	}
+
 	@Test
 	public void stringConcatenationWithDebugLogging() {
 		AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
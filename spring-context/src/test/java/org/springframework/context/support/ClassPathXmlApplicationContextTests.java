@@ -31,6 +31,7 @@ import org.junit.Test;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.CannotLoadBeanClassException;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
@@ -39,6 +40,9 @@ import org.springframework.context.MessageSource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.BufferedStartupStep;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.tests.sample.beans.ResourceTestBean;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.ObjectUtils;
@@ -104,6 +108,29 @@ public class ClassPathXmlApplicationContextTests {
 		assertTrue(service.isProperlyDestroyed());
 	}
 
+	@Test
+	public void testBeanDefinitionLoadingFailureEndsRefreshStep() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+		ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
+				new String[] {PATH + "nonExistent.xml"}, false, null);
+		ctx.setApplicationStartup(startup);
+		try {
+			ctx.refresh();
+			fail("Should have thrown BeanDefinitionStoreException");
+		}
+		catch (BeanDefinitionStoreException ex) {
+			// expected
+		}
+		assertFalse(ctx.isActive());
+
+		List<BufferedStartupStep> steps = startup.getRecordedSteps();
+		assertEquals(1, steps.size());
+		assertEquals("spring.context.refresh", steps.get(0).getName());
+		StartupStep step = startup.start("test.step");
+		assertNull(step.getParentId());
+		step.end();
+	}
+
 	@Test
 	public void testConfigLocationPattern() {
 		ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(CONTEXT_WILDCARD);
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for {@link ResolvableType#forClass} and
+ * {@link ResolvableType#forMethodParameter} resolution.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method method;
+
+		@Setup
+		public void setup() throws NoSuchMethodException {
+			this.method = Repository.class.getMethod("saveAll", Map.class);
+		}
+	}
+
+
+	@Benchmark
+	public Object forClass() {
+		return ResolvableType.forClass(StringRepository.class).as(Repository.class).getGeneric(0).resolve();
+	}
+
+	@Benchmark
+	public Object forMethodParameter(BenchmarkState state) {
+		MethodParameter parameter = new MethodParameter(state.method, 0);
+		return ResolvableType.forMethodParameter(parameter, StringRepository.class).getGeneric(1, 0).resolve();
+	}
+
+
+	public interface Repository<T> {
+
+		void saveAll(Map<String, List<T>> entities);
+	}
+
+	public static class StringRepository implements Repository<String> {
+
+		@Override
+		public void saveAll(Map<String, List<String>> entities) {
+		}
+	}
+
+}
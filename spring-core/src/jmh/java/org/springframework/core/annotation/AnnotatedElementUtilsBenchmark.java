@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for {@link AnnotatedElementUtils#findMergedAnnotation}, covering
+ * direct, meta-present, inherited and absent annotations.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotatedElementUtilsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method annotatedMethod;
+
+		public Method plainMethod;
+
+		@Setup
+		public void setup() throws NoSuchMethodException {
+			this.annotatedMethod = SubService.class.getMethod("handle", String.class);
+			this.plainMethod = SubService.class.getMethod("plain");
+		}
+	}
+
+
+	@Benchmark
+	public Object findDirectAnnotationOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(Service.class, Marker.class);
+	}
+
+	@Benchmark
+	public Object findComposedAnnotationOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(Service.class, Component.class);
+	}
+
+	@Benchmark
+	public Object findInheritedAnnotationOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(SubService.class, Component.class);
+	}
+
+	@Benchmark
+	public Object findAnnotationOnInterfaceMethod(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.annotatedMethod, Marker.class);
+	}
+
+	@Benchmark
+	public Object findAbsentAnnotationOnMethod(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.plainMethod, Marker.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	public @interface Component {
+
+		String value() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Component
+	public @interface Marker {
+
+		@AliasFor(annotation = Component.class)
+		String value() default "";
+	}
+
+	public interface Handler {
+
+		@Marker("handler")
+		void handle(String input);
+	}
+
+	@Marker("service")
+	public static class Service implements Handler {
+
+		@Override
+		public void handle(String input) {
+		}
+
+		public void plain() {
+		}
+	}
+
+	public static class SubService extends Service {
+
+		@Override
+		public void handle(String input) {
+		}
+	}
+
+}
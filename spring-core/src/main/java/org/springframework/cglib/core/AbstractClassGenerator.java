@@ -174,9 +174,30 @@ abstract public class AbstractClassGenerator<T> implements ClassGenerator {
 	}
 
 	private String generateClassName(Predicate nameTestPredicate) {
-		return namingPolicy.getClassName(namePrefix, source.name, key, nameTestPredicate);
+		return generateClassName(nameTestPredicate, key);
 	}
 
+	// SPRING PATCH BEGIN
+	private String generateClassName(Predicate nameTestPredicate, Object namingKey) {
+		return namingPolicy.getClassName(namePrefix, source.name, namingKey, nameTestPredicate);
+	}
+
+	/**
+	 * Return a key for the generated class which is stable across JVM runs,
+	 * for use with a {@link GeneratedClassCache}. The key must cover all input
+	 * to the bytecode generation, including the class files that the generated
+	 * class is derived from.
+	 * <p>The default implementation returns <code>null</code>, not participating
+	 * in persistent caching.
+	 * @return the persistent key, or <code>null</code> if not cacheable
+	 * @since 5.2
+	 * @see GeneratedClassCache#appendClassFileHashes
+	 */
+	protected String getPersistentKey() {
+		return null;
+	}
+	// SPRING PATCH END
+
 	/**
 	 * Set the <code>ClassLoader</code> in which the class will be generated.
 	 * Concrete subclasses of <code>AbstractClassGenerator</code> (such as <code>Enhancer</code>)
@@ -341,11 +362,17 @@ abstract public class AbstractClassGenerator<T> implements ClassGenerator {
 						getClassName() + ". It seems that the loader has been expired from a weak reference somehow. " +
 						"Please file an issue at cglib's issue tracker.");
 			}
+			// SPRING PATCH BEGIN
+			GeneratedClassCache persistentCache = GeneratedClassCache.getSharedInstance();
+			String persistentKey = (persistentCache != null ? getPersistentKey() : null);
 			synchronized (classLoader) {
-				String name = generateClassName(data.getUniqueNamePredicate());
+				// Name persistently cached classes deterministically across JVM runs
+				String name = generateClassName(data.getUniqueNamePredicate(),
+						(persistentKey != null ? persistentKey : key));
 				data.reserveName(name);
 				this.setClassName(name);
 			}
+			// SPRING PATCH END
 			if (attemptLoad) {
 				try {
 					gen = classLoader.loadClass(getClassName());
@@ -355,7 +382,19 @@ abstract public class AbstractClassGenerator<T> implements ClassGenerator {
 					// ignore
 				}
 			}
-			byte[] b = strategy.generate(this);
+			// SPRING PATCH BEGIN
+			byte[] b = null;
+			if (persistentKey != null) {
+				persistentKey = persistentKey + ";class=" + getClassName();
+				b = persistentCache.get(persistentKey, getClassName());
+			}
+			if (b == null) {
+				b = strategy.generate(this);
+				if (persistentKey != null) {
+					persistentCache.put(persistentKey, b);
+				}
+			}
+			// SPRING PATCH END
 			String className = ClassNameReader.getClassName(new ClassReader(b));
 			ProtectionDomain protectionDomain = getProtectionDomain();
 			synchronized (classLoader) { // just in case
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Persistent on-disk cache for the bytecode of CGLIB-generated classes,
+ * allowing subsequent JVM starts to define previously generated classes
+ * directly instead of generating them again.
+ *
+ * <p>Entries are keyed by a stable description of the generator input as
+ * provided by {@link AbstractClassGenerator#getPersistentKey()}, including
+ * hashes of the class files that the generated class is derived from:
+ * changed source classes therefore lead to new entries rather than stale hits.
+ * The Java version and the Spring version (along with a hash of the
+ * {@code spring-core} jar, if available) are part of every key as well,
+ * so that an upgraded class generator never picks up bytecode that was
+ * generated by a previous version.
+ * Stale entries are never read again and can be removed along with the
+ * entire cache directory at any time.
+ *
+ * <p>Caching is opt-in: it is active if the
+ * {@value #CACHE_DIRECTORY_PROPERTY_NAME} property is set, either as a JVM
+ * system property or in a {@code spring.properties} file, or if a shared
+ * instance has been {@link #setSharedInstance registered} programmatically.
+ *
+ * @author agent
+ * @since 5.2
+ * @see AbstractClassGenerator#getPersistentKey()
+ */
+public class GeneratedClassCache {
+
+	/**
+	 * System property that specifies the directory for caching generated classes:
+	 * {@value}.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cacheDirectory";
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private static final Log logger = LogFactory.getLog(GeneratedClassCache.class);
+
+	private static final Map<Class<?>, String> classFileHashes = new ConcurrentReferenceHashMap<>(256);
+
+	private static volatile GeneratedClassCache sharedInstance = createSharedInstance();
+
+	private static volatile String generatorVersion;
+
+
+	private final File directory;
+
+
+	/**
+	 * Create a new cache for the given directory, created on demand.
+	 * @param directory the directory to store generated classes in
+	 */
+	public GeneratedClassCache(File directory) {
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Return the directory that generated classes are stored in.
+	 */
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Return the cached bytecode for the given key, if any.
+	 * @param key the persistent generator key, including the class name
+	 * @param className the expected name of the generated class
+	 * @return the cached bytecode, or {@code null} if none found (or unusable)
+	 */
+	public byte[] get(String key, String className) {
+		File file = getFile(key);
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			String cachedClassName = ClassNameReader.getClassName(new ClassReader(bytes));
+			if (!className.equals(cachedClassName)) {
+				return null;
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Using cached bytecode for class " + className + " from " + file);
+			}
+			return bytes;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable cache entry " + file + " for class " + className, ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the given bytecode for the given key.
+	 * <p>Failures to write are logged and otherwise ignored.
+	 * @param key the persistent generator key, including the class name
+	 * @param bytes the bytecode of the generated class
+	 */
+	public void put(String key, byte[] bytes) {
+		File file = getFile(key);
+		try {
+			Files.createDirectories(this.directory.toPath());
+			// Write to a temporary file first, for other JVMs to never see partial content
+			Path tempFile = Files.createTempFile(this.directory.toPath(), file.getName(), ".tmp");
+			try {
+				Files.write(tempFile, bytes);
+				try {
+					Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write cache entry " + file, ex);
+			}
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(this.directory, sha256(key.getBytes(StandardCharsets.UTF_8)) + CLASS_FILE_SUFFIX);
+	}
+
+
+	/**
+	 * Return the shared cache instance, if persistent caching is active.
+	 * @return the shared instance, or {@code null} if none
+	 */
+	public static GeneratedClassCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	/**
+	 * Register the given cache as shared instance, overriding the
+	 * {@value #CACHE_DIRECTORY_PROPERTY_NAME} property.
+	 * @param cache the shared cache, or {@code null} to deactivate persistent caching
+	 */
+	public static void setSharedInstance(GeneratedClassCache cache) {
+		sharedInstance = cache;
+	}
+
+	/**
+	 * Append the class file hashes of the given classes, their superclasses and
+	 * all of their interfaces to the given key.
+	 * <p>Classes from the bootstrap class loader are identified by the Java
+	 * version instead. The version of the class generator itself is identified
+	 * by the Spring version and a hash of the {@code spring-core} jar.
+	 * Classes without an accessible class file (e.g. classes
+	 * generated at runtime) cannot be hashed.
+	 * @param key the key to append to
+	 * @param classes the classes to hash
+	 * @return {@code true} if all classes could be hashed, or {@code false}
+	 * if the resulting key must not be used
+	 */
+	public static boolean appendClassFileHashes(StringBuilder key, Class<?>... classes) {
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		for (Class<?> clazz : classes) {
+			collectHierarchy(clazz, hierarchy);
+		}
+		key.append(";java=").append(System.getProperty("java.version"));
+		key.append(";spring=").append(getGeneratorVersion());
+		for (Class<?> clazz : hierarchy) {
+			if (clazz.getClassLoader() == null) {
+				continue;
+			}
+			String hash = getClassFileHash(clazz);
+			if (hash == null) {
+				return false;
+			}
+			key.append(';').append(clazz.getName()).append('=').append(hash);
+		}
+		return true;
+	}
+
+	private static void collectHierarchy(Class<?> clazz, Set<Class<?>> hierarchy) {
+		if (clazz != null && hierarchy.add(clazz)) {
+			collectHierarchy(clazz.getSuperclass(), hierarchy);
+			for (Class<?> ifc : clazz.getInterfaces()) {
+				collectHierarchy(ifc, hierarchy);
+			}
+		}
+	}
+
+	private static String getClassFileHash(Class<?> clazz) {
+		String hash = classFileHashes.get(clazz);
+		if (hash == null) {
+			String resourceName = clazz.getName().replace('.', '/') + CLASS_FILE_SUFFIX;
+			try (InputStream is = clazz.getClassLoader().getResourceAsStream(resourceName)) {
+				if (is == null) {
+					return null;
+				}
+				hash = sha256(FileCopyUtils.copyToByteArray(is));
+			}
+			catch (IOException ex) {
+				return null;
+			}
+			classFileHashes.put(clazz, hash);
+		}
+		return hash;
+	}
+
+	private static String getGeneratorVersion() {
+		String version = generatorVersion;
+		if (version == null) {
+			version = String.valueOf(SpringVersion.getVersion());
+			String jarHash = getCodeSourceHash();
+			if (jarHash != null) {
+				version = version + '/' + jarHash;
+			}
+			generatorVersion = version;
+		}
+		return version;
+	}
+
+	private static String getCodeSourceHash() {
+		try {
+			CodeSource codeSource = AbstractClassGenerator.class.getProtectionDomain().getCodeSource();
+			URL location = (codeSource != null ? codeSource.getLocation() : null);
+			if (location == null || !ResourceUtils.URL_PROTOCOL_FILE.equals(location.getProtocol())) {
+				return null;
+			}
+			File file = ResourceUtils.getFile(location);
+			// Only hash an actual jar: a class directory is covered by the class file hashes
+			return (file.isFile() ? sha256(Files.readAllBytes(file.toPath())) : null);
+		}
+		catch (IOException | SecurityException ex) {
+			return null;
+		}
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not supported", ex);
+		}
+	}
+
+	private static GeneratedClassCache createSharedInstance() {
+		String directory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		return (StringUtils.hasText(directory) ? new GeneratedClassCache(new File(directory.trim())) : null);
+	}
+
+}
@@ -30,6 +30,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.asm.ClassVisitor;
 import org.springframework.asm.Label;
@@ -42,6 +43,7 @@ import org.springframework.cglib.core.CollectionUtils;
 import org.springframework.cglib.core.Constants;
 import org.springframework.cglib.core.DuplicatesPredicate;
 import org.springframework.cglib.core.EmitUtils;
+import org.springframework.cglib.core.GeneratedClassCache;
 import org.springframework.cglib.core.KeyFactory;
 import org.springframework.cglib.core.Local;
 import org.springframework.cglib.core.MethodInfo;
@@ -606,6 +608,49 @@ public class Enhancer extends AbstractClassGenerator {
 		}
 	}
 
+	// SPRING PATCH BEGIN
+	@Override
+	protected String getPersistentKey() {
+		Class sc = (superclass == null) ? Object.class : superclass;
+		StringBuilder key = new StringBuilder(Enhancer.class.getName());
+		key.append(";superclass=").append(sc.getName());
+		List<Class> sources = new ArrayList<Class>();
+		sources.add(Enhancer.class);
+		sources.add(getStrategy().getClass());
+		sources.add(sc);
+		if (interfaces != null) {
+			for (Class ifc : interfaces) {
+				key.append(";interface=").append(ifc.getName());
+				sources.add(ifc);
+			}
+		}
+		for (Type callbackType : callbackTypes) {
+			key.append(";callback=").append(callbackType.getDescriptor());
+		}
+		key.append(";useFactory=").append(useFactory);
+		key.append(";interceptDuringConstruction=").append(interceptDuringConstruction);
+		key.append(";serialVersionUID=").append(serialVersionUID);
+		key.append(";strategy=").append(getStrategy().getClass().getName());
+		// The callback filter is only relevant through its choices per method,
+		// sorted for independence from the order of reflectively found methods
+		List methods = new ArrayList();
+		getMethods(sc, interfaces, methods, new ArrayList(), null);
+		Set<String> callbackIndexes = new TreeSet<String>();
+		for (Object method : methods) {
+			Method m = (Method) method;
+			callbackIndexes.add(m.getDeclaringClass().getName() + "." + m.getName() +
+					Type.getMethodDescriptor(m) + "=" + filter.accept(m));
+		}
+		for (String callbackIndex : callbackIndexes) {
+			key.append(';').append(callbackIndex);
+		}
+		if (!GeneratedClassCache.appendClassFileHashes(key, sources.toArray(new Class[0]))) {
+			return null;
+		}
+		return key.toString();
+	}
+	// SPRING PATCH END
+
 	private Signature rename(Signature sig, int index) {
 		return new Signature("CGLIB$" + sig.getName() + "$" + index,
 				sig.getDescriptor());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import java.util.Set;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -107,6 +108,12 @@ public abstract class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	private static final Map<AnnotatedElement, Set<String>> getSemanticsIndexCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<AnnotatedElement, Set<String>> findSemanticsIndexCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -851,6 +858,9 @@ public abstract class AnnotatedElementUtils {
 			@Nullable Class<? extends Annotation> annotationType,
 			@Nullable String annotationName, Processor<T> processor) {
 
+		if (isIndexedAsAbsent(element, annotationType, annotationName, processor, false)) {
+			return null;
+		}
 		return searchWithGetSemantics(element,
 				(annotationType != null ? Collections.singleton(annotationType) : Collections.emptySet()),
 				annotationName, null, processor);
@@ -1041,6 +1051,9 @@ public abstract class AnnotatedElementUtils {
 			@Nullable Class<? extends Annotation> annotationType,
 			@Nullable String annotationName, Processor<T> processor) {
 
+		if (isIndexedAsAbsent(element, annotationType, annotationName, processor, true)) {
+			return null;
+		}
 		return searchWithFindSemantics(element,
 				(annotationType != null ? Collections.singleton(annotationType) : Collections.emptySet()),
 				annotationName, null, processor);
@@ -1271,6 +1284,61 @@ public abstract class AnnotatedElementUtils {
 		return null;
 	}
 
+	/**
+	 * Determine whether the specified annotation is known to be absent from the
+	 * annotation hierarchy of the given element, based on an index of all
+	 * annotation types reachable from the element with get or find semantics.
+	 * <p>The index is built once per {@link Class} and {@link Method} with a
+	 * single exhaustive search, so that the common "not annotated" case for
+	 * each further annotation type boils down to a set lookup.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @param annotationName the fully qualified class name of the annotation
+	 * type to find (as an alternative to {@code annotationType})
+	 * @param processor the processor that the actual search would delegate to
+	 * @param findSemantics whether to follow find semantics or get semantics
+	 * @return {@code true} if the search can be skipped, {@code false} if the
+	 * annotation may be present and a full search is necessary
+	 * @since 5.2
+	 */
+	private static boolean isIndexedAsAbsent(AnnotatedElement element,
+			@Nullable Class<? extends Annotation> annotationType, @Nullable String annotationName,
+			Processor<?> processor, boolean findSemantics) {
+
+		if (processor.alwaysProcesses() || !(element instanceof Class || element instanceof Method)) {
+			return false;
+		}
+		String name = (annotationType != null ? annotationType.getName() : annotationName);
+		if (name == null) {
+			return false;
+		}
+		Map<AnnotatedElement, Set<String>> indexCache =
+				(findSemantics ? findSemanticsIndexCache : getSemanticsIndexCache);
+		Set<String> annotationNames = indexCache.get(element);
+		if (annotationNames == null) {
+			AnnotationNameCollector collector = new AnnotationNameCollector();
+			if (findSemantics) {
+				searchWithFindSemantics(element, Collections.emptySet(), null, null, collector);
+			}
+			else {
+				searchWithGetSemantics(element, Collections.emptySet(), null, null, collector);
+			}
+			annotationNames = collector.getAnnotationNames();
+			indexCache.put(element, annotationNames);
+		}
+		return !annotationNames.contains(name);
+	}
+
+	/**
+	 * Clear the internal index of annotation types per annotated element.
+	 * @since 5.2
+	 * @see AnnotationUtils#clearCache()
+	 */
+	static void clearCache() {
+		getSemanticsIndexCache.clear();
+		findSemanticsIndexCache.clear();
+	}
+
 	/**
 	 * Get the array of raw (unsynthesized) annotations from the {@code value}
 	 * attribute of the supplied repeatable annotation {@code container}.
@@ -1516,6 +1584,33 @@ public abstract class AnnotatedElementUtils {
 	}
 
 
+	/**
+	 * {@link SimpleAnnotationProcessor} that visits every annotation within the
+	 * annotation hierarchy and collects the names of their annotation types,
+	 * never terminating the search early.
+	 * @since 5.2
+	 */
+	private static class AnnotationNameCollector extends SimpleAnnotationProcessor<Object> {
+
+		private final Set<String> annotationNames = new HashSet<>();
+
+		public AnnotationNameCollector() {
+			super(true);
+		}
+
+		@Override
+		@Nullable
+		public Object process(@Nullable AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
+			this.annotationNames.add(annotation.annotationType().getName());
+			return CONTINUE;
+		}
+
+		public Set<String> getAnnotationNames() {
+			return (this.annotationNames.isEmpty() ? Collections.emptySet() : this.annotationNames);
+		}
+	}
+
+
 	/**
 	 * {@link Processor} that gets the {@code AnnotationAttributes} for the
 	 * target annotation during the {@link #process} phase and then merges
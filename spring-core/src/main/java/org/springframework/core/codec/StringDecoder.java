@@ -16,7 +16,6 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -25,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntPredicate;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -164,7 +164,9 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	 * @return the index of the delimiter, or -1 if not found.
 	 */
 	private static int indexOf(DataBuffer buffer, byte[] delimiter) {
-		for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+		byte first = delimiter[0];
+		IntPredicate isFirst = b -> b == first;
+		for (int i = buffer.indexOf(isFirst, buffer.readPosition()); i >= 0; i = buffer.indexOf(isFirst, i + 1)) {
 			int bufferPos = i;
 			int delimiterPos = 0;
 			while (delimiterPos < delimiter.length) {
@@ -190,6 +192,7 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
 	/**
 	 * Join the given list of buffers into a single buffer.
+	 * @see DataBufferUtils#compose(List)
 	 */
 	private static DataBuffer joinUntilEndFrame(List<DataBuffer> dataBuffers) {
 		if (!dataBuffers.isEmpty()) {
@@ -198,7 +201,7 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 				dataBuffers.remove(lastIdx);
 			}
 		}
-		return dataBuffers.get(0).factory().join(dataBuffers);
+		return DataBufferUtils.compose(dataBuffers);
 	}
 
 	@Override
@@ -206,9 +209,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		String value = dataBuffer.toString(charset);
 		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,24 @@
 
 package org.springframework.core.convert.support;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
 import java.util.Collections;
-import java.util.List;
 import java.util.Set;
 
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalGenericConverter;
 import org.springframework.lang.Nullable;
-import org.springframework.util.ObjectUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
- * Converts an array to another array. First adapts the source array to a List,
- * then delegates to {@link CollectionToArrayConverter} to perform the target
- * array conversion.
+ * Converts an array to another array, converting each element of the source
+ * array to the target array's component type if necessary.
+ *
+ * <p>Between primitive arrays and arrays of the corresponding wrapper type,
+ * elements are copied as-is without any per-element converter invocation,
+ * unless a custom converter has been registered for the wrapper type.
  *
  * @author Keith Donald
  * @author Phillip Webb
@@ -38,13 +41,10 @@ import org.springframework.util.ObjectUtils;
  */
 final class ArrayToArrayConverter implements ConditionalGenericConverter {
 
-	private final CollectionToArrayConverter helperConverter;
-
 	private final ConversionService conversionService;
 
 
 	public ArrayToArrayConverter(ConversionService conversionService) {
-		this.helperConverter = new CollectionToArrayConverter(conversionService);
 		this.conversionService = conversionService;
 	}
 
@@ -56,22 +56,60 @@ final class ArrayToArrayConverter implements ConditionalGenericConverter {
 
 	@Override
 	public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
-		return this.helperConverter.matches(sourceType, targetType);
+		return ConversionUtils.canConvertElements(sourceType.getElementTypeDescriptor(),
+				targetType.getElementTypeDescriptor(), this.conversionService);
 	}
 
 	@Override
 	@Nullable
 	public Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		TypeDescriptor targetElementType = targetType.getElementTypeDescriptor();
 		if (this.conversionService instanceof GenericConversionService) {
-			TypeDescriptor targetElement = targetType.getElementTypeDescriptor();
-			if (targetElement != null &&
+			if (targetElementType != null &&
 					((GenericConversionService) this.conversionService).canBypassConvert(
-							sourceType.getElementTypeDescriptor(), targetElement)) {
+							sourceType.getElementTypeDescriptor(), targetElementType)) {
 				return source;
 			}
 		}
-		List<Object> sourceList = Arrays.asList(ObjectUtils.toObjectArray(source));
-		return this.helperConverter.convert(sourceList, sourceType, targetType);
+		Assert.state(targetElementType != null, "No target element type");
+		int length = (source != null ? Array.getLength(source) : 0);
+		Object target = Array.newInstance(targetElementType.getType(), length);
+		if (length == 0) {
+			return target;
+		}
+
+		ElementConverter elementConverter =
+				ConversionUtils.getElementConverter(this.conversionService, sourceType, targetElementType);
+		boolean boxingOnly = isBoxingOnly(source.getClass().getComponentType(), targetElementType.getType());
+		for (int i = 0; i < length; i++) {
+			Object sourceElement = Array.get(source, i);
+			Object targetElement = (boxingOnly && sourceElement != null ?
+					sourceElement : elementConverter.convert(sourceElement));
+			Array.set(target, i, targetElement);
+		}
+		return target;
+	}
+
+	/**
+	 * Determine whether elements can be copied from an array with the given
+	 * component type to an array with the given target component type as-is,
+	 * i.e. between a primitive type and its wrapper type, provided that no
+	 * custom converter is registered for the wrapper type itself and that the
+	 * service does not override its element conversion.
+	 */
+	private boolean isBoxingOnly(Class<?> sourceComponentType, Class<?> targetComponentType) {
+		if (!(this.conversionService instanceof GenericConversionService) ||
+				((GenericConversionService) this.conversionService).isConvertOverridden() ||
+				sourceComponentType.isPrimitive() == targetComponentType.isPrimitive()) {
+			return false;
+		}
+		Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(sourceComponentType);
+		if (wrapperType != ClassUtils.resolvePrimitiveIfNecessary(targetComponentType)) {
+			return false;
+		}
+		TypeDescriptor wrapperDescriptor = TypeDescriptor.valueOf(wrapperType);
+		return ((GenericConversionService) this.conversionService).canBypassConvert(
+				wrapperDescriptor, wrapperDescriptor);
 	}
 
 }
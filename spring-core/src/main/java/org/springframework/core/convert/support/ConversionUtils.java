@@ -48,6 +48,21 @@ abstract class ConversionUtils {
 		}
 	}
 
+	/**
+	 * Obtain an {@link ElementConverter} for the given source collection or array
+	 * type and target element type, shared per type pair if the given
+	 * {@link ConversionService} is a {@link GenericConversionService}.
+	 * @since 5.2
+	 */
+	public static ElementConverter getElementConverter(ConversionService conversionService,
+			TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+
+		if (conversionService instanceof GenericConversionService) {
+			return ((GenericConversionService) conversionService).getElementConverter(sourceType, targetElementType);
+		}
+		return new ElementConverter(conversionService, sourceType, targetElementType);
+	}
+
 	public static boolean canConvertElements(@Nullable TypeDescriptor sourceElementType,
 			@Nullable TypeDescriptor targetElementType, ConversionService conversionService) {
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Converts the elements of a source collection or array to the element type
+ * of a target collection or array.
+ *
+ * <p>Against a {@link GenericConversionService}, the source element descriptor
+ * and the {@link GenericConverter} are resolved once per element class and
+ * reused for subsequent elements of the same class, rather than narrowing the
+ * source element descriptor and looking up the converter for every element.
+ * This shortcut is only taken if the service does not override
+ * {@link GenericConversionService#convert(Object, TypeDescriptor, TypeDescriptor)};
+ * otherwise every element goes through that method.
+ * Instances are stateless apart from that resolution and are cached by the
+ * {@code GenericConversionService} per pair of source and target type.
+ *
+ * @author agent
+ * @since 5.2
+ * @see GenericConversionService#getElementConverter
+ */
+final class ElementConverter {
+
+	private final ConversionService conversionService;
+
+	private final TypeDescriptor sourceType;
+
+	private final TypeDescriptor targetElementType;
+
+	private final boolean resolveConverters;
+
+	@Nullable
+	private volatile ResolvedElementType resolvedElementType;
+
+
+	ElementConverter(ConversionService conversionService, TypeDescriptor sourceType,
+			TypeDescriptor targetElementType) {
+
+		this.conversionService = conversionService;
+		this.sourceType = sourceType;
+		this.targetElementType = targetElementType;
+		this.resolveConverters = (conversionService instanceof GenericConversionService &&
+				!((GenericConversionService) conversionService).isConvertOverridden());
+	}
+
+
+	/**
+	 * Return the target element type that elements are converted to.
+	 */
+	public TypeDescriptor getTargetElementType() {
+		return this.targetElementType;
+	}
+
+	/**
+	 * Convert the given source element to the target element type.
+	 * @param sourceElement the element of the source collection or array
+	 * @return the converted element
+	 */
+	@Nullable
+	public Object convert(@Nullable Object sourceElement) {
+		if (sourceElement == null || !this.resolveConverters) {
+			return this.conversionService.convert(sourceElement,
+					this.sourceType.elementTypeDescriptor(sourceElement), this.targetElementType);
+		}
+		GenericConversionService genericConversionService = (GenericConversionService) this.conversionService;
+		ResolvedElementType resolved = this.resolvedElementType;
+		if (resolved == null || resolved.elementClass != sourceElement.getClass()) {
+			TypeDescriptor sourceElementType = this.sourceType.elementTypeDescriptor(sourceElement);
+			resolved = new ResolvedElementType(sourceElement.getClass(), sourceElementType,
+					genericConversionService.getConverter(sourceElementType, this.targetElementType));
+			this.resolvedElementType = resolved;
+		}
+		return genericConversionService.convert(
+				sourceElement, resolved.sourceElementType, this.targetElementType, resolved.converter);
+	}
+
+
+	/**
+	 * Source element descriptor and converter resolved for a given element class.
+	 */
+	private static final class ResolvedElementType {
+
+		final Class<?> elementClass;
+
+		final TypeDescriptor sourceElementType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		ResolvedElementType(Class<?> elementClass, TypeDescriptor sourceElementType,
+				@Nullable GenericConverter converter) {
+
+			this.elementClass = elementClass;
+			this.sourceElementType = sourceElementType;
+			this.converter = converter;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -78,6 +79,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConverterCacheKey, ElementConverter> elementConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private final boolean convertOverridden = isConvertOverridden(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -186,12 +192,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 			throw new IllegalArgumentException("Source to convert from must be an instance of [" +
 					sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
 		}
-		GenericConverter converter = getConverter(sourceType, targetType);
-		if (converter != null) {
-			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
-			return handleResult(sourceType, targetType, result);
-		}
-		return handleConverterNotFound(source, sourceType, targetType);
+		return convert(source, sourceType, targetType, getConverter(sourceType, targetType));
 	}
 
 	/**
@@ -212,6 +213,56 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Convert the given source object with the given, previously resolved converter.
+	 * @param source the source object to convert (may be {@code null})
+	 * @param sourceType the source type
+	 * @param targetType the target type
+	 * @param converter the converter obtained from {@link #getConverter}
+	 * for the given types, or {@code null} if none was found
+	 * @return the converted object
+	 * @since 5.2
+	 */
+	@Nullable
+	Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType,
+			@Nullable GenericConverter converter) {
+
+		if (converter != null) {
+			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
+			return handleResult(sourceType, targetType, result);
+		}
+		return handleConverterNotFound(source, sourceType, targetType);
+	}
+
+	/**
+	 * Return the {@link ElementConverter} for converting the elements of a
+	 * collection or array of the given source type to the given target element
+	 * type, caching it so that element converters are resolved once per pair.
+	 * @param sourceType the type of the source collection or array
+	 * @param targetElementType the element type of the target collection or array
+	 * @return the element converter (never {@code null})
+	 * @since 5.2
+	 */
+	ElementConverter getElementConverter(TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetElementType);
+		ElementConverter elementConverter = this.elementConverterCache.get(key);
+		if (elementConverter == null) {
+			elementConverter = new ElementConverter(this, sourceType, targetElementType);
+			this.elementConverterCache.put(key, elementConverter);
+		}
+		return elementConverter;
+	}
+
+	/**
+	 * Return whether this service's class overrides
+	 * {@link #convert(Object, TypeDescriptor, TypeDescriptor)}, in which case
+	 * element conversion has to go through that method for every element.
+	 * @since 5.2
+	 */
+	boolean isConvertOverridden() {
+		return this.convertOverridden;
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -304,6 +355,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.elementConverterCache.clear();
 	}
 
 	@Nullable
@@ -336,6 +388,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 	}
 
+	private static boolean isConvertOverridden(Class<?> clazz) {
+		try {
+			Method convert = clazz.getMethod("convert", Object.class, TypeDescriptor.class, TypeDescriptor.class);
+			return (convert.getDeclaringClass() != GenericConversionService.class);
+		}
+		catch (NoSuchMethodException | SecurityException ex) {
+			return true;
+		}
+	}
+
 
 	/**
 	 * Adapts a {@link Converter} to a {@link GenericConverter}.
@@ -0,0 +1,651 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents the readable bytes of several buffers as one
+ * buffer without copying them, as returned from
+ * {@link DefaultDataBufferFactory#compose(List)}.
+ *
+ * <p>Reads, index scans, slices and {@linkplain #toString(Charset) decoding}
+ * operate on the component buffers directly. {@link #asByteBuffer(int, int)}
+ * shares memory with this buffer if the requested range lies within a single
+ * component, but has to return a copy otherwise. Writing beyond the capacity
+ * appends a component allocated from the {@linkplain #factory() factory}.
+ *
+ * <p>A composite owns its components: once the reference count drops to zero,
+ * each component is {@linkplain DataBufferUtils#release(DataBuffer) released}.
+ * Slices share the reference count of the composite they were created from.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DataBufferUtils#join(org.reactivestreams.Publisher)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_COMPONENT_CAPACITY = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<Component> components;
+
+	@Nullable
+	private final CompositeDataBuffer parent;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	private int lastComponent;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} for the readable bytes of the given
+	 * buffers, taking over the responsibility for releasing them.
+	 * @param dataBufferFactory the factory to allocate additional capacity with
+	 * @param dataBuffers the buffers to compose
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(dataBuffers, "DataBuffer List must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = new ArrayList<>(dataBuffers.size());
+		this.parent = null;
+		for (DataBuffer dataBuffer : dataBuffers) {
+			int length = dataBuffer.readableByteCount();
+			if (length > 0) {
+				addComponent(dataBuffer, dataBuffer.readPosition(), length);
+			}
+			else {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(CompositeDataBuffer parent, List<Component> components, int length) {
+		this.dataBufferFactory = parent.dataBufferFactory;
+		this.components = components;
+		this.parent = parent;
+		this.capacity = length;
+		this.writePosition = length;
+	}
+
+
+	private void addComponent(DataBuffer dataBuffer, int index, int length) {
+		this.components.add(new Component(dataBuffer, index, this.capacity, length));
+		this.capacity += length;
+	}
+
+	/**
+	 * Return the index of the component that contains the given index,
+	 * which must be within the capacity of this buffer.
+	 */
+	private int componentIndex(int index) {
+		Component last = this.components.get(this.lastComponent);
+		if (last.contains(index)) {
+			return this.lastComponent;
+		}
+		int low = 0;
+		int high = this.components.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Component component = this.components.get(mid);
+			if (index < component.offset) {
+				high = mid - 1;
+			}
+			else if (index >= component.offset + component.length) {
+				low = mid + 1;
+			}
+			else {
+				this.lastComponent = mid;
+				return mid;
+			}
+		}
+		throw new IndexOutOfBoundsException(String.format("index %d must be < %d", index, this.capacity));
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		if (fromIndex >= this.writePosition || this.components.isEmpty()) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			if (component.offset >= this.writePosition) {
+				break;
+			}
+			int start = Math.max(fromIndex, component.offset);
+			int index = component.buffer.indexOf(predicate, component.toComponentIndex(start));
+			if (index >= 0) {
+				int result = component.offset + index - component.index;
+				return (result < this.writePosition ? result : -1);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int end = Math.min(fromIndex, this.writePosition - 1);
+		if (end < 0) {
+			return -1;
+		}
+		for (int i = componentIndex(end); i >= 0; i--) {
+			Component component = this.components.get(i);
+			int start = Math.min(end, component.offset + component.length - 1);
+			int index = component.buffer.lastIndexOf(predicate, component.toComponentIndex(start));
+			if (index >= component.index) {
+				return component.offset + index - component.index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		if (newCapacity <= 0) {
+			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		}
+		if (this.parent != null) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+		if (newCapacity > this.capacity) {
+			int length = newCapacity - this.capacity;
+			DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(length);
+			dataBuffer.writePosition(length);
+			addComponent(dataBuffer, 0, length);
+		}
+		else if (newCapacity < this.capacity) {
+			for (int i = this.components.size() - 1; i >= 0; i--) {
+				Component component = this.components.get(i);
+				if (component.offset >= newCapacity) {
+					this.components.remove(i);
+					DataBufferUtils.release(component.buffer);
+				}
+				else {
+					component.length = newCapacity - component.offset;
+					component.buffer.writePosition(component.index + component.length);
+					break;
+				}
+			}
+			this.capacity = newCapacity;
+			this.lastComponent = 0;
+			if (this.readPosition < newCapacity) {
+				this.writePosition = Math.min(this.writePosition, newCapacity);
+			}
+			else {
+				this.readPosition = newCapacity;
+				this.writePosition = newCapacity;
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			capacity(this.writePosition + Math.max(length, MIN_COMPONENT_CAPACITY));
+		}
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		Component component = this.components.get(componentIndex(index));
+		return component.buffer.getByte(component.toComponentIndex(index));
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		int pos = this.readPosition;
+		Component component = this.components.get(componentIndex(pos));
+		byte b = component.buffer.getByte(component.toComponentIndex(pos));
+		this.readPosition = pos + 1;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		read(destination, 0, destination.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		getBytes(this.readPosition, destination, offset, length);
+		this.readPosition += length;
+		return this;
+	}
+
+	private void getBytes(int index, byte[] destination, int offset, int length) {
+		if (length == 0) {
+			return;
+		}
+		int i = componentIndex(index);
+		while (length > 0) {
+			Component component = this.components.get(i++);
+			int count = Math.min(length, component.offset + component.length - index);
+			component.buffer.asByteBuffer(component.toComponentIndex(index), count).get(destination, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		int pos = this.writePosition;
+		Component component = this.components.get(componentIndex(pos));
+		component.buffer.writePosition(component.toComponentIndex(pos));
+		component.buffer.write(b);
+		component.buffer.writePosition(component.index + component.length);
+		this.writePosition = pos + 1;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		write(source, 0, source.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		ensureCapacity(length);
+		setBytes(this.writePosition, ByteBuffer.wrap(source, offset, length));
+		this.writePosition += length;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			write(Arrays.stream(buffers).map(DataBuffer::asByteBuffer).toArray(ByteBuffer[]::new));
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int capacity = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			ensureCapacity(capacity);
+			for (ByteBuffer buffer : buffers) {
+				int length = buffer.remaining();
+				setBytes(this.writePosition, buffer);
+				this.writePosition += length;
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(CharSequence charSequence, Charset charset) {
+		Assert.notNull(charSequence, "CharSequence must not be null");
+		Assert.notNull(charset, "Charset must not be null");
+		if (charSequence.length() != 0) {
+			write(charset.encode(CharBuffer.wrap(charSequence)));
+		}
+		return this;
+	}
+
+	/**
+	 * Copy the remaining bytes of the given source into the components,
+	 * starting at the given index.
+	 */
+	private void setBytes(int index, ByteBuffer source) {
+		if (!source.hasRemaining()) {
+			return;
+		}
+		int i = componentIndex(index);
+		while (source.hasRemaining()) {
+			Component component = this.components.get(i++);
+			int count = Math.min(source.remaining(), component.offset + component.length - index);
+			ByteBuffer chunk = source.duplicate();
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			((Buffer) chunk).limit(chunk.position() + count);
+			component.buffer.writePosition(component.toComponentIndex(index));
+			component.buffer.write(chunk);
+			component.buffer.writePosition(component.index + component.length);
+			((Buffer) source).position(source.position() + count);
+			index += count;
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		List<Component> slices = new ArrayList<>();
+		int offset = 0;
+		if (length > 0) {
+			int i = componentIndex(index);
+			while (offset < length) {
+				Component component = this.components.get(i++);
+				int count = Math.min(length - offset, component.offset + component.length - index);
+				DataBuffer slice = component.buffer.slice(component.toComponentIndex(index), count);
+				slices.add(new Component(slice, slice.readPosition(), offset, count));
+				index += count;
+				offset += count;
+			}
+		}
+		return new CompositeDataBuffer((this.parent != null ? this.parent : this), slices, length);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Note that the data is only shared if the given range lies within a
+	 * single component; otherwise the returned {@code ByteBuffer} is a copy.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		if (length > 0) {
+			Component component = this.components.get(componentIndex(index));
+			if (index + length <= component.offset + component.length) {
+				return component.buffer.asByteBuffer(component.toComponentIndex(index), length);
+			}
+		}
+		ByteBuffer copy = ByteBuffer.allocate(length);
+		getBytes(index, copy.array(), 0, length);
+		return copy;
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		checkIndex(index, length);
+		if (length > 0) {
+			Component component = this.components.get(componentIndex(index));
+			if (index + length <= component.offset + component.length) {
+				return component.buffer.toString(component.toComponentIndex(index), length, charset);
+			}
+		}
+		byte[] bytes = new byte[length];
+		getBytes(index, bytes, 0, length);
+		return new String(bytes, charset);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		return (this.parent != null ? this.parent.isAllocated() : this.refCount.get() > 0);
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		if (this.parent != null) {
+			this.parent.retain();
+			return this;
+		}
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count + 1)) {
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		if (this.parent != null) {
+			return this.parent.release();
+		}
+		while (true) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released");
+			}
+			if (this.refCount.compareAndSet(count, count - 1)) {
+				if (count == 1) {
+					for (Component component : this.components) {
+						DataBufferUtils.release(component.buffer);
+					}
+					return true;
+				}
+				return false;
+			}
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.components.size());
+	}
+
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	/**
+	 * A component buffer whose bytes, starting at {@code index}, make up the
+	 * range of the composite from {@code offset} with the given {@code length}.
+	 * The write position of the component is kept at the end of that range.
+	 */
+	private static final class Component {
+
+		final DataBuffer buffer;
+
+		final int index;
+
+		final int offset;
+
+		int length;
+
+		Component(DataBuffer buffer, int index, int offset, int length) {
+			this.buffer = buffer;
+			this.index = index;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		boolean contains(int compositeIndex) {
+			return (compositeIndex >= this.offset && compositeIndex < this.offset + this.length);
+		}
+
+		int toComponentIndex(int compositeIndex) {
+			return this.index + compositeIndex - this.offset;
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				if (this.releaseOnClose) {
+					DataBufferUtils.release(CompositeDataBuffer.this);
+				}
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -338,4 +338,36 @@ public interface DataBuffer {
 	 */
 	OutputStream asOutputStream();
 
+	/**
+	 * Return this buffer's readable data as a String using the specified charset.
+	 * The read position is not changed.
+	 * @param charset the character set to use
+	 * @return a string representation of the readable bytes of this buffer
+	 * @since 5.2
+	 */
+	default String toString(Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		return toString(readPosition(), readableByteCount(), charset);
+	}
+
+	/**
+	 * Return a part of this buffer's data as a String using the specified charset.
+	 * Neither read nor write position are changed.
+	 * @param index the index at which to start the string
+	 * @param length the number of bytes to use for the string
+	 * @param charset the charset to use
+	 * @return a string representation of a part of this buffer
+	 * @since 5.2
+	 */
+	default String toString(int index, int length, Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		ByteBuffer byteBuffer = asByteBuffer(index, length);
+		if (byteBuffer.hasArray()) {
+			return new String(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), length, charset);
+		}
+		byte[] bytes = new byte[length];
+		byteBuffer.get(bytes);
+		return new String(bytes, charset);
+	}
+
 }
@@ -28,6 +28,7 @@ import java.nio.channels.CompletionHandler;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -442,11 +443,32 @@ public abstract class DataBufferUtils {
 		return Flux.from(dataBuffers)
 				.collectList()
 				.filter(list -> !list.isEmpty())
-				.map(list -> list.get(0).factory().join(list))
+				.map(DataBufferUtils::compose)
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 
 	}
 
+	/**
+	 * Return a single {@code DataBuffer} for the given {@code dataBuffers}
+	 * elements, obtained from the factory of the first buffer: a
+	 * {@link DefaultDataBufferFactory} {@linkplain DefaultDataBufferFactory#compose(List)
+	 * composes} them, typically without copying, while any other factory
+	 * {@linkplain DataBufferFactory#join(List) joins} them.
+	 * <p>Note that the given data buffers do <strong>not</strong> have to be
+	 * released. They will be released as part of the returned buffer.
+	 * @param dataBuffers the data buffers to compose
+	 * @return a buffer that is composed from the {@code dataBuffers} argument
+	 * @since 5.2
+	 */
+	public static DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		DataBufferFactory bufferFactory = dataBuffers.get(0).factory();
+		if (bufferFactory instanceof DefaultDataBufferFactory) {
+			return ((DefaultDataBufferFactory) bufferFactory).compose(dataBuffers);
+		}
+		return bufferFactory.join(dataBuffers);
+	}
+
 
 	private static class ReadableByteChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
 
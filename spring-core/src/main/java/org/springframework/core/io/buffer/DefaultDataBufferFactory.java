@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -104,6 +104,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 	 * {@inheritDoc}
 	 * <p>This implementation creates a single {@link DefaultDataBuffer}
 	 * to contain the data in {@code dataBuffers}.
+	 * @see #compose(List)
 	 */
 	@Override
 	public DefaultDataBuffer join(List<? extends DataBuffer> dataBuffers) {
@@ -115,6 +116,28 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 		return result;
 	}
 
+	/**
+	 * Return a buffer that presents the data in {@code dataBuffers} without
+	 * copying it, as opposed to {@link #join(List)}: a {@link CompositeDataBuffer}
+	 * for several buffers, or the given buffer if there is just one.
+	 * <p>The given data buffers do <strong>not</strong> have to be released,
+	 * since they are released along with the returned buffer.
+	 * <p>This method is used by {@link DataBufferUtils#compose(List)} for
+	 * buffers from this factory. Subclasses may override it, for example to
+	 * delegate to {@link #join(List)} if they rely on a single copied buffer.
+	 * @param dataBuffers the data buffers to compose
+	 * @return a buffer composed from the {@code dataBuffers} argument
+	 * @since 5.2
+	 * @see DataBufferUtils#compose(List)
+	 */
+	public DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new CompositeDataBuffer(this, dataBuffers);
+	}
+
 
 	@Override
 	public String toString() {
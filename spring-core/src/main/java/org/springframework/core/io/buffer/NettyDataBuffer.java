@@ -286,6 +286,18 @@ public class NettyDataBuffer implements PooledDataBuffer {
 		return new ByteBufOutputStream(this.byteBuf);
 	}
 
+	@Override
+	public String toString(Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		return this.byteBuf.toString(charset);
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		return this.byteBuf.toString(index, length, charset);
+	}
+
 	@Override
 	public boolean isAllocated() {
 		return this.byteBuf.refCnt() > 0;
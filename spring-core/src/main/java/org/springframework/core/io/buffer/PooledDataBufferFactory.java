@@ -0,0 +1,530 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that recycles the memory of
+ * released buffers, for runtimes that do not have Netty's pooled allocator
+ * available (i.e. Servlet containers and Undertow).
+ *
+ * <p>Allocated buffers implement {@link PooledDataBuffer}. Once their reference
+ * count drops to zero, the underlying {@code ByteBuffer} is returned to an arena
+ * of buffers with the same power-of-two size class, fronted by a few small
+ * caches for the smaller size classes that threads are spread across. No memory
+ * is held in thread-local state, so pooled container threads do not retain
+ * buffers once an application has been undeployed. Requests beyond the maximum pooled
+ * capacity, as well as {@linkplain #wrap(ByteBuffer) wrapped} buffers, are not
+ * pooled. A buffer must not be used any more after it has been released, since
+ * its memory may already have been handed out again. When a buffer outgrows its
+ * memory, the previous memory is only recycled right away if no slices or
+ * {@code ByteBuffer} views of it have been created.
+ *
+ * <p>{@linkplain #setLeakDetection Leak detection} can be turned on to log the
+ * allocation site of buffers that are garbage-collected without having been
+ * released; this is meant for development and testing since it captures a
+ * stack trace for every allocation.
+ *
+ * <p>Use this factory for the server runtimes through
+ * {@code ServletHttpHandlerAdapter#setDataBufferFactory} (and thus for the
+ * Tomcat and Jetty adapters) or {@code UndertowHttpHandlerAdapter#setDataBufferFactory}.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 * @see #PooledDataBufferFactory(boolean, int, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/** The capacity of the smallest size class. */
+	private static final int MIN_POOLED_CAPACITY = 256;
+
+	/** The largest size class that is cached in front of the arenas. */
+	private static final int MAX_CACHED_CAPACITY = 8 * 1024;
+
+	/** The number of buffers per size class in each cache. */
+	private static final int CACHE_SIZE = 4;
+
+	/** The maximum number of caches in front of the arenas. */
+	private static final int MAX_CACHES = 64;
+
+	/**
+	 * The memory retained by the arena of each size class, which is also
+	 * the largest capacity that can be pooled.
+	 */
+	private static final int ARENA_CAPACITY = 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final Arena[] arenas;
+
+	private final int cachedSizeClasses;
+
+	private final Cache[] caches;
+
+	private volatile boolean leakDetection;
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<PooledDataBuffer> leakQueue = new ReferenceQueue<>();
+
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be created by {@link #allocateBuffer()} and
+	 * {@link #allocateBuffer(int)}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be created by {@link #allocateBuffer()} and
+	 * {@link #allocateBuffer(int)}, and what the capacity is to be used for
+	 * {@link #allocateBuffer()}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity) {
+		this(preferDirect, defaultInitialCapacity, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be created, what the capacity is to be used for
+	 * {@link #allocateBuffer()}, and up to which capacity buffers are pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the largest capacity to pool, rounded up to the
+	 * next power of two and at most 1 MB; larger buffers are allocated and
+	 * discarded as usual
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity, int maxPooledCapacity) {
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				"'maxPooledCapacity' should be at least " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= ARENA_CAPACITY, "'maxPooledCapacity' should be at most 1 MB");
+		this.preferDirect = preferDirect;
+		this.arenas = new Arena[sizeClass(maxPooledCapacity) + 1];
+		for (int i = 0; i < this.arenas.length; i++) {
+			this.arenas[i] = new Arena(MIN_POOLED_CAPACITY << i);
+		}
+		this.maxPooledCapacity = this.arenas[this.arenas.length - 1].chunkCapacity;
+		this.cachedSizeClasses = Math.min(sizeClass(MAX_CACHED_CAPACITY) + 1, this.arenas.length);
+		int cacheCount = Math.min(MAX_CACHES, 2 * Runtime.getRuntime().availableProcessors());
+		this.caches = new Cache[Integer.highestOneBit(cacheCount - 1) << 1];
+		for (int i = 0; i < this.caches.length; i++) {
+			this.caches[i] = new Cache(this.cachedSizeClasses);
+		}
+	}
+
+
+	/**
+	 * Whether to track allocated buffers, logging a warning with the allocation
+	 * site for each buffer that is garbage-collected without having been released.
+	 * <p>By default this is set to {@code false}. Only buffers allocated while
+	 * enabled are tracked.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		return new PooledDefaultDataBuffer(this, acquire(initialCapacity), initialCapacity);
+	}
+
+
+	/**
+	 * Obtain a native buffer with at least the given capacity.
+	 */
+	ByteBuffer acquire(int capacity) {
+		if (capacity <= 0 || capacity > this.maxPooledCapacity) {
+			return allocate(capacity);
+		}
+		int sizeClass = sizeClass(capacity);
+		ByteBuffer chunk = null;
+		if (sizeClass < this.cachedSizeClasses) {
+			chunk = getCache().poll(sizeClass);
+		}
+		if (chunk == null) {
+			Arena arena = this.arenas[sizeClass];
+			chunk = arena.chunks.poll();
+			if (chunk == null) {
+				chunk = allocate(arena.chunkCapacity);
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * Return a native buffer obtained from {@link #acquire} for reuse.
+	 */
+	void recycle(ByteBuffer chunk) {
+		int capacity = chunk.capacity();
+		if (capacity < MIN_POOLED_CAPACITY || capacity > this.maxPooledCapacity || Integer.bitCount(capacity) != 1) {
+			return;
+		}
+		int sizeClass = sizeClass(capacity);
+		if (sizeClass < this.cachedSizeClasses && getCache().offer(sizeClass, chunk)) {
+			return;
+		}
+		this.arenas[sizeClass].chunks.offer(chunk);
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Return the cache that the current thread uses, so that the same thread
+	 * keeps reusing the memory it recently released.
+	 */
+	private Cache getCache() {
+		return this.caches[(int) Thread.currentThread().getId() & (this.caches.length - 1)];
+	}
+
+	private static int sizeClass(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		return Integer.numberOfLeadingZeros(MIN_POOLED_CAPACITY - 1) - Integer.numberOfLeadingZeros(capacity - 1);
+	}
+
+	/**
+	 * Return a view on the first {@code capacity} bytes of the given native buffer.
+	 */
+	private static ByteBuffer view(ByteBuffer chunk, int capacity) {
+		ByteBuffer view = chunk.duplicate();
+		// Explicit access via Buffer base type for compatibility
+		// with covariant return type on JDK 9's ByteBuffer...
+		((Buffer) view).clear().limit(capacity);
+		return view.slice();
+	}
+
+
+	@Nullable
+	LeakTracker track(PooledDataBuffer dataBuffer) {
+		if (!this.leakDetection) {
+			return null;
+		}
+		detectLeaks();
+		LeakTracker tracker = new LeakTracker(dataBuffer, this.leakQueue);
+		this.leakTrackers.add(tracker);
+		return tracker;
+	}
+
+	void untrack(@Nullable LeakTracker tracker) {
+		if (tracker != null) {
+			this.leakTrackers.remove(tracker);
+			tracker.clear();
+		}
+	}
+
+	/**
+	 * Report tracked buffers that have been garbage-collected without having
+	 * been released. Invoked on allocation while leak detection is enabled.
+	 * @return the number of leaks reported
+	 */
+	int detectLeaks() {
+		int count = 0;
+		Reference<? extends PooledDataBuffer> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(reference)) {
+				count++;
+				if (logger.isWarnEnabled()) {
+					logger.warn("DataBuffer was garbage-collected without having been released " +
+							"(see DataBufferUtils#release); allocation site:", ((LeakTracker) reference).allocationSite);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return the number of tracked buffers that have not been released yet.
+	 */
+	int getTrackedBufferCount() {
+		return this.leakTrackers.size();
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * The shared pool of native buffers of one size class.
+	 */
+	private static final class Arena {
+
+		final int chunkCapacity;
+
+		final BlockingQueue<ByteBuffer> chunks;
+
+		Arena(int chunkCapacity) {
+			this.chunkCapacity = chunkCapacity;
+			this.chunks = new ArrayBlockingQueue<>(ARENA_CAPACITY / chunkCapacity);
+		}
+	}
+
+
+	/**
+	 * Native buffers of the smaller size classes, cached in front of the arenas
+	 * for a subset of threads.
+	 */
+	private static final class Cache {
+
+		private final ByteBuffer[][] chunks;
+
+		private final int[] counts;
+
+		Cache(int sizeClasses) {
+			this.chunks = new ByteBuffer[sizeClasses][CACHE_SIZE];
+			this.counts = new int[sizeClasses];
+		}
+
+		@Nullable
+		synchronized ByteBuffer poll(int sizeClass) {
+			int count = this.counts[sizeClass];
+			if (count == 0) {
+				return null;
+			}
+			count--;
+			ByteBuffer chunk = this.chunks[sizeClass][count];
+			this.chunks[sizeClass][count] = null;
+			this.counts[sizeClass] = count;
+			return chunk;
+		}
+
+		synchronized boolean offer(int sizeClass, ByteBuffer chunk) {
+			int count = this.counts[sizeClass];
+			if (count == CACHE_SIZE) {
+				return false;
+			}
+			this.chunks[sizeClass][count] = chunk;
+			this.counts[sizeClass] = count + 1;
+			return true;
+		}
+	}
+
+
+	/**
+	 * Records the allocation site of a buffer that has not been released yet.
+	 */
+	static final class LeakTracker extends WeakReference<PooledDataBuffer> {
+
+		final Throwable allocationSite;
+
+		LeakTracker(PooledDataBuffer dataBuffer, ReferenceQueue<PooledDataBuffer> queue) {
+			super(dataBuffer, queue);
+			this.allocationSite = new Throwable("DataBuffer allocated here");
+		}
+	}
+
+
+	/**
+	 * {@link DefaultDataBuffer} backed by a native buffer from the pool, returning
+	 * it once the reference count drops to zero.
+	 */
+	private static final class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		@Nullable
+		private final LeakTracker leakTracker;
+
+		private ByteBuffer chunk;
+
+		@Nullable
+		private ByteBuffer newChunk;
+
+		/**
+		 * Whether slices or {@code ByteBuffer} views of the current chunk may exist,
+		 * in which case it must not be recycled before the buffer is released.
+		 */
+		private boolean chunkShared;
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory factory, ByteBuffer chunk, int capacity) {
+			super(factory, view(chunk, capacity));
+			this.factory = factory;
+			this.chunk = chunk;
+			this.leakTracker = factory.track(this);
+		}
+
+		@Override
+		ByteBuffer allocateNativeBuffer(int capacity, boolean direct) {
+			if (capacity <= this.chunk.capacity()) {
+				return view(this.chunk, capacity);
+			}
+			this.newChunk = this.factory.acquire(capacity);
+			return view(this.newChunk, capacity);
+		}
+
+		@Override
+		void releaseNativeBuffer(ByteBuffer oldBuffer) {
+			if (this.newChunk != null) {
+				if (!this.chunkShared) {
+					this.factory.recycle(this.chunk);
+				}
+				this.chunk = this.newChunk;
+				this.newChunk = null;
+				this.chunkShared = false;
+			}
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			this.chunkShared = true;
+			return new PooledSlicedDataBuffer(slice, this, length);
+		}
+
+		@Override
+		public ByteBuffer getNativeBuffer() {
+			this.chunkShared = true;
+			return super.getNativeBuffer();
+		}
+
+		@Override
+		public ByteBuffer asByteBuffer(int index, int length) {
+			this.chunkShared = true;
+			return super.asByteBuffer(index, length);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			while (true) {
+				int count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+				if (this.refCount.compareAndSet(count, count + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			while (true) {
+				int count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+				if (this.refCount.compareAndSet(count, count - 1)) {
+					if (count == 1) {
+						this.factory.untrack(this.leakTracker);
+						this.factory.recycle(this.chunk);
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledDefaultDataBuffer}, sharing its reference count.
+	 */
+	private static final class PooledSlicedDataBuffer extends DefaultDataBuffer.SlicedDefaultDataBuffer
+			implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlicedDataBuffer(ByteBuffer slice, PooledDefaultDataBuffer parent, int length) {
+			super(slice, parent.factory, length);
+			this.parent = parent;
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			return new PooledSlicedDataBuffer(slice, this.parent, length);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+}
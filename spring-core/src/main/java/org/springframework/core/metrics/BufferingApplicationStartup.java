@@ -0,0 +1,256 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * in memory once they have ended, along with their start time and duration.
+ *
+ * <p>Steps are recorded in the order in which they end, up to the given capacity:
+ * further steps are dropped once the buffer is full. Steps are nested per thread,
+ * so concurrently created beans are recorded with their actual parent step.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final AtomicLong idSeq = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentStep =
+			new NamedThreadLocal<>("Current startup step");
+
+	private final Queue<BufferedStartupStep> recordedSteps = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger recordedCount = new AtomicInteger();
+
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup}.
+	 * @param capacity the maximum number of ended steps to record
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		BufferedStartupStep parent = this.currentStep.get();
+		BufferedStartupStep step = new BufferedStartupStep(this, name, this.idSeq.getAndIncrement(), parent);
+		this.currentStep.set(step);
+		return step;
+	}
+
+	/**
+	 * Return the steps recorded so far, in the order in which they ended.
+	 */
+	public List<BufferedStartupStep> getRecordedSteps() {
+		return new ArrayList<>(this.recordedSteps);
+	}
+
+	/**
+	 * Return whether the buffer reached its capacity, dropping further steps.
+	 */
+	public boolean isFull() {
+		return (this.recordedCount.get() >= this.capacity);
+	}
+
+	/**
+	 * Remove all recorded steps from the buffer.
+	 */
+	public void clear() {
+		this.recordedSteps.clear();
+		this.recordedCount.set(0);
+	}
+
+	private void record(BufferedStartupStep step) {
+		if (this.currentStep.get() == step) {
+			if (step.parent != null) {
+				this.currentStep.set(step.parent);
+			}
+			else {
+				this.currentStep.remove();
+			}
+		}
+		if (this.recordedCount.incrementAndGet() <= this.capacity) {
+			this.recordedSteps.add(step);
+		}
+		else {
+			this.recordedCount.decrementAndGet();
+		}
+	}
+
+
+	/**
+	 * {@link StartupStep} recorded by a {@link BufferingApplicationStartup}.
+	 */
+	public static final class BufferedStartupStep implements StartupStep {
+
+		private final BufferingApplicationStartup startup;
+
+		private final String name;
+
+		private final long id;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final BufferedTags tags = new BufferedTags();
+
+		private final Instant startTime;
+
+		private final long startNanos;
+
+		private volatile long durationNanos = -1;
+
+		BufferedStartupStep(BufferingApplicationStartup startup, String name, long id,
+				@Nullable BufferedStartupStep parent) {
+
+			this.startup = startup;
+			this.name = name;
+			this.id = id;
+			this.parent = parent;
+			this.startTime = Instant.now();
+			this.startNanos = System.nanoTime();
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(this.durationNanos < 0, "StartupStep has already ended");
+			this.tags.add(key, value);
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return this.tags;
+		}
+
+		/**
+		 * Return the time at which this step started.
+		 */
+		public Instant getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the duration of this step, or {@code null} if it has not ended yet.
+		 */
+		@Nullable
+		public Duration getDuration() {
+			long duration = this.durationNanos;
+			return (duration >= 0 ? Duration.ofNanos(duration) : null);
+		}
+
+		@Override
+		public void end() {
+			Assert.state(this.durationNanos < 0, "StartupStep has already ended");
+			this.durationNanos = System.nanoTime() - this.startNanos;
+			this.startup.record(this);
+		}
+
+		@Override
+		public String toString() {
+			return "StartupStep '" + this.name + "' [id=" + this.id + ", parentId=" + getParentId() +
+					", duration=" + getDuration() + "]";
+		}
+	}
+
+
+	private static class BufferedTags implements StartupStep.Tags {
+
+		private final List<StartupStep.Tag> tags = new ArrayList<>(4);
+
+		void add(String key, String value) {
+			this.tags.add(new BufferedTag(key, value));
+		}
+
+		@Override
+		public Iterator<StartupStep.Tag> iterator() {
+			return this.tags.iterator();
+		}
+	}
+
+
+	private static class BufferedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		BufferedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,16 +21,24 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>As of 5.2, class path resources of classes recorded in a build-time
+ * {@code META-INF/spring.metadata} index (as generated by the
+ * {@code spring-context-indexer}) are served from that index, without
+ * reading their class files. Set the "spring.index.ignore" property to
+ * {@code true} in order to always read class files instead.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,6 +52,11 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	@Nullable
+	private volatile MetadataIndex metadataIndex;
+
+	private volatile boolean metadataIndexLoaded;
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -120,24 +133,57 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = createMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
+			MetadataReader metadataReader;
 			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+				metadataReader = this.metadataReaderCache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Read the class file outside of the lock, allowing for concurrent scanning
+				MetadataReader newReader = createMetadataReader(resource);
+				synchronized (this.metadataReaderCache) {
+					metadataReader = this.metadataReaderCache.putIfAbsent(resource, newReader);
+				}
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+					metadataReader = newReader;
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return createMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader createMetadataReader(Resource resource) throws IOException {
+		if (resource instanceof ClassPathResource) {
+			String path = ((ClassPathResource) resource).getPath();
+			MetadataIndex metadataIndex = getMetadataIndex();
+			if (metadataIndex != null && path.endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+				String className = ClassUtils.convertResourcePathToClassName(
+						path.substring(0, path.length() - ClassUtils.CLASS_FILE_SUFFIX.length()));
+				MetadataReader metadataReader = IndexedMetadataReader.create(
+						metadataIndex, className, resource, getResourceLoader().getClassLoader());
+				if (metadataReader != null) {
+					return metadataReader;
+				}
+			}
+		}
+		return super.getMetadataReader(resource);
+	}
+
+	@Nullable
+	private MetadataIndex getMetadataIndex() {
+		if (!this.metadataIndexLoaded) {
+			this.metadataIndex = MetadataIndex.loadIndex(getResourceLoader().getClassLoader());
+			this.metadataIndexLoaded = true;
 		}
+		return this.metadataIndex;
 	}
 
 	/**
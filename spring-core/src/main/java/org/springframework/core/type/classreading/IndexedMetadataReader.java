@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link MetadataReader} implementation based on a build-time {@link MetadataIndex},
+ * never reading the class file itself.
+ *
+ * @author agent
+ * @since 5.2
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	private final Resource resource;
+
+	private final AnnotationMetadataReadingVisitor visitor;
+
+
+	private IndexedMetadataReader(Resource resource, AnnotationMetadataReadingVisitor visitor) {
+		this.resource = resource;
+		this.visitor = visitor;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.visitor;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.visitor;
+	}
+
+
+	/**
+	 * Create an {@code IndexedMetadataReader} for the given class, if indexed.
+	 * @param index the metadata index to use
+	 * @param className the fully qualified class name
+	 * @param resource the resource of the class file (not being read)
+	 * @param classLoader the ClassLoader to use for introspecting annotation types
+	 * @return the metadata reader, or {@code null} if the class is not indexed
+	 */
+	@Nullable
+	static IndexedMetadataReader create(MetadataIndex index, String className,
+			Resource resource, @Nullable ClassLoader classLoader) {
+
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		return (index.accept(className, visitor) ? new IndexedMetadataReader(resource, visitor) : null);
+	}
+
+}
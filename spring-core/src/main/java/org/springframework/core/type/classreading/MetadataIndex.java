@@ -0,0 +1,405 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Build-time class metadata index, as written to {@value #METADATA_RESOURCE_LOCATION}
+ * by the {@code spring-context-indexer} annotation processor.
+ *
+ * <p>Each entry maps a class name to the recorded ASM visitor events which are
+ * relevant for class and annotation metadata, so that they can be replayed into
+ * an {@link AnnotationMetadataReadingVisitor} without reading the class file.
+ * The events are encoded as space-separated tokens:
+ * <ul>
+ * <li>{@code C access name superName interfaceCount interfaces...}: the class itself</li>
+ * <li>{@code A desc visible ... )}: an annotation on the class, or on the preceding method</li>
+ * <li>{@code I name outerName innerName access}: an inner class entry</li>
+ * <li>{@code M access name desc}: an annotated method or constructor</li>
+ * </ul>
+ * Annotation bodies consist of {@code v name value}, {@code e name desc value},
+ * {@code a name desc ... )} (nested annotation) and {@code [ name ... )} (array)
+ * elements, with {@code -} representing a {@code null} name. Values are prefixed
+ * with their type: {@code Z}, {@code B}, {@code C}, {@code S}, {@code I}, {@code J},
+ * {@code F}, {@code D} for primitives, {@code s} for strings and {@code T} for type
+ * descriptors, with primitive arrays as {@code [I:1,2,3}. Spaces, percent signs
+ * and control characters in strings are percent-encoded.
+ *
+ * @author agent
+ * @since 5.2
+ * @see CachingMetadataReaderFactory
+ */
+final class MetadataIndex {
+
+	/**
+	 * The location to look for class metadata.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.metadata";
+
+	/**
+	 * System property that instructs Spring to ignore the index, shared
+	 * with the candidate components index of {@code spring-context}.
+	 */
+	static final String IGNORE_INDEX = "spring.index.ignore";
+
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
+
+	private static final Log logger = LogFactory.getLog(MetadataIndex.class);
+
+	private static final ConcurrentMap<ClassLoader, MetadataIndex> cache = new ConcurrentReferenceHashMap<>();
+
+	private static final MetadataIndex NONE = new MetadataIndex(new Properties());
+
+
+	private final Properties entries;
+
+
+	private MetadataIndex(Properties entries) {
+		this.entries = entries;
+	}
+
+
+	/**
+	 * Determine whether this index holds metadata for the given class.
+	 * @param className the fully qualified class name
+	 */
+	public boolean contains(String className) {
+		return this.entries.containsKey(className);
+	}
+
+	/**
+	 * Replay the recorded metadata for the given class into the given visitor.
+	 * @param className the fully qualified class name
+	 * @param visitor the visitor to notify
+	 * @return {@code true} if the class has been found in the index,
+	 * {@code false} if the class file needs to be read instead
+	 * @throws IllegalStateException if the recorded metadata is malformed
+	 */
+	public boolean accept(String className, ClassVisitor visitor) {
+		String encoded = this.entries.getProperty(className);
+		if (encoded == null) {
+			return false;
+		}
+		try {
+			new EventReader(encoded.split(" ")).accept(visitor);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalStateException("Invalid metadata index entry for class [" + className + "]", ex);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Load the {@link MetadataIndex} from {@value #METADATA_RESOURCE_LOCATION},
+	 * using the given class loader.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the index to use, or {@code null} if no index was found
+	 * @throws IllegalStateException if an index cannot be loaded
+	 */
+	@Nullable
+	public static MetadataIndex loadIndex(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = MetadataIndex.class.getClassLoader();
+		}
+		MetadataIndex index = cache.computeIfAbsent(classLoaderToUse, MetadataIndex::doLoadIndex);
+		return (index != NONE ? index : null);
+	}
+
+	private static MetadataIndex doLoadIndex(ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return NONE;
+		}
+
+		try {
+			Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NONE;
+			}
+			Properties entries = new Properties();
+			int count = 0;
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+				// First entry wins, in line with class loading
+				properties.forEach(entries::putIfAbsent);
+				count++;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " metadata index(es) with " + entries.size() + " entries");
+			}
+			return (!entries.isEmpty() ? new MetadataIndex(entries) : NONE);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load indexes from location [" +
+					METADATA_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+
+	/**
+	 * Reads the encoded events of a single index entry.
+	 */
+	private static class EventReader {
+
+		private static final AnnotationVisitor NO_OP_VISITOR = new AnnotationVisitor(SpringAsmInfo.ASM_VERSION) {
+		};
+
+		private final String[] tokens;
+
+		private int position;
+
+		EventReader(String[] tokens) {
+			this.tokens = tokens;
+		}
+
+		public void accept(ClassVisitor visitor) {
+			expect("C");
+			int access = nextInt();
+			String name = next();
+			String superName = nextName();
+			String[] interfaces = new String[nextInt()];
+			for (int i = 0; i < interfaces.length; i++) {
+				interfaces[i] = next();
+			}
+			visitor.visit(Opcodes.V1_8, access, name, null, superName, interfaces);
+
+			MethodVisitor methodVisitor = null;
+			while (this.position < this.tokens.length) {
+				String event = next();
+				if ("A".equals(event)) {
+					String desc = next();
+					boolean visible = "1".equals(next());
+					readAnnotation(methodVisitor != null ?
+							methodVisitor.visitAnnotation(desc, visible) : visitor.visitAnnotation(desc, visible));
+				}
+				else if ("I".equals(event)) {
+					visitor.visitInnerClass(next(), nextName(), nextName(), nextInt());
+				}
+				else if ("M".equals(event)) {
+					if (methodVisitor != null) {
+						methodVisitor.visitEnd();
+					}
+					methodVisitor = visitor.visitMethod(nextInt(), next(), next(), null, null);
+				}
+				else {
+					throw new IllegalArgumentException("Unexpected token '" + event + "'");
+				}
+			}
+			if (methodVisitor != null) {
+				methodVisitor.visitEnd();
+			}
+			visitor.visitEnd();
+		}
+
+		private void readAnnotation(@Nullable AnnotationVisitor annotationVisitor) {
+			AnnotationVisitor visitor = (annotationVisitor != null ? annotationVisitor : NO_OP_VISITOR);
+			while (true) {
+				String event = next();
+				if (")".equals(event)) {
+					visitor.visitEnd();
+					return;
+				}
+				else if ("v".equals(event)) {
+					visitor.visit(nextName(), decodeValue(next()));
+				}
+				else if ("e".equals(event)) {
+					visitor.visitEnum(nextName(), next(), next());
+				}
+				else if ("a".equals(event)) {
+					String name = nextName();
+					readAnnotation(visitor.visitAnnotation(name, next()));
+				}
+				else if ("[".equals(event)) {
+					readAnnotation(visitor.visitArray(nextName()));
+				}
+				else {
+					throw new IllegalArgumentException("Unexpected token '" + event + "'");
+				}
+			}
+		}
+
+		private void expect(String token) {
+			String actual = next();
+			if (!token.equals(actual)) {
+				throw new IllegalArgumentException("Expected '" + token + "' but got '" + actual + "'");
+			}
+		}
+
+		private String next() {
+			if (this.position >= this.tokens.length) {
+				throw new IllegalArgumentException("Unexpected end of entry");
+			}
+			return this.tokens[this.position++];
+		}
+
+		@Nullable
+		private String nextName() {
+			String name = next();
+			return ("-".equals(name) ? null : name);
+		}
+
+		private int nextInt() {
+			return Integer.parseInt(next());
+		}
+
+		private static Object decodeValue(String token) {
+			if (token.startsWith("[")) {
+				return decodePrimitiveArray(token.charAt(1), token.substring(3));
+			}
+			char type = token.charAt(0);
+			String value = token.substring(2);
+			switch (type) {
+				case 's':
+					return decodeString(value);
+				case 'T':
+					return Type.getType(value);
+				default:
+					return decodePrimitive(type, value);
+			}
+		}
+
+		private static Object decodePrimitive(char type, String value) {
+			switch (type) {
+				case 'Z':
+					return Boolean.valueOf(value);
+				case 'B':
+					return Byte.valueOf(value);
+				case 'C':
+					return (char) Integer.parseInt(value);
+				case 'S':
+					return Short.valueOf(value);
+				case 'I':
+					return Integer.valueOf(value);
+				case 'J':
+					return Long.valueOf(value);
+				case 'F':
+					return Float.valueOf(value);
+				case 'D':
+					return Double.valueOf(value);
+				default:
+					throw new IllegalArgumentException("Unknown value type '" + type + "'");
+			}
+		}
+
+		private static Object decodePrimitiveArray(char type, String values) {
+			String[] elements = (values.isEmpty() ? new String[0] : values.split(","));
+			switch (type) {
+				case 'Z': {
+					boolean[] array = new boolean[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Boolean.parseBoolean(elements[i]);
+					}
+					return array;
+				}
+				case 'B': {
+					byte[] array = new byte[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Byte.parseByte(elements[i]);
+					}
+					return array;
+				}
+				case 'C': {
+					char[] array = new char[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = (char) Integer.parseInt(elements[i]);
+					}
+					return array;
+				}
+				case 'S': {
+					short[] array = new short[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Short.parseShort(elements[i]);
+					}
+					return array;
+				}
+				case 'I': {
+					int[] array = new int[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Integer.parseInt(elements[i]);
+					}
+					return array;
+				}
+				case 'J': {
+					long[] array = new long[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Long.parseLong(elements[i]);
+					}
+					return array;
+				}
+				case 'F': {
+					float[] array = new float[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Float.parseFloat(elements[i]);
+					}
+					return array;
+				}
+				case 'D': {
+					double[] array = new double[elements.length];
+					for (int i = 0; i < elements.length; i++) {
+						array[i] = Double.parseDouble(elements[i]);
+					}
+					return array;
+				}
+				default:
+					throw new IllegalArgumentException("Unknown array type '" + type + "'");
+			}
+		}
+
+		private static String decodeString(String value) {
+			if (value.indexOf('%') == -1) {
+				return value;
+			}
+			StringBuilder result = new StringBuilder(value.length());
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '%') {
+					result.append((char) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+					i += 2;
+				}
+				else {
+					result.append(c);
+				}
+			}
+			return result.toString();
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit,
+ * with values created on demand by a given generator function.
+ *
+ * <p>This implementation is lock-free: entries are held in a
+ * {@link ConcurrentHashMap}, and a cache hit merely marks the entry as recently
+ * used. Once the cache limit has been exceeded, entries are evicted in insertion
+ * order, with recently used entries getting a second chance (a "clock" style
+ * approximation of LRU ordering which avoids any reordering on reads).
+ *
+ * <p>The generator function may get invoked concurrently for the same key;
+ * the first value stored wins. Neither keys nor generated values may be
+ * {@code null}.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<K> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			this.missCount.increment();
+			return this.generator.apply(key);
+		}
+
+		Entry<V> entry = this.cache.get(key);
+		if (entry != null) {
+			if (!entry.recentlyUsed) {
+				entry.recentlyUsed = true;
+			}
+			this.hitCount.increment();
+			return entry.value;
+		}
+
+		this.missCount.increment();
+		V value = this.generator.apply(key);
+		Assert.state(value != null, "Generator function must not return null");
+		Entry<V> existing = this.cache.putIfAbsent(key, new Entry<>(value));
+		if (existing != null) {
+			return existing.value;
+		}
+		this.evictionQueue.offer(key);
+		if (this.size.incrementAndGet() > this.sizeLimit) {
+			evict();
+		}
+		return value;
+	}
+
+	private void evict() {
+		while (this.size.get() > this.sizeLimit) {
+			K key = this.evictionQueue.poll();
+			if (key == null) {
+				return;
+			}
+			Entry<V> entry = this.cache.get(key);
+			if (entry == null) {
+				continue;
+			}
+			if (entry.recentlyUsed) {
+				entry.recentlyUsed = false;
+				this.evictionQueue.offer(key);
+			}
+			else if (this.cache.remove(key, entry)) {
+				this.size.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present, {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before, {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		if (this.cache.remove(key) != null) {
+			this.evictionQueue.remove(key);
+			this.size.decrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 * <p>The hit and miss statistics are retained.
+	 */
+	public void clear() {
+		this.cache.clear();
+		this.evictionQueue.clear();
+		this.size.set(0);
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the number of times a value was found in the cache.
+	 * @see #getMissCount()
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of times a value had to be generated,
+	 * including every retrieval when caching is disabled.
+	 * @see #getHitCount()
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [size=" + size() + ", sizeLimit=" + this.sizeLimit +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+	}
+
+
+	private static final class Entry<V> {
+
+		final V value;
+
+		volatile boolean recentlyUsed;
+
+		Entry(V value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.FixedValue;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.core.OverridingClassLoader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GeneratedClassCache}.
+ *
+ * @author agent
+ */
+public class GeneratedClassCacheTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.directory = this.temporaryFolder.newFolder();
+		GeneratedClassCache.setSharedInstance(new GeneratedClassCache(this.directory));
+	}
+
+	@After
+	public void reset() {
+		GeneratedClassCache.setSharedInstance(null);
+	}
+
+
+	@Test
+	public void cachedClassIsDefinedWithoutGeneration() throws Exception {
+		CountingGeneratorStrategy strategy = new CountingGeneratorStrategy();
+		Object first = createProxy(strategy, 0);
+		assertEquals(1, strategy.count);
+		assertEquals(1, this.directory.listFiles().length);
+
+		Object second = createProxy(strategy, 0);
+		assertEquals(1, strategy.count);
+		assertNotSame(first.getClass(), second.getClass());
+		assertEquals(first.getClass().getName(), second.getClass().getName());
+		assertEquals("sample", getName(second));
+	}
+
+	@Test
+	public void changedCallbackChoiceIsNotServedFromCache() throws Exception {
+		CountingGeneratorStrategy strategy = new CountingGeneratorStrategy();
+		assertEquals("sample", getName(createProxy(strategy, 0)));
+		assertEquals("fixed", getName(createProxy(strategy, 1)));
+		assertEquals(2, strategy.count);
+		assertEquals(2, this.directory.listFiles().length);
+	}
+
+	@Test
+	public void corruptEntryIsRegenerated() throws Exception {
+		CountingGeneratorStrategy strategy = new CountingGeneratorStrategy();
+		createProxy(strategy, 0);
+		File entry = this.directory.listFiles()[0];
+		Files.write(entry.toPath(), new byte[] {1, 2, 3});
+
+		assertEquals("sample", getName(createProxy(strategy, 0)));
+		assertEquals(2, strategy.count);
+		assertTrue(entry.length() > 3);
+	}
+
+	@Test
+	public void keyIdentifiesSpringVersion() {
+		StringBuilder key = new StringBuilder("test");
+		assertTrue(GeneratedClassCache.appendClassFileHashes(key, getClass()));
+		assertTrue(key.toString().contains(";spring="));
+		assertTrue(key.toString().contains(";" + getClass().getName() + "="));
+	}
+
+	@Test
+	public void noCacheWithoutSharedInstance() throws Exception {
+		GeneratedClassCache.setSharedInstance(null);
+		CountingGeneratorStrategy strategy = new CountingGeneratorStrategy();
+		createProxy(strategy, 0);
+		createProxy(strategy, 0);
+		assertEquals(2, strategy.count);
+		assertEquals(0, this.directory.listFiles().length);
+	}
+
+
+	private Object createProxy(CountingGeneratorStrategy strategy, int nameCallbackIndex) throws Exception {
+		// Fresh ClassLoader for every proxy, simulating a new JVM run
+		ClassLoader classLoader = new OverridingClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return SampleBean.class.getName().equals(className);
+			}
+		};
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(classLoader.loadClass(SampleBean.class.getName()));
+		enhancer.setStrategy(strategy);
+		enhancer.setCallbacks(new Callback[] {NoOp.INSTANCE, (FixedValue) () -> "fixed"});
+		enhancer.setCallbackFilter(method -> (method.getName().equals("getName") ? nameCallbackIndex : 0));
+		return enhancer.create();
+	}
+
+	private static Object getName(Object proxy) throws Exception {
+		Method method = proxy.getClass().getMethod("getName");
+		return method.invoke(proxy);
+	}
+
+
+	private static class CountingGeneratorStrategy extends DefaultGeneratorStrategy {
+
+		int count;
+
+		@Override
+		public byte[] generate(ClassGenerator cg) throws Exception {
+			this.count++;
+			return super.generate(cg);
+		}
+	}
+
+
+	public static class SampleBean {
+
+		public String getName() {
+			return "sample";
+		}
+	}
+
+}
@@ -169,6 +169,29 @@ public class AnnotatedElementUtilsTests {
 		assertTrue(hasAnnotation(ParametersAreNonnullByDefault.class, Nonnull.class));
 	}
 
+	@Test
+	public void indexedLookupsAfterNegativeLookupOnSameElement() throws Exception {
+		Class<?> clazz = ConcreteClassWithInheritedAnnotation.class;
+		Method method = clazz.getMethod("handleFromInterface");
+
+		// Negative lookups build the per-element index first...
+		assertNull(getMergedAnnotation(clazz, Component.class));
+		assertNull(findMergedAnnotation(clazz, Component.class));
+		assertFalse(hasAnnotation(method, Component.class));
+		assertFalse(isAnnotated(method, Component.class.getName()));
+
+		// ...which must not hide annotations only reachable with find semantics
+		assertFalse(isAnnotated(clazz, Transactional.class));
+		assertTrue(hasAnnotation(clazz, Transactional.class));
+		assertNotNull(findMergedAnnotation(clazz, Transactional.class));
+		assertNull(getMergedAnnotation(method, Order.class));
+		assertNotNull(findMergedAnnotation(method, Order.class));
+
+		AnnotationUtils.clearCache();
+		assertNotNull(getMergedAnnotationAttributes(ClassWithInheritedAnnotation.class, TX_NAME));
+		assertNotNull(findMergedAnnotation(method, Order.class));
+	}
+
 	@Test
 	public void getAllAnnotationAttributesOnNonAnnotatedClass() {
 		assertNull(getAllAnnotationAttributes(NonAnnotatedClass.class, TX_NAME));
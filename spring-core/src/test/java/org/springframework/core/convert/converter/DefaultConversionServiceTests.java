@@ -936,6 +936,53 @@ public class DefaultConversionServiceTests {
 		assertArrayEquals(new byte[]{2, 3, 4}, converted);
 	}
 
+	@Test
+	public void convertPrimitiveArrayToWrapperArrayWithCustomConverter() {
+		assertArrayEquals(new Integer[] {1, 2, 3}, conversionService.convert(new int[] {1, 2, 3}, Integer[].class));
+		conversionService.addConverter(Integer.class, Integer.class, source -> source * 10);
+		assertArrayEquals(new Integer[] {10, 20, 30}, conversionService.convert(new int[] {1, 2, 3}, Integer[].class));
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void convertWrapperArrayWithNullElementToPrimitiveArray() {
+		conversionService.convert(new Integer[] {1, null, 3}, int[].class);
+	}
+
+	@Test
+	public void convertCollectionWithMixedElementTypes() {
+		List<Object> list = Arrays.asList(1, "2", 3L, 4, "5");
+		TypeDescriptor targetType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5),
+				conversionService.convert(list, TypeDescriptor.forObject(list), targetType));
+		assertArrayEquals(new int[] {1, 2, 3, 4, 5}, conversionService.convert(list, int[].class));
+	}
+
+	@Test
+	public void convertCollectionElementsAfterConverterRegistration() {
+		List<String> list = Arrays.asList("a", "b");
+		assertArrayEquals(new String[] {"a", "b"}, conversionService.convert(list, String[].class));
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+		assertArrayEquals(new String[] {"A", "B"}, conversionService.convert(list, String[].class));
+	}
+
+	@Test
+	public void convertCollectionElementsWithOverriddenConvert() {
+		List<TypeDescriptor> elementTargetTypes = new ArrayList<>();
+		DefaultConversionService service = new DefaultConversionService() {
+			@Override
+			public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+				elementTargetTypes.add(targetType);
+				return super.convert(source, sourceType, targetType);
+			}
+		};
+		List<String> list = Arrays.asList("1", "2");
+		assertArrayEquals(new Integer[] {1, 2}, service.convert(list, Integer[].class));
+		// One call for the conversion as a whole plus one per element
+		assertEquals(3, elementTargetTypes.size());
+		assertEquals(TypeDescriptor.valueOf(Integer.class), elementTargetTypes.get(1));
+		assertEquals(TypeDescriptor.valueOf(Integer.class), elementTargetTypes.get(2));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void convertObjectToOptional() {
@@ -60,11 +60,17 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
-
+				{new DefaultDataBufferFactory(false)},
+				{leakDetecting(new PooledDataBufferFactory(true))},
+				{leakDetecting(new PooledDataBufferFactory(false))}
 		};
 	}
 
+	private static PooledDataBufferFactory leakDetecting(PooledDataBufferFactory bufferFactory) {
+		bufferFactory.setLeakDetection(true);
+		return bufferFactory;
+	}
+
 	@Rule
 	public final Verifier leakDetector = new LeakDetector();
 
@@ -141,6 +147,26 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				}
 			}
 		}
+		else if (this.bufferFactory instanceof PooledDataBufferFactory) {
+			PooledDataBufferFactory pooledFactory = (PooledDataBufferFactory) this.bufferFactory;
+			Instant start = Instant.now();
+			while (true) {
+				int total = pooledFactory.getTrackedBufferCount();
+				if (total == 0) {
+					return;
+				}
+				if (Instant.now().isBefore(start.plus(Duration.ofSeconds(5)))) {
+					try {
+						Thread.sleep(50);
+					}
+					catch (InterruptedException ex) {
+						// ignore
+					}
+					continue;
+				}
+				assertEquals("DataBuffer Leak: " + total + " unreleased allocations", 0, total);
+			}
+		}
 	}
 
 	private static long getAllocations(List<PoolArenaMetric> metrics) {
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ *
+ * @author agent
+ */
+public class CompositeDataBufferTests {
+
+	private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	@Test
+	public void composeWithoutCopying() {
+		DefaultDataBuffer foo = stringBuffer("foo");
+		DataBuffer composite = this.bufferFactory.compose(Arrays.asList(foo, stringBuffer("bar")));
+		assertTrue(composite instanceof CompositeDataBuffer);
+		assertEquals(6, composite.readableByteCount());
+
+		foo.getNativeBuffer().put(0, (byte) 'g');
+		assertEquals("goobar", composite.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void composeSingleBuffer() {
+		DataBuffer buffer = stringBuffer("foo");
+		assertSame(buffer, this.bufferFactory.compose(Arrays.asList(buffer)));
+	}
+
+	@Test
+	public void composeReadableBytesOnly() {
+		DataBuffer foo = stringBuffer("xfoo");
+		foo.read();
+		DataBuffer composite = this.bufferFactory.compose(Arrays.asList(foo, stringBuffer(""), stringBuffer("bar")));
+		assertEquals(6, composite.capacity());
+		assertEquals("foobar", composite.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void joinThroughDataBufferUtils() {
+		DataBuffer composite = DataBufferUtils.join(Flux.just(stringBuffer("foo"), stringBuffer("bar"))).block();
+		assertTrue(composite instanceof CompositeDataBuffer);
+		assertEquals("foobar", composite.toString(StandardCharsets.UTF_8));
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void joinThroughDataBufferUtilsWithFactorySubclass() {
+		DefaultDataBufferFactory customFactory = new DefaultDataBufferFactory() {};
+		DataBuffer foo = customFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = customFactory.wrap("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer joined = DataBufferUtils.join(Flux.just(foo, bar)).block();
+		assertTrue(joined instanceof CompositeDataBuffer);
+		assertEquals("foobar", joined.toString(StandardCharsets.UTF_8));
+		DataBufferUtils.release(joined);
+	}
+
+	@Test
+	public void joinThroughDataBufferUtilsWithCustomCompose() {
+		DefaultDataBufferFactory customFactory = new DefaultDataBufferFactory() {
+			@Override
+			public DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+				return join(dataBuffers);
+			}
+		};
+		DataBuffer foo = customFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = customFactory.wrap("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer joined = DataBufferUtils.join(Flux.just(foo, bar)).block();
+		assertFalse(joined instanceof CompositeDataBuffer);
+		assertEquals("foobar", joined.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void joinThroughFactoryCopies() {
+		DefaultDataBuffer foo = stringBuffer("foo");
+		DefaultDataBuffer joined = this.bufferFactory.join(Arrays.asList(foo, stringBuffer("bar")));
+
+		foo.getNativeBuffer().put(0, (byte) 'g');
+		assertEquals("foobar", joined.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void readAcrossComponents() {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		assertEquals('a', composite.read());
+		byte[] bytes = new byte[4];
+		composite.read(bytes);
+		assertArrayEquals("bcde".getBytes(StandardCharsets.UTF_8), bytes);
+		assertEquals('f', composite.getByte(5));
+		assertEquals(1, composite.readableByteCount());
+	}
+
+	@Test
+	public void indexOfAcrossComponents() {
+		DataBuffer composite = composite("ab", "c\n", "d\n");
+		assertEquals(3, composite.indexOf(b -> b == '\n', 0));
+		assertEquals(5, composite.indexOf(b -> b == '\n', 4));
+		assertEquals(-1, composite.indexOf(b -> b == 'x', 0));
+		assertEquals(5, composite.lastIndexOf(b -> b == '\n', 5));
+		assertEquals(3, composite.lastIndexOf(b -> b == '\n', 4));
+		assertEquals(0, composite.lastIndexOf(b -> b == 'a', 5));
+
+		composite.writePosition(5);
+		assertEquals(-1, composite.indexOf(b -> b == '\n', 4));
+		assertEquals(3, composite.lastIndexOf(b -> b == '\n', 5));
+	}
+
+	@Test
+	public void indexOfWithoutComponents() {
+		DataBuffer composite = composite("", "");
+		assertEquals(-1, composite.indexOf(b -> true, -1));
+		assertEquals(-1, composite.indexOf(b -> true, 0));
+		assertEquals(-1, composite.lastIndexOf(b -> true, 0));
+	}
+
+	@Test
+	public void sliceSharesMemory() {
+		DefaultDataBuffer bar = stringBuffer("bar");
+		DataBuffer composite = this.bufferFactory.compose(Arrays.asList(stringBuffer("foo"), bar));
+		DataBuffer slice = composite.slice(2, 3);
+		assertEquals("oba", slice.toString(StandardCharsets.UTF_8));
+
+		bar.getNativeBuffer().put(0, (byte) 'c');
+		assertEquals("oca", slice.toString(StandardCharsets.UTF_8));
+		assertEquals("ca", slice.slice(1, 2).toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void asByteBuffer() {
+		DataBuffer composite = composite("foo", "bar");
+		ByteBuffer within = composite.asByteBuffer(3, 2);
+		assertEquals('b', within.get(0));
+
+		ByteBuffer across = composite.asByteBuffer();
+		byte[] bytes = new byte[6];
+		across.get(bytes);
+		assertArrayEquals("foobar".getBytes(StandardCharsets.UTF_8), bytes);
+	}
+
+	@Test
+	public void asInputStream() throws Exception {
+		DataBuffer composite = composite("foo", "bar");
+		InputStream inputStream = composite.asInputStream();
+		assertEquals('f', inputStream.read());
+		byte[] bytes = new byte[10];
+		assertEquals(5, inputStream.read(bytes, 0, 10));
+		assertEquals("oobar", new String(bytes, 0, 5, StandardCharsets.UTF_8));
+		assertEquals(-1, inputStream.read());
+	}
+
+	@Test
+	public void writeAppendsComponent() {
+		DataBuffer composite = composite("foo", "bar");
+		composite.write("baz", StandardCharsets.UTF_8);
+		composite.write((byte) '!');
+		assertEquals("foobarbaz!", composite.toString(StandardCharsets.UTF_8));
+		assertTrue(composite.capacity() >= 10);
+	}
+
+	@Test
+	public void writeAcrossComponents() {
+		DataBuffer composite = composite("foo", "bar");
+		composite.writePosition(2);
+		composite.write("OBA".getBytes(StandardCharsets.UTF_8));
+		composite.writePosition(6);
+		assertEquals("foOBAr", composite.toString(StandardCharsets.UTF_8));
+		assertEquals('B', composite.getByte(3));
+	}
+
+	@Test
+	public void decreaseCapacity() {
+		DataBuffer composite = composite("foo", "bar");
+		composite.capacity(4);
+		assertEquals(4, composite.capacity());
+		assertEquals("foob", composite.toString(StandardCharsets.UTF_8));
+
+		composite.write((byte) '!');
+		assertEquals("foob!", composite.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sliceCapacity() {
+		composite("foo", "bar").slice(1, 4).capacity(10);
+	}
+
+	@Test
+	public void releaseReleasesComponents() {
+		PooledDataBufferFactory pooledFactory = new PooledDataBufferFactory();
+		PooledDataBuffer foo = (PooledDataBuffer) pooledFactory.allocateBuffer(3).write((byte) 'f');
+		PooledDataBuffer bar = (PooledDataBuffer) pooledFactory.allocateBuffer(3).write((byte) 'b');
+		CompositeDataBuffer composite = new CompositeDataBuffer(pooledFactory, Arrays.asList(foo, bar));
+
+		DataBuffer slice = composite.slice(0, 2);
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(composite));
+		assertTrue(foo.isAllocated());
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(composite.isAllocated());
+		assertFalse(foo.isAllocated());
+		assertFalse(bar.isAllocated());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void tooManyReleases() {
+		CompositeDataBuffer composite = (CompositeDataBuffer) composite("foo", "bar");
+		composite.release();
+		composite.release();
+	}
+
+
+	private DataBuffer composite(String... values) {
+		return this.bufferFactory.compose(Arrays.asList(Arrays.stream(values).map(this::stringBuffer).toArray(DataBuffer[]::new)));
+	}
+
+	private DefaultDataBuffer stringBuffer(String value) {
+		return this.bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -609,6 +609,28 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(composite);
 	}
 
+	@Test
+	public void joinToString() {
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(stringBuffer("a"),
+				stringBuffer("\u00e9"), stringBuffer("c")));
+		assertEquals("a\u00e9c", composite.toString(StandardCharsets.UTF_8));
+		assertEquals("\u00e9", composite.toString(1, 2, StandardCharsets.UTF_8));
+		assertEquals(0, composite.readPosition());
+
+		release(composite);
+	}
+
+	@Test
+	public void toStringWithCharset() {
+		DataBuffer buffer = stringBuffer("abc");
+		buffer.read();
+		assertEquals("bc", buffer.toString(StandardCharsets.UTF_8));
+		assertEquals("ab", buffer.toString(0, 2, StandardCharsets.UTF_8));
+		assertEquals(1, buffer.readPosition());
+
+		release(buffer);
+	}
+
 	@Test
 	public void getByte() {
 		DataBuffer buffer = stringBuffer("abc");
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ *
+ * @author agent
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory();
+
+
+	@Test
+	public void allocateBufferWithRequestedCapacity() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(300, buffer.capacity());
+		assertEquals(0, buffer.readableByteCount());
+		assertSame(this.bufferFactory, buffer.factory());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void releasedMemoryIsReused() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		byte[] array = nativeArray(buffer);
+		assertEquals(512, array.length);
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(400);
+		assertSame(array, nativeArray(other));
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void unreleasedMemoryIsNotReused() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		DataBuffer other = this.bufferFactory.allocateBuffer(300);
+		assertNotSame(nativeArray(buffer), nativeArray(other));
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void largeBufferIsNotPooled() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY + 1);
+		byte[] array = nativeArray(buffer);
+		assertEquals(PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY + 1, array.length);
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY + 1);
+		assertNotSame(array, nativeArray(other));
+		DataBufferUtils.release(other);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maxPooledCapacityBeyondArenaCapacity() {
+		new PooledDataBufferFactory(false, 1024, 2 * 1024 * 1024);
+	}
+
+	@Test
+	public void wrappedBufferIsNotPooled() {
+		DataBuffer buffer = this.bufferFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		assertFalse(buffer instanceof PooledDataBuffer);
+	}
+
+	@Test
+	public void growWithinPooledMemory() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		byte[] array = nativeArray(buffer);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		buffer.capacity(200);
+		assertEquals(200, buffer.capacity());
+		assertSame(array, nativeArray(buffer));
+		assertEquals("foo", string(buffer));
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void growBeyondPooledMemory() {
+		DataBuffer previous = this.bufferFactory.allocateBuffer(10);
+		byte[] array = nativeArray(previous);
+		DataBufferUtils.release(previous);
+
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		buffer.write(new byte[300]);
+		assertNotSame(array, nativeArray(buffer));
+		assertEquals("foo", string(buffer.slice(0, 3)));
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(10);
+		assertSame(array, nativeArray(other));
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void growBeyondPooledMemoryWithSlice() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(0, 3);
+		buffer.write(new byte[300]);
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(10);
+		other.write("XYZ".getBytes(StandardCharsets.UTF_8));
+		assertEquals("foo", string(slice));
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void growBeyondPooledMemoryWithByteBufferView() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		ByteBuffer view = buffer.asByteBuffer();
+		buffer.write(new byte[300]);
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(10);
+		other.write("XYZ".getBytes(StandardCharsets.UTF_8));
+		assertEquals("foo", StandardCharsets.UTF_8.decode(view).toString());
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(1, 2);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals("oo", string(slice));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(((PooledDataBuffer) slice.slice(0, 1)).isAllocated());
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void inputStreamReleasesOnClose() throws Exception {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		InputStream inputStream = buffer.asInputStream(true);
+		assertEquals('f', inputStream.read());
+		inputStream.close();
+		inputStream.close();
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void joinReleasesSources() {
+		DataBuffer foo = this.bufferFactory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertEquals("foobar", string(result));
+		assertFalse(((PooledDataBuffer) foo).isAllocated());
+		assertFalse(((PooledDataBuffer) bar).isAllocated());
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	public void composeReleasesSourcesWithResult() {
+		DataBuffer foo = this.bufferFactory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.bufferFactory.compose(Arrays.asList(foo, bar));
+		assertEquals("foobar", string(result));
+		assertTrue(((PooledDataBuffer) foo).isAllocated());
+		assertTrue(((PooledDataBuffer) bar).isAllocated());
+
+		DataBufferUtils.release(result);
+		assertFalse(((PooledDataBuffer) foo).isAllocated());
+		assertFalse(((PooledDataBuffer) bar).isAllocated());
+	}
+
+	@Test
+	public void directBuffers() {
+		PooledDataBufferFactory directFactory = new PooledDataBufferFactory(true);
+		DataBuffer buffer = directFactory.allocateBuffer(100);
+		ByteBuffer nativeBuffer = ((DefaultDataBuffer) buffer).getNativeBuffer();
+		assertTrue(nativeBuffer.isDirect());
+		buffer.write(new byte[1000]);
+		assertTrue(((DefaultDataBuffer) buffer).getNativeBuffer().isDirect());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void leakDetection() throws Exception {
+		this.bufferFactory.setLeakDetection(true);
+		DataBuffer released = this.bufferFactory.allocateBuffer(10);
+		allocateAndDiscard();
+		assertEquals(2, this.bufferFactory.getTrackedBufferCount());
+		DataBufferUtils.release(released);
+		assertEquals(1, this.bufferFactory.getTrackedBufferCount());
+
+		int leaks = 0;
+		for (int i = 0; i < 50 && leaks == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+			leaks = this.bufferFactory.detectLeaks();
+		}
+		assertEquals(1, leaks);
+		assertEquals(0, this.bufferFactory.getTrackedBufferCount());
+	}
+
+	private void allocateAndDiscard() {
+		this.bufferFactory.allocateBuffer(10);
+	}
+
+	private static String string(DataBuffer buffer) {
+		return StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString();
+	}
+
+	private static byte[] nativeArray(DataBuffer buffer) {
+		return ((DefaultDataBuffer) buffer).getNativeBuffer().array();
+	}
+
+}
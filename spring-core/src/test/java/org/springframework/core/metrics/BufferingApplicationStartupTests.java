@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import org.springframework.core.metrics.BufferingApplicationStartup.BufferedStartupStep;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BufferingApplicationStartup}.
+ *
+ * @author agent
+ */
+public class BufferingApplicationStartupTests {
+
+	@Test
+	public void recordNestedSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.test.outer");
+		StartupStep inner = startup.start("spring.test.inner").tag("beanName", "test");
+		inner.end();
+		StartupStep sibling = startup.start("spring.test.sibling");
+		sibling.end();
+		outer.end();
+
+		List<BufferedStartupStep> steps = startup.getRecordedSteps();
+		assertEquals(3, steps.size());
+		assertEquals("spring.test.inner", steps.get(0).getName());
+		assertEquals(Long.valueOf(outer.getId()), steps.get(0).getParentId());
+		assertEquals(Long.valueOf(outer.getId()), steps.get(1).getParentId());
+		assertEquals("spring.test.outer", steps.get(2).getName());
+		assertNull(steps.get(2).getParentId());
+		assertNotNull(steps.get(2).getDuration());
+		assertTrue(steps.get(2).getDuration().compareTo(steps.get(0).getDuration()) >= 0);
+
+		List<String> tags = new ArrayList<>();
+		steps.get(0).getTags().forEach(tag -> tags.add(tag.getKey() + "=" + tag.getValue()));
+		assertEquals("[beanName=test]", tags.toString());
+	}
+
+	@Test
+	public void nestStepsPerThread() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.test.outer");
+		CompletableFuture.runAsync(() -> startup.start("spring.test.concurrent").end()).join();
+		outer.end();
+
+		List<BufferedStartupStep> steps = startup.getRecordedSteps();
+		assertEquals("spring.test.concurrent", steps.get(0).getName());
+		assertNull(steps.get(0).getParentId());
+	}
+
+	@Test
+	public void dropStepsWhenFull() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		for (int i = 0; i < 3; i++) {
+			startup.start("spring.test.step" + i).end();
+		}
+		assertTrue(startup.isFull());
+		assertEquals(2, startup.getRecordedSteps().size());
+		assertEquals("spring.test.step1", startup.getRecordedSteps().get(1).getName());
+
+		startup.clear();
+		assertFalse(startup.isFull());
+		assertTrue(startup.getRecordedSteps().isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectTagsAfterEnd() {
+		StartupStep step = new BufferingApplicationStartup(2).start("spring.test.step");
+		step.end();
+		step.tag("key", "value");
+	}
+
+	@Test
+	public void defaultStartupDoesNotRecord() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("spring.test.step").tag("key", () -> {
+			throw new AssertionError("Should not compute tag value");
+		});
+		assertFalse(step.getTags().iterator().hasNext());
+		assertSame(step, ApplicationStartup.DEFAULT.start("spring.test.other"));
+		step.end();
+	}
+
+}
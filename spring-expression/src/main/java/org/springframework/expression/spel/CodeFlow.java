@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the active context objects for nested evaluation,
+	 * e.g. the current element during a selection or projection. The target
+	 * (variable 1) is the active context object if none has been pushed.
+	 */
+	private final Deque<Integer> activeContextObjects = new ArrayDeque<>();
 
 
 	/**
@@ -109,7 +117,37 @@ public class CodeFlow implements Opcodes {
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer activeContextObject = this.activeContextObjects.peek();
+		mv.visitVarInsn(ALOAD, (activeContextObject != null ? activeContextObject : 1));
+	}
+
+	/**
+	 * Make the object in the given local variable the active context object,
+	 * i.e. what {@link #loadTarget} loads, until the corresponding call to
+	 * {@link #popActiveContextObject()}.
+	 * @param variable the index of the local variable holding the object
+	 * @since 5.2
+	 * @see #nextFreeVariableId()
+	 */
+	public void pushActiveContextObject(int variable) {
+		this.activeContextObjects.push(variable);
+	}
+
+	/**
+	 * Make the target (i.e. the root object) the active context object again,
+	 * until the corresponding call to {@link #popActiveContextObject()}.
+	 * @since 5.2
+	 */
+	public void pushRootContextObject() {
+		this.activeContextObjects.push(1);
+	}
+
+	/**
+	 * Restore the active context object that preceded the most recent push.
+	 * @since 5.2
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjects.pop();
 	}
 
 	/**
@@ -199,6 +199,10 @@ public class Indexer extends SpelNodeImpl {
 		else if (this.indexedType == IndexedType.LIST) {
 			return this.children[0].isCompilable();
 		}
+		else if (this.indexedType == IndexedType.STRING) {
+			return (this.children[0].isCompilable() &&
+					CodeFlow.isPrimitiveOrUnboxableSupportedNumber(this.children[0].exitTypeDescriptor));
+		}
 		else if (this.indexedType == IndexedType.MAP) {
 			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
 		}
@@ -255,21 +259,23 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateCodeForIndex(mv, cf, true);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateCodeForIndex(mv, cf, true);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
+		else if (this.indexedType == IndexedType.STRING) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/String");
+			generateCodeForIndex(mv, cf, true);
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
+			mv.visitMethodInsn(INVOKESTATIC, "java/lang/String", "valueOf", "(C)Ljava/lang/String;", false);
+		}
+
 		else if (this.indexedType == IndexedType.MAP) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/Map");
 			// Special case when the key is an unquoted string literal that will be parsed as
@@ -280,9 +286,7 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
-				cf.enterCompilationScope();
-				this.children[0].generateCode(mv, cf);
-				cf.exitCompilationScope();
+				generateCodeForIndex(mv, cf, false);
 			}
 			mv.visitMethodInsn(
 					INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
@@ -318,6 +322,27 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	private void generateCodeForIndex(MethodVisitor mv, CodeFlow cf, boolean intIndex) {
+		// The index is evaluated against the root object, as in getValueRef
+		cf.enterCompilationScope();
+		cf.pushRootContextObject();
+		this.children[0].generateCode(mv, cf);
+		cf.popActiveContextObject();
+		String indexDesc = cf.lastDescriptor();
+		if (intIndex && !"I".equals(indexDesc)) {
+			if (CodeFlow.isPrimitive(indexDesc)) {
+				CodeFlow.insertAnyNecessaryTypeConversionBytecodes(mv, 'I', indexDesc);
+			}
+			else {
+				if (!CodeFlow.isPrimitiveOrUnboxableSupportedNumber(indexDesc)) {
+					mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+				}
+				mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", "intValue", "()I", false);
+			}
+		}
+		cf.exitCompilationScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
@@ -755,6 +780,7 @@ public class Indexer extends SpelNodeImpl {
 				throw new SpelEvaluationException(getStartPosition(), SpelMessage.STRING_INDEX_OUT_OF_BOUNDS,
 						this.target.length(), this.index);
 			}
+			exitTypeDescriptor = "Ljava/lang/String";
 			return new TypedValue(String.valueOf(this.target.charAt(this.index)));
 		}
 
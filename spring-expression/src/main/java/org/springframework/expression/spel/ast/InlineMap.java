@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -164,4 +166,96 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object, Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < this.children.length; c++) {
+			SpelNodeImpl child = this.children[c];
+			boolean isKeyName = (c % 2 == 0 && child instanceof PropertyOrFieldReference);
+			if (!isKeyName && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (isConstant()) {
+			final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+			final String className = codeflow.getClassName();
+
+			codeflow.registerNewField((cw, cflow) ->
+					cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+
+			codeflow.registerNewClinit((mVisitor, cflow) ->
+					generateClinitCode(className, constantFieldName, mVisitor, cflow, false));
+
+			mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		}
+		else {
+			// Build a new map for every evaluation, like getValueInternal does
+			boolean contextPushed = generateCodeForActiveContextObject(mv, codeflow);
+			mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+			for (int c = 0; c < this.children.length; c++) {
+				mv.visitInsn(DUP);
+				generateCodeForKey(mv, codeflow, this.children[c++]);
+				generateCodeForElement(mv, codeflow, this.children[c]);
+				mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+						"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+				mv.visitInsn(POP);
+			}
+			if (contextPushed) {
+				codeflow.popActiveContextObject();
+			}
+		}
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	void generateClinitCode(String clazzname, String constantFieldName, MethodVisitor mv, CodeFlow codeflow, boolean nested) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		for (int c = 0; c < this.children.length; c++) {
+			mv.visitInsn(DUP);
+			generateCodeForKey(mv, codeflow, this.children[c++]);
+			// Nested constant lists and maps are built directly here, without registering another clinit adder
+			SpelNodeImpl valueChild = this.children[c];
+			if (valueChild instanceof InlineList) {
+				((InlineList) valueChild).generateClinitCode(clazzname, constantFieldName, mv, codeflow, true);
+				mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableList",
+						"(Ljava/util/List;)Ljava/util/List;", false);
+			}
+			else if (valueChild instanceof InlineMap) {
+				((InlineMap) valueChild).generateClinitCode(clazzname, constantFieldName, mv, codeflow, true);
+			}
+			else {
+				generateCodeForElement(mv, codeflow, valueChild);
+			}
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		// Shared across evaluations: as unmodifiable as the interpreted constant
+		mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+				"(Ljava/util/Map;)Ljava/util/Map;", false);
+		if (!nested) {
+			mv.visitFieldInsn(PUTSTATIC, clazzname, constantFieldName, "Ljava/util/Map;");
+		}
+	}
+
+	private static void generateCodeForKey(MethodVisitor mv, CodeFlow codeflow, SpelNodeImpl keyChild) {
+		if (keyChild instanceof PropertyOrFieldReference) {
+			// An unquoted key is the name itself, as in getValueInternal
+			mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+		}
+		else {
+			generateCodeForElement(mv, codeflow, keyChild);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -279,4 +279,47 @@ public abstract class SpelNodeImpl implements SpelNode, Opcodes {
 		cf.exitCompilationScope();
 	}
 
+	/**
+	 * Generate code that turns the value on top of the stack, if any, into the active
+	 * context object for subsequently generated code, as is the case for the previous
+	 * element of a compound expression. A primitive value is boxed first.
+	 * @param mv the method visitor where code should be generated
+	 * @param cf the current codeflow
+	 * @return {@code true} if an active context object was pushed, to be popped
+	 * via {@link CodeFlow#popActiveContextObject()} by the caller
+	 * @since 5.2
+	 */
+	protected static boolean generateCodeForActiveContextObject(MethodVisitor mv, CodeFlow cf) {
+		String descriptor = cf.lastDescriptor();
+		if (descriptor == null) {
+			return false;
+		}
+		CodeFlow.insertBoxIfNecessary(mv, descriptor);
+		int variable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, variable);
+		cf.pushActiveContextObject(variable);
+		return true;
+	}
+
+	/**
+	 * Generate code for the given node as an element of a collection, i.e. boxing
+	 * a primitive value and representing a void result as {@code null}.
+	 * @param mv the method visitor where code should be generated
+	 * @param cf the current codeflow
+	 * @param element the node producing the element value
+	 * @since 5.2
+	 */
+	protected static void generateCodeForElement(MethodVisitor mv, CodeFlow cf, SpelNodeImpl element) {
+		cf.enterCompilationScope();
+		element.generateCode(mv, cf);
+		String lastDesc = cf.lastDescriptor();
+		if ("V".equals(lastDesc)) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+		cf.exitCompilationScope();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.expression.spel.standard;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -114,7 +116,8 @@ public final class SpelCompiler implements Opcodes {
 		}
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("SpEL: unable to compile " + expression.toStringAST());
+			logger.debug("SpEL: unable to compile " + expression.toStringAST() + ": " +
+					getCompilationIssues(expression));
 		}
 		return null;
 	}
@@ -231,6 +234,41 @@ public final class SpelCompiler implements Opcodes {
 		return (expression instanceof SpelExpression && ((SpelExpression) expression).compileExpression());
 	}
 
+	/**
+	 * Describe the parts of the given expression AST that prevent its compilation:
+	 * the innermost nodes that are not compilable themselves.
+	 * @param expression the root node of the expression AST
+	 * @return a description per non-compilable node (empty if compilable)
+	 * @since 5.2
+	 */
+	static List<String> getCompilationIssues(SpelNodeImpl expression) {
+		List<String> issues = new ArrayList<>();
+		collectCompilationIssues(expression, issues);
+		return issues;
+	}
+
+	private static void collectCompilationIssues(SpelNodeImpl node, List<String> issues) {
+		if (node.isCompilable()) {
+			return;
+		}
+		int issueCount = issues.size();
+		for (int i = 0; i < node.getChildCount(); i++) {
+			collectCompilationIssues((SpelNodeImpl) node.getChild(i), issues);
+		}
+		if (issues.size() == issueCount) {
+			// No child to blame: the node itself is not compilable
+			StringBuilder issue = new StringBuilder(node.getClass().getSimpleName());
+			issue.append(" '").append(node.toStringAST()).append("' at position ").append(node.getStartPosition());
+			if (node.getExitDescriptor() == null) {
+				issue.append(" has not been evaluated yet or has no known result type");
+			}
+			else {
+				issue.append(" is not supported by the compiler for its evaluated types");
+			}
+			issues.add(issue.toString());
+		}
+	}
+
 	/**
 	 * Request to revert to the interpreter for expression evaluation.
 	 * Any compiled form is discarded but can be recreated by later recompiling again.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.util.List;
+
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
@@ -484,7 +486,10 @@ public class SpelExpression implements Expression {
 			else {
 				// compilerMode = SpelCompilerMode.MIXED
 				if (this.interpretedCount > INTERPRETED_COUNT_THRESHOLD) {
-					compileExpression();
+					if (!compileExpression()) {
+						// Wait for another round of interpreted evaluations before trying again
+						this.interpretedCount = 0;
+					}
 				}
 			}
 		}
@@ -517,6 +522,20 @@ public class SpelExpression implements Expression {
 		return (this.compiledAst != null);
 	}
 
+	/**
+	 * Describe the parts of this expression that currently prevent its compilation.
+	 * <p>Most parts of an expression only become compilable after having been
+	 * evaluated in interpreted mode, since the compiler relies on the types
+	 * encountered during evaluation.
+	 * @return a description per non-compilable part of the expression,
+	 * or an empty list if the expression is compilable
+	 * @since 5.2
+	 * @see #compileExpression()
+	 */
+	public List<String> getCompilationIssues() {
+		return SpelCompiler.getCompilationIssues(this.ast);
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Concurrent, size-bounded cache of parsed {@link Expression} instances,
+ * allowing components that parse the same expression strings over and over
+ * to skip tokenizing and building the AST on every call.
+ *
+ * <p>Cached expressions are shared as-is, so a {@link SpelExpression} keeps its
+ * interpreted-evaluation count and any compiled state across all callers.
+ * Expressions parsed by a plain {@link SpelExpressionParser} are keyed by the
+ * parser's {@link SpelParserConfiguration} settings, letting separate parser
+ * instances with equivalent settings share entries; expressions from any other
+ * parser, including {@code SpelExpressionParser} subclasses, are keyed by parser
+ * identity. Template expressions are additionally keyed by the
+ * {@link ParserContext} prefix and suffix. Parse failures are not cached.
+ *
+ * <p>A cache strongly references its parsers, their compiler {@link ClassLoader}
+ * and any compiled expression classes, so it is meant to be owned by the
+ * component that parses through it (e.g. one per bean factory's expression
+ * resolver) rather than being held in a JVM-wide static.
+ *
+ * @author agent
+ * @since 5.2
+ * @see SpelExpressionParser
+ */
+public class SpelExpressionCache {
+
+	/** Default size limit: {@value}. */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+
+	private final ConcurrentLruCache<CacheKey, Expression> cache;
+
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with a default size limit
+	 * of {@value #DEFAULT_CACHE_LIMIT} entries.
+	 */
+	public SpelExpressionCache() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with the given size limit.
+	 * @param cacheLimit the maximum number of parsed expressions to keep
+	 * (0 indicates no caching, always parsing the expression;
+	 * {@link Integer#MAX_VALUE} indicates no limit)
+	 */
+	public SpelExpressionCache(int cacheLimit) {
+		this.cache = new ConcurrentLruCache<>(cacheLimit, CacheKey::parse);
+	}
+
+
+	/**
+	 * Parse the given expression string, or return a previously parsed
+	 * expression for the same string and parser settings.
+	 * @param parser the parser to use in case of a cache miss
+	 * @param expressionString the raw expression string to parse
+	 * @return the parsed (potentially shared) expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression parseExpression(ExpressionParser parser, String expressionString) throws ParseException {
+		return parseExpression(parser, expressionString, null);
+	}
+
+	/**
+	 * Parse the given expression string in the given context, or return a
+	 * previously parsed expression for the same string, context and parser settings.
+	 * @param parser the parser to use in case of a cache miss
+	 * @param expressionString the raw expression string to parse
+	 * @param context a context for influencing the parsing routine (may be {@code null})
+	 * @return the parsed (potentially shared) expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression parseExpression(ExpressionParser parser, String expressionString,
+			@Nullable ParserContext context) throws ParseException {
+
+		return this.cache.get(new CacheKey(parser, expressionString, context));
+	}
+
+	/**
+	 * Remove all parsed expressions from this cache.
+	 * <p>The hit and miss statistics are retained.
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	/**
+	 * Return the current number of parsed expressions in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of parsed expressions in this cache.
+	 */
+	public int sizeLimit() {
+		return this.cache.sizeLimit();
+	}
+
+	/**
+	 * Return the number of times a parsed expression was found in this cache.
+	 */
+	public long getHitCount() {
+		return this.cache.getHitCount();
+	}
+
+	/**
+	 * Return the number of times an expression had to be parsed.
+	 */
+	public long getMissCount() {
+		return this.cache.getMissCount();
+	}
+
+	@Override
+	public String toString() {
+		return "SpelExpressionCache [size=" + size() + ", sizeLimit=" + sizeLimit() +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+	}
+
+
+	/**
+	 * Cache key: the parser or its effective settings, the expression string
+	 * and the template delimiters, if any.
+	 */
+	private static final class CacheKey {
+
+		private final ExpressionParser parser;
+
+		private final Object parserKey;
+
+		private final String expressionString;
+
+		@Nullable
+		private final ParserContext context;
+
+		@Nullable
+		private final String prefix;
+
+		@Nullable
+		private final String suffix;
+
+		CacheKey(ExpressionParser parser, String expressionString, @Nullable ParserContext context) {
+			this.parser = parser;
+			this.parserKey = (parser.getClass() == SpelExpressionParser.class ?
+					new ConfigurationKey(((SpelExpressionParser) parser).getConfiguration()) : parser);
+			this.expressionString = expressionString;
+			this.context = context;
+			boolean template = (context != null && context.isTemplate());
+			this.prefix = (template ? context.getExpressionPrefix() : null);
+			this.suffix = (template ? context.getExpressionSuffix() : null);
+		}
+
+		Expression parse() {
+			return (this.context != null ? this.parser.parseExpression(this.expressionString, this.context) :
+					this.parser.parseExpression(this.expressionString));
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.expressionString.equals(otherKey.expressionString) &&
+					this.parserKey.equals(otherKey.parserKey) &&
+					ObjectUtils.nullSafeEquals(this.prefix, otherKey.prefix) &&
+					ObjectUtils.nullSafeEquals(this.suffix, otherKey.suffix));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.expressionString.hashCode() * 29 + this.parserKey.hashCode()) * 29 +
+					ObjectUtils.nullSafeHashCode(this.prefix);
+		}
+	}
+
+
+	/**
+	 * Equality wrapper for the settings of a {@link SpelParserConfiguration}.
+	 */
+	private static final class ConfigurationKey {
+
+		private final SpelParserConfiguration configuration;
+
+		ConfigurationKey(SpelParserConfiguration configuration) {
+			this.configuration = configuration;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ConfigurationKey)) {
+				return false;
+			}
+			SpelParserConfiguration otherConfig = ((ConfigurationKey) other).configuration;
+			return (this.configuration.getCompilerMode() == otherConfig.getCompilerMode() &&
+					this.configuration.getCompilerClassLoader() == otherConfig.getCompilerClassLoader() &&
+					this.configuration.isAutoGrowNullReferences() == otherConfig.isAutoGrowNullReferences() &&
+					this.configuration.isAutoGrowCollections() == otherConfig.isAutoGrowCollections() &&
+					this.configuration.getMaximumAutoGrowSize() == otherConfig.getMaximumAutoGrowSize());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.configuration.getCompilerMode().hashCode() * 29 +
+					ObjectUtils.nullSafeHashCode(this.configuration.getCompilerClassLoader());
+		}
+	}
+
+}
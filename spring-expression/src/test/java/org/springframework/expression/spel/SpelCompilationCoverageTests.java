@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -103,7 +104,10 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * ConstructorReference
 	 * FunctionReference
 	 * InlineList
+	 * InlineMap
 	 * OpModulus
+	 * Projection
+	 * Selection
 	 *
 	 * Not yet compiled (some may never need to be):
 	 * Assign
@@ -114,9 +118,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * OpMatches
 	 * OpPower
 	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 
@@ -441,6 +443,133 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("op", o);
 	}
 
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void inlineListWithNonConstantElements() throws Exception {
+		Item item = new Item("abc", 2);
+		expression = parser.parseExpression("{name,count,{count,'x'}}");
+		assertEquals("[abc, 2, [2, x]]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		List<?> l1 = (List) expression.getValue(item);
+		List<?> l2 = (List) expression.getValue(item);
+		assertEquals("[abc, 2, [2, x]]", l1.toString());
+		assertNotSame(l1, l2);
+
+		expression = parser.parseExpression("{name.length(),name.toUpperCase()}");
+		assertEquals("[3, ABC]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[3, ABC]", expression.getValue(item).toString());
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:1,'b':'x',c:{1,2},d:{e:true}}");
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", expression.getValue().toString());
+		Map<?, ?> constant = (Map) expression.getValue();
+		assertSame(constant, expression.getValue());
+		assertUnsupported(() -> ((Map) constant).put("f", 2));
+		assertUnsupported(() -> ((Map) constant.get("d")).put("f", 2));
+		assertUnsupported(() -> ((List) constant.get("c")).add(3));
+
+		Item item = new Item("abc", 2);
+		expression = parser.parseExpression("{name:name,'count':count*2,list:{name}}");
+		assertEquals("{name=abc, count=4, list=[abc]}", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		Map<?, ?> m = (Map) expression.getValue(item);
+		assertEquals("{name=abc, count=4, list=[abc]}", m.toString());
+		assertNotSame(m, expression.getValue(item));
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void selection() throws Exception {
+		Item item = new Item("root", 2, new Item("a", 1), new Item("b", 2), new Item("c", 3));
+		expression = parser.parseExpression("children.?[count >= #root.count]");
+		assertEquals("[b, c]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[b, c]", expression.getValue(item).toString());
+		assertEquals("[]", expression.getValue(new Item("root", 5, new Item("a", 1))).toString());
+
+		expression = parser.parseExpression("children.^[count > 1].name");
+		assertEquals("b", expression.getValue(item));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(item));
+
+		expression = parser.parseExpression("children.$[#this.count < 3]");
+		assertEquals("b", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(item).toString());
+		assertNull(expression.getValue(new Item("root", 0, new Item("c", 3))));
+
+		expression = parser.parseExpression("children?.?[count > 1]");
+		assertEquals("[b, c]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[b, c]", expression.getValue(item).toString());
+		assertNull(expression.getValue(new Item("leaf", 0)));
+
+		// Selection over an array is not compiled
+		expression = parser.parseExpression("names.?[length() > 1]");
+		assertEquals(1, ((Object[]) expression.getValue(new Item("root", 0, new Item("ab", 1)))).length);
+		assertCantCompile(expression);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void projection() throws Exception {
+		Item item = new Item("root", 2, new Item("a", 1), new Item("b", 2), new Item("c", 3));
+		expression = parser.parseExpression("children.![name]");
+		assertEquals("[a, b, c]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[a, b, c]", expression.getValue(item).toString());
+
+		expression = parser.parseExpression("children.?[count > 1].![{name,count * #root.count}]");
+		assertEquals("[[b, 4], [c, 6]]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[[b, 4], [c, 6]]", expression.getValue(item).toString());
+
+		expression = parser.parseExpression("children.![#this.name[0]]");
+		assertEquals("[a, b, c]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[a, b, c]", expression.getValue(item).toString());
+
+		expression = parser.parseExpression("children?.![count]");
+		assertEquals("[1, 2, 3]", expression.getValue(item).toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2, 3]", expression.getValue(item).toString());
+		assertNull(expression.getValue(new Item("leaf", 0)));
+	}
+
+	@Test
+	public void stringIndexer() throws Exception {
+		expression = parser.parseExpression("name[count]");
+		assertEquals("c", expression.getValue(new Item("abc", 2)));
+		assertCanCompile(expression);
+		assertEquals("c", expression.getValue(new Item("abc", 2)));
+		assertEquals("x", expression.getValue(new Item("xyz", 0)));
+	}
+
+	@Test
+	public void compilationIssues() throws Exception {
+		SpelExpression expression = (SpelExpression) parser.parseExpression("children.?[name matches 'a.*']");
+		List<String> issues = expression.getCompilationIssues();
+		assertEquals(2, issues.size());
+		assertTrue(issues.get(0), issues.get(0).startsWith("PropertyOrFieldReference 'children'"));
+		assertTrue(issues.get(1), issues.get(1).startsWith("PropertyOrFieldReference 'name'"));
+		assertTrue(issues.get(0), issues.get(0).endsWith("has not been evaluated yet or has no known result type"));
+
+		expression.getValue(new Item("root", 0, new Item("a", 1), new Item("b", 2)));
+		issues = expression.getCompilationIssues();
+		assertEquals(1, issues.size());
+		assertTrue(issues.get(0), issues.get(0).startsWith("OperatorMatches '(name matches 'a.*')' at position 16"));
+
+		expression = (SpelExpression) parser.parseExpression("children.?[count > 0]");
+		expression.getValue(new Item("root", 0, new Item("a", 1)));
+		assertTrue(expression.getCompilationIssues().isEmpty());
+	}
+
 	@Test
 	public void intLiteral() throws Exception {
 		expression = parser.parseExpression("42");
@@ -5169,6 +5298,16 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertFalse(SpelCompiler.compile(expression));
 	}
 
+	private void assertUnsupported(Runnable modification) {
+		try {
+			modification.run();
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+	}
+
 	private Expression parse(String expression) {
 		return parser.parseExpression(expression);
 	}
@@ -6276,4 +6415,40 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		}
 	}
 
+	public static class Item {
+
+		private final String name;
+
+		private final int count;
+
+		private final List<Item> children;
+
+		public Item(String name, int count, Item... children) {
+			this.name = name;
+			this.count = count;
+			this.children = (children.length > 0 ? Arrays.asList(children) : null);
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public List<Item> getChildren() {
+			return this.children;
+		}
+
+		public String[] getNames() {
+			return this.children.stream().map(Item::getName).toArray(String[]::new);
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
 }
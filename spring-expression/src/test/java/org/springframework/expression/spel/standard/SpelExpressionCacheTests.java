@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelExpressionCache}.
+ *
+ * @author agent
+ */
+public class SpelExpressionCacheTests {
+
+	private final SpelExpressionCache cache = new SpelExpressionCache(16);
+
+
+	@Test
+	public void sameExpressionIsParsedOnce() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression first = this.cache.parseExpression(parser, "1 + 2");
+		Expression second = this.cache.parseExpression(parser, "1 + 2");
+		assertSame(first, second);
+		assertEquals(3, first.getValue());
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+	}
+
+	@Test
+	public void parsersWithEquivalentSettingsShareExpressions() {
+		Expression first = this.cache.parseExpression(new SpelExpressionParser(), "'abc'.length()");
+		Expression second = this.cache.parseExpression(new SpelExpressionParser(), "'abc'.length()");
+		assertSame(first, second);
+	}
+
+	@Test
+	public void parsersWithDifferentSettingsDoNotShareExpressions() {
+		SpelExpressionParser interpreting =
+				new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.OFF, null));
+		SpelExpressionParser compiling =
+				new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+		Expression first = this.cache.parseExpression(interpreting, "'abc'.length()");
+		Expression second = this.cache.parseExpression(compiling, "'abc'.length()");
+		assertNotSame(first, second);
+		assertEquals(2, this.cache.size());
+	}
+
+	@Test
+	public void templateContextIsPartOfKey() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression plain = this.cache.parseExpression(parser, "1 + 2");
+		Expression template = this.cache.parseExpression(parser, "1 + 2", new TemplateParserContext());
+		Expression otherTemplate = this.cache.parseExpression(parser, "1 + 2", new TemplateParserContext("${", "}"));
+		assertNotSame(plain, template);
+		assertNotSame(template, otherTemplate);
+		assertEquals(3, plain.getValue());
+		assertEquals("1 + 2", template.getValue());
+		assertSame(template, this.cache.parseExpression(parser, "1 + 2", new TemplateParserContext()));
+	}
+
+	@Test
+	public void compiledStateIsPreserved() {
+		SpelExpressionParser parser =
+				new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+		SpelExpression expression = (SpelExpression) this.cache.parseExpression(parser, "'abc'.length()");
+		assertEquals(3, expression.getValue());
+		assertEquals(3, expression.getValue());
+		assertSame(expression, this.cache.parseExpression(parser, "'abc'.length()"));
+		assertTrue(expression.compileExpression());
+	}
+
+	@Test
+	public void sizeLimitIsEnforced() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		for (int i = 0; i < 100; i++) {
+			this.cache.parseExpression(parser, "1 + " + i);
+		}
+		assertEquals(16, this.cache.size());
+		assertEquals(100, this.cache.getMissCount());
+	}
+
+	@Test
+	public void parseFailureIsNotCached() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		for (int i = 0; i < 2; i++) {
+			try {
+				this.cache.parseExpression(parser, "1 +");
+				fail("Should have thrown ParseException");
+			}
+			catch (ParseException ex) {
+				// expected
+			}
+		}
+		assertEquals(0, this.cache.size());
+		assertEquals(2, this.cache.getMissCount());
+	}
+
+	@Test
+	public void noCaching() {
+		SpelExpressionCache noCache = new SpelExpressionCache(0);
+		SpelExpressionParser parser = new SpelExpressionParser();
+		assertNotSame(noCache.parseExpression(parser, "1 + 2"), noCache.parseExpression(parser, "1 + 2"));
+		assertEquals(0, noCache.size());
+	}
+
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.MethodInvocationException;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link BeanPropertyRowMapper} variant that resolves the mapping from result
+ * set columns to bean properties once per result set shape, and populates each
+ * new instance through cached {@link MethodHandle MethodHandles} instead of a
+ * per-row {@link org.springframework.beans.BeanWrapper}.
+ *
+ * <p>The column-to-property plan is cached per distinct list of column labels,
+ * while constructor and setter handles are shared across mapper instances.
+ * Column values that do not match the property type are converted through the
+ * configured {@link #setConversionService ConversionService}, falling back to
+ * default property editors.
+ *
+ * <p>Since no BeanWrapper is involved, {@link #initBeanWrapper} is not called
+ * by this variant. {@link #getColumnValue} is still called for every column.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class CachingBeanPropertyRowMapper<T> extends BeanPropertyRowMapper<T> {
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final Map<Class<?>, MethodHandle> constructorCache = new ConcurrentReferenceHashMap<>(64);
+
+	private static final Map<Method, MethodHandle> setterCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	private final Map<List<String>, MappingPlan> planCache = new ConcurrentHashMap<>(4);
+
+	@Nullable
+	private volatile CurrentPlan currentPlan;
+
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper} for bean-style configuration.
+	 * @see #setMappedClass
+	 * @see #setCheckFullyPopulated
+	 */
+	public CachingBeanPropertyRowMapper() {
+	}
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public CachingBeanPropertyRowMapper(Class<T> mappedClass) {
+		super(mappedClass);
+	}
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all bean properties have been mapped from corresponding database fields
+	 */
+	public CachingBeanPropertyRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		super(mappedClass, checkFullyPopulated);
+	}
+
+
+	/**
+	 * Extract the values for all columns in the current row, following the
+	 * cached mapping plan for the shape of the given ResultSet.
+	 * @see java.sql.ResultSetMetaData
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		MappingPlan plan = getMappingPlan(rs, rowNumber);
+
+		T mappedObject;
+		try {
+			mappedObject = (T) plan.constructor.invokeExact();
+		}
+		catch (Throwable ex) {
+			throw new BeanInstantiationException(mappedClass, "Constructor threw exception", ex);
+		}
+
+		SimpleTypeConverter typeConverter = null;
+		for (PropertyMapping mapping : plan.mappings) {
+			PropertyDescriptor pd = mapping.propertyDescriptor;
+			Object value = getColumnValue(rs, mapping.columnIndex, pd);
+			if (value == null) {
+				if (mapping.propertyType.isPrimitive()) {
+					if (isPrimitivesDefaultedForNullValue()) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Skipping null value for row " + rowNumber + " and column '" +
+									mapping.column + "' when setting primitive property '" + pd.getName() +
+									"' of type '" + ClassUtils.getQualifiedName(mapping.propertyType) +
+									"' on object: " + mappedObject);
+						}
+						continue;
+					}
+					throw new TypeMismatchException(
+							new PropertyChangeEvent(mappedObject, pd.getName(), null, null), mapping.propertyType);
+				}
+			}
+			else if (!ClassUtils.isAssignableValue(mapping.propertyType, value)) {
+				if (typeConverter == null) {
+					typeConverter = new SimpleTypeConverter();
+				}
+				value = convertValue(mappedObject, mapping, value, typeConverter);
+			}
+			try {
+				mapping.setter.invokeExact((Object) mappedObject, value);
+			}
+			catch (Throwable ex) {
+				throw new MethodInvocationException(
+						new PropertyChangeEvent(mappedObject, pd.getName(), null, value), ex);
+			}
+		}
+		return mappedObject;
+	}
+
+	/**
+	 * Return the mapping plan for the given ResultSet, reusing the plan of the
+	 * previous row when mapping subsequent rows of the same ResultSet.
+	 */
+	private MappingPlan getMappingPlan(ResultSet rs, int rowNumber) throws SQLException {
+		CurrentPlan current = this.currentPlan;
+		if (rowNumber > 0 && current != null && current.resultSet.get() == rs) {
+			return current.plan;
+		}
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		List<String> columns = new ArrayList<>(columnCount);
+		for (int index = 1; index <= columnCount; index++) {
+			columns.add(JdbcUtils.lookupColumnName(rsmd, index));
+		}
+		MappingPlan plan = this.planCache.computeIfAbsent(columns, this::buildMappingPlan);
+
+		Set<String> mappedProperties = getMappedProperties();
+		if (isCheckFullyPopulated() && !plan.populatedProperties.equals(mappedProperties)) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of class [" + plan.mappedClass.getName() + "]: " +
+					mappedProperties);
+		}
+
+		this.currentPlan = new CurrentPlan(rs, plan);
+		return plan;
+	}
+
+	private MappingPlan buildMappingPlan(List<String> columns) {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		List<PropertyMapping> mappings = new ArrayList<>(columns.size());
+		Set<String> populatedProperties = new HashSet<>();
+		for (int i = 0; i < columns.size(); i++) {
+			String column = columns.get(i);
+			String field = lowerCaseName(StringUtils.delete(column, " "));
+			PropertyDescriptor pd = getMappedField(field);
+			if (pd != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				mappings.add(new PropertyMapping(i + 1, column, pd));
+				populatedProperties.add(pd.getName());
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+			}
+		}
+		return new MappingPlan(mappedClass, getConstructorHandle(mappedClass), mappings, populatedProperties);
+	}
+
+	@Nullable
+	private Object convertValue(Object mappedObject, PropertyMapping mapping, Object value,
+			SimpleTypeConverter typeConverter) {
+
+		try {
+			ConversionService conversionService = getConversionService();
+			TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+			if (conversionService != null && conversionService.canConvert(sourceType, mapping.typeDescriptor)) {
+				return conversionService.convert(value, sourceType, mapping.typeDescriptor);
+			}
+			return typeConverter.convertIfNecessary(value, mapping.propertyType, mapping.methodParameter);
+		}
+		catch (ConversionException ex) {
+			PropertyDescriptor pd = mapping.propertyDescriptor;
+			throw new TypeMismatchException(
+					new PropertyChangeEvent(mappedObject, pd.getName(), null, value), mapping.propertyType, ex);
+		}
+	}
+
+
+	private static MethodHandle getConstructorHandle(Class<?> mappedClass) {
+		return constructorCache.computeIfAbsent(mappedClass, clazz -> {
+			Constructor<?> ctor;
+			try {
+				ctor = clazz.getDeclaredConstructor();
+			}
+			catch (NoSuchMethodException ex) {
+				throw new BeanInstantiationException(clazz, "No default constructor found", ex);
+			}
+			ReflectionUtils.makeAccessible(ctor);
+			try {
+				return MethodHandles.lookup().unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+			}
+			catch (IllegalAccessException ex) {
+				throw new BeanInstantiationException(clazz, "Is the constructor accessible?", ex);
+			}
+		});
+	}
+
+	private static MethodHandle getSetterHandle(Method writeMethod) {
+		return setterCache.computeIfAbsent(writeMethod, method -> {
+			ReflectionUtils.makeAccessible(method);
+			try {
+				return MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+			}
+			catch (IllegalAccessException ex) {
+				throw new IllegalStateException("Could not access setter method: " + method, ex);
+			}
+		});
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code CachingBeanPropertyRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> CachingBeanPropertyRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new CachingBeanPropertyRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * Resolved mapping of a single column to a bean property.
+	 */
+	private static class PropertyMapping {
+
+		final int columnIndex;
+
+		final String column;
+
+		final PropertyDescriptor propertyDescriptor;
+
+		final Class<?> propertyType;
+
+		final MethodParameter methodParameter;
+
+		final TypeDescriptor typeDescriptor;
+
+		final MethodHandle setter;
+
+		PropertyMapping(int columnIndex, String column, PropertyDescriptor pd) {
+			Method writeMethod = pd.getWriteMethod();
+			Assert.state(writeMethod != null, "No write method");
+			this.columnIndex = columnIndex;
+			this.column = column;
+			this.propertyDescriptor = pd;
+			this.propertyType = writeMethod.getParameterTypes()[0];
+			this.methodParameter = new MethodParameter(writeMethod, 0);
+			this.typeDescriptor = new TypeDescriptor(this.methodParameter);
+			this.setter = getSetterHandle(writeMethod);
+		}
+	}
+
+
+	/**
+	 * Mapping plan for a given mapped class and list of column labels.
+	 */
+	private static class MappingPlan {
+
+		final Class<?> mappedClass;
+
+		final MethodHandle constructor;
+
+		final PropertyMapping[] mappings;
+
+		final Set<String> populatedProperties;
+
+		MappingPlan(Class<?> mappedClass, MethodHandle constructor,
+				List<PropertyMapping> mappings, Set<String> populatedProperties) {
+
+			this.mappedClass = mappedClass;
+			this.constructor = constructor;
+			this.mappings = mappings.toArray(new PropertyMapping[0]);
+			this.populatedProperties = populatedProperties;
+		}
+	}
+
+
+	/**
+	 * The plan in use for the ResultSet that is currently being mapped.
+	 */
+	private static class CurrentPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		CurrentPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -271,46 +271,73 @@ public abstract class NamedParameterUtils {
 		if (paramNames.isEmpty()) {
 			return originalSql;
 		}
-		StringBuilder actualSql = new StringBuilder(originalSql.length());
-		int lastIndex = 0;
+
+		// Determine the parameter shape: the expanded size of each collection value
+		// (-1 for a single placeholder), unless any collection contains expression lists.
+		Object[] paramValues = new Object[paramNames.size()];
+		int[] expandedSizes = new int[paramNames.size()];
+		boolean cacheable = true;
 		for (int i = 0; i < paramNames.size(); i++) {
 			String paramName = paramNames.get(i);
-			int[] indexes = parsedSql.getParameterIndexes(i);
-			int startIndex = indexes[0];
-			int endIndex = indexes[1];
-			actualSql.append(originalSql, lastIndex, startIndex);
+			int expandedSize = -1;
 			if (paramSource != null && paramSource.hasValue(paramName)) {
 				Object value = paramSource.getValue(paramName);
 				if (value instanceof SqlParameterValue) {
 					value = ((SqlParameterValue) value).getValue();
 				}
 				if (value instanceof Collection) {
-					Iterator<?> entryIter = ((Collection<?>) value).iterator();
-					int k = 0;
-					while (entryIter.hasNext()) {
-						if (k > 0) {
-							actualSql.append(", ");
-						}
-						k++;
-						Object entryItem = entryIter.next();
-						if (entryItem instanceof Object[]) {
-							Object[] expressionList = (Object[]) entryItem;
-							actualSql.append('(');
-							for (int m = 0; m < expressionList.length; m++) {
-								if (m > 0) {
-									actualSql.append(", ");
-								}
-								actualSql.append('?');
+					expandedSize = ((Collection<?>) value).size();
+					if (cacheable) {
+						for (Object entryItem : (Collection<?>) value) {
+							if (entryItem instanceof Object[]) {
+								cacheable = false;
+								break;
 							}
-							actualSql.append(')');
 						}
-						else {
+					}
+				}
+				paramValues[i] = value;
+			}
+			expandedSizes[i] = expandedSize;
+		}
+		if (cacheable) {
+			String substitutedSql = parsedSql.getSubstitutedSql(expandedSizes);
+			if (substitutedSql != null) {
+				return substitutedSql;
+			}
+		}
+
+		StringBuilder actualSql = new StringBuilder(originalSql.length());
+		int lastIndex = 0;
+		for (int i = 0; i < paramNames.size(); i++) {
+			int[] indexes = parsedSql.getParameterIndexes(i);
+			int startIndex = indexes[0];
+			int endIndex = indexes[1];
+			actualSql.append(originalSql, lastIndex, startIndex);
+			Object value = paramValues[i];
+			if (value instanceof Collection) {
+				Iterator<?> entryIter = ((Collection<?>) value).iterator();
+				int k = 0;
+				while (entryIter.hasNext()) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					k++;
+					Object entryItem = entryIter.next();
+					if (entryItem instanceof Object[]) {
+						Object[] expressionList = (Object[]) entryItem;
+						actualSql.append('(');
+						for (int m = 0; m < expressionList.length; m++) {
+							if (m > 0) {
+								actualSql.append(", ");
+							}
 							actualSql.append('?');
 						}
+						actualSql.append(')');
+					}
+					else {
+						actualSql.append('?');
 					}
-				}
-				else {
-					actualSql.append('?');
 				}
 			}
 			else {
@@ -319,7 +346,11 @@ public abstract class NamedParameterUtils {
 			lastIndex = endIndex;
 		}
 		actualSql.append(originalSql, lastIndex, originalSql.length());
-		return actualSql.toString();
+		String substitutedSql = actualSql.toString();
+		if (cacheable) {
+			parsedSql.cacheSubstitutedSql(expandedSizes, substitutedSql);
+		}
+		return substitutedSql;
 	}
 
 	/**
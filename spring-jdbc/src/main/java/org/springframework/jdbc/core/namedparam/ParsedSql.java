@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,12 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
 
 /**
  * Holds information about a parsed SQL statement.
@@ -28,6 +33,10 @@ import java.util.List;
  */
 public class ParsedSql {
 
+	/** Maximum number of distinct parameter shapes to keep substituted SQL for. */
+	private static final int SUBSTITUTED_SQL_CACHE_LIMIT = 64;
+
+
 	private String originalSql;
 
 	private List<String> parameterNames = new ArrayList<>();
@@ -40,6 +49,9 @@ public class ParsedSql {
 
 	private int totalParameterCount;
 
+	@Nullable
+	private volatile Map<ParameterShape, String> substitutedSqlCache;
+
 
 	/**
 	 * Create a new instance of the {@link ParsedSql} class.
@@ -133,6 +145,37 @@ public class ParsedSql {
 		return this.totalParameterCount;
 	}
 
+	/**
+	 * Return the substituted SQL previously cached for the given parameter shape.
+	 * @param expandedSizes the expanded size of each named parameter
+	 * (the size of a collection value, or -1 for a single placeholder)
+	 * @return the substituted SQL, or {@code null} if none cached
+	 * @since 5.2
+	 */
+	@Nullable
+	String getSubstitutedSql(int[] expandedSizes) {
+		Map<ParameterShape, String> cache = this.substitutedSqlCache;
+		return (cache != null ? cache.get(new ParameterShape(expandedSizes)) : null);
+	}
+
+	/**
+	 * Cache the substituted SQL for the given parameter shape, unless
+	 * the maximum number of shapes has been reached already.
+	 * @param expandedSizes the expanded size of each named parameter
+	 * @param substitutedSql the corresponding substituted SQL
+	 * @since 5.2
+	 */
+	void cacheSubstitutedSql(int[] expandedSizes, String substitutedSql) {
+		Map<ParameterShape, String> cache = this.substitutedSqlCache;
+		if (cache == null) {
+			cache = new ConcurrentHashMap<>(4);
+			this.substitutedSqlCache = cache;
+		}
+		if (cache.size() < SUBSTITUTED_SQL_CACHE_LIMIT) {
+			cache.putIfAbsent(new ParameterShape(expandedSizes), substitutedSql);
+		}
+	}
+
 
 	/**
 	 * Exposes the original SQL String.
@@ -142,4 +185,31 @@ public class ParsedSql {
 		return this.originalSql;
 	}
 
+
+	/**
+	 * Cache key for the expanded sizes of the named parameters.
+	 */
+	private static final class ParameterShape {
+
+		private final int[] expandedSizes;
+
+		private final int hashCode;
+
+		ParameterShape(int[] expandedSizes) {
+			this.expandedSizes = expandedSizes;
+			this.hashCode = Arrays.hashCode(expandedSizes);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof ParameterShape &&
+					Arrays.equals(this.expandedSizes, ((ParameterShape) other).expandedSizes)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
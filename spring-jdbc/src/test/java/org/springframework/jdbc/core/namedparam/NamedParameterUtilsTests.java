@@ -16,6 +16,7 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -68,6 +69,24 @@ public class NamedParameterUtilsTests {
 				NamedParameterUtils.substituteNamedParameters("xxx :a :b :c xx :a :a", namedParams));
 	}
 
+	@Test
+	public void substituteNamedParametersCachedPerParameterShape() {
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement("xxx :a yyy :b");
+		MapSqlParameterSource namedParams = new MapSqlParameterSource();
+		namedParams.addValue("a", "a").addValue("b", Arrays.asList(1, 2));
+		String sql = NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams);
+		assertEquals("xxx ? yyy ?, ?", sql);
+		namedParams.addValue("a", "x").addValue("b", Arrays.asList(3, 4));
+		assertSame(sql, NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("b", Arrays.asList(1, 2, 3));
+		assertEquals("xxx ? yyy ?, ?, ?", NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("b", Collections.singletonList(new Object[] {1, 2}));
+		assertEquals("xxx ? yyy (?, ?)", NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("b", Collections.singletonList(new Object[] {1, 2, 3}));
+		assertEquals("xxx ? yyy (?, ?, ?)", NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		assertEquals("xxx ? yyy ?", NamedParameterUtils.substituteNamedParameters(parsedSql, null));
+	}
+
 	@Test
 	public void convertParamMapToArray() {
 		Map<String, String> paramMap = new HashMap<>();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,18 @@
 
 package org.springframework.messaging.simp.broker;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -32,6 +35,7 @@ import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.lang.Nullable;
@@ -81,6 +85,12 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private final ExpressionParser expressionParser = new SpelExpressionParser();
 
+	private SpelExpressionCache selectorExpressionCache = new SpelExpressionCache();
+
+	private volatile boolean prefixMatching = true;
+
+	private final DestinationIndex destinationIndex = new DestinationIndex();
+
 	private final DestinationCache destinationCache = new DestinationCache();
 
 	private final SessionSubscriptionRegistry subscriptionRegistry = new SessionSubscriptionRegistry();
@@ -91,6 +101,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
+		this.prefixMatching = isPrefixMatchingSupported(pathMatcher);
 	}
 
 	/**
@@ -142,6 +153,26 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		return this.selectorHeaderName;
 	}
 
+	/**
+	 * Specify the cache to keep parsed selector expressions in, e.g. one with
+	 * a larger size limit for applications using many distinct selectors.
+	 * <p>Default is a cache local to this registry, holding up to
+	 * {@value SpelExpressionCache#DEFAULT_CACHE_LIMIT} parsed selectors.
+	 * @since 5.2
+	 */
+	public void setSelectorExpressionCache(SpelExpressionCache selectorExpressionCache) {
+		Assert.notNull(selectorExpressionCache, "SpelExpressionCache must not be null");
+		this.selectorExpressionCache = selectorExpressionCache;
+	}
+
+	/**
+	 * Return the cache that parsed selector expressions are kept in.
+	 * @since 5.2
+	 */
+	public SpelExpressionCache getSelectorExpressionCache() {
+		return this.selectorExpressionCache;
+	}
+
 
 	@Override
 	protected void addSubscriptionInternal(
@@ -149,6 +180,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		Expression expression = getSelectorExpression(message.getHeaders());
 		this.subscriptionRegistry.addSubscription(sessionId, subsId, destination, expression);
+		this.destinationIndex.addSubscription(destination, sessionId, subsId);
 		this.destinationCache.updateAfterNewSubscription(destination, sessionId, subsId);
 	}
 
@@ -159,7 +191,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			String selector = SimpMessageHeaderAccessor.getFirstNativeHeader(getSelectorHeaderName(), headers);
 			if (selector != null) {
 				try {
-					expression = this.expressionParser.parseExpression(selector);
+					expression = this.selectorExpressionCache.parseExpression(this.expressionParser, selector);
 					this.selectorHeaderInUse = true;
 					if (logger.isTraceEnabled()) {
 						logger.trace("Subscription selector: [" + selector + "]");
@@ -181,7 +213,8 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		if (info != null) {
 			String destination = info.removeSubscription(subsId);
 			if (destination != null) {
-				this.destinationCache.updateAfterRemovedSubscription(sessionId, subsId);
+				this.destinationIndex.removeSubscription(destination, sessionId, subsId);
+				this.destinationCache.updateAfterRemovedSubscription(destination, sessionId, subsId);
 			}
 		}
 	}
@@ -190,13 +223,16 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	public void unregisterAllSubscriptions(String sessionId) {
 		SessionSubscriptionInfo info = this.subscriptionRegistry.removeSubscriptions(sessionId);
 		if (info != null) {
+			for (String destination : info.getDestinations()) {
+				this.destinationIndex.removeSession(destination, sessionId);
+			}
 			this.destinationCache.updateAfterRemovedSession(info);
 		}
 	}
 
 	@Override
 	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
-		MultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination, message);
+		MultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination);
 		return filterSubscriptions(result, message);
 	}
 
@@ -242,123 +278,302 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	@Override
 	public String toString() {
-		return "DefaultSubscriptionRegistry[" + this.destinationCache + ", " + this.subscriptionRegistry + "]";
+		return "DefaultSubscriptionRegistry[" + this.destinationCache + ", " + this.destinationIndex + ", " +
+				this.subscriptionRegistry + "]";
+	}
+
+
+	/**
+	 * Whether the given {@link PathMatcher} only matches destinations starting
+	 * with the literal prefix of a pattern, i.e. the characters before the first
+	 * wildcard, which holds for a case-sensitive {@link AntPathMatcher} that
+	 * does not trim tokens.
+	 */
+	private static boolean isPrefixMatchingSupported(PathMatcher pathMatcher) {
+		return (pathMatcher.getClass() == AntPathMatcher.class &&
+				!pathMatcher.match("a", "A") && !pathMatcher.match("a", " a"));
+	}
+
+	/**
+	 * Return the literal prefix of the given destination pattern, up to the last
+	 * separator before the first wildcard or URI template variable. The separator
+	 * itself is excluded since a trailing "**" also matches the parent destination,
+	 * e.g. "/topic/**" matches "/topic" and "price.**" matches "price". Any character
+	 * other than a letter or digit is treated as a potential separator.
+	 */
+	private static String getLiteralPrefix(String destination) {
+		for (int i = 0; i < destination.length(); i++) {
+			char c = destination.charAt(i);
+			if (c == '*' || c == '?' || c == '{') {
+				int end = i - 1;
+				while (end >= 0 && Character.isLetterOrDigit(destination.charAt(end))) {
+					end--;
+				}
+				return destination.substring(0, Math.max(end, 0));
+			}
+		}
+		return destination;
 	}
 
 
 	/**
 	 * A cache for destinations previously resolved via
 	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}.
+	 * <p>Cached subscriptions are never modified once published: updates replace
+	 * them with a modified copy through atomic per-destination operations, so
+	 * look-ups never block and subscription changes only affect the cached
+	 * destinations matched by the subscription's destination pattern.
 	 */
 	private class DestinationCache {
 
 		/** Map from destination to {@code <sessionId, subscriptionId>} for fast look-ups. */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
+		private final ConcurrentMap<String, LinkedMultiValueMap<String, String>> cache =
 				new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
 
-		/** Map from destination to {@code <sessionId, subscriptionId>} with locking. */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
-					}
-				};
-
-
-		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
-			if (result == null) {
-				synchronized (this.updateCache) {
-					result = new LinkedMultiValueMap<>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription sub : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, sub.getId());
-								}
-							}
-						}
-					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
+		/** Cached destinations in sorted order, for finding those starting with a given prefix. */
+		private final NavigableSet<String> sortedDestinations = new ConcurrentSkipListSet<>();
+
+		/** Cached destinations in insertion order, for evicting the eldest entries. */
+		private final Queue<String> evictionQueue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger cacheSize = new AtomicInteger();
+
+
+		public LinkedMultiValueMap<String, String> getSubscriptions(String destination) {
+			LinkedMultiValueMap<String, String> subscriptions = this.cache.get(destination);
+			if (subscriptions == null) {
+				subscriptions = this.cache.computeIfAbsent(destination, dest -> {
+					// Register first so that concurrent subscription changes find the destination
+					// and, blocked by computeIfPresent until published, update the new entry
+					this.sortedDestinations.add(dest);
+					LinkedMultiValueMap<String, String> matches = destinationIndex.findSubscriptions(dest);
+					if (matches.isEmpty()) {
+						this.sortedDestinations.remove(dest);
+						return null;
 					}
+					this.evictionQueue.add(dest);
+					this.cacheSize.incrementAndGet();
+					return matches;
+				});
+				if (subscriptions == null) {
+					return new LinkedMultiValueMap<>();
 				}
+				ensureCacheLimit();
+			}
+			return subscriptions;
+		}
+
+		private void ensureCacheLimit() {
+			while (this.cacheSize.get() > getCacheLimit()) {
+				String eldest = this.evictionQueue.poll();
+				if (eldest == null) {
+					break;
+				}
+				this.cache.computeIfPresent(eldest, (dest, subscriptions) -> {
+					this.sortedDestinations.remove(dest);
+					this.cacheSize.decrementAndGet();
+					return null;
+				});
 			}
-			return result;
 		}
 
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				this.updateCache.forEach((cachedDestination, subscriptions) -> {
-					if (getPathMatcher().match(destination, cachedDestination)) {
-						// Subscription id's may also be populated via getSubscriptions()
-						List<String> subsForSession = subscriptions.get(sessionId);
-						if (subsForSession == null || !subsForSession.contains(subsId)) {
-							subscriptions.add(sessionId, subsId);
-							this.accessCache.put(cachedDestination, subscriptions.deepCopy());
-						}
+			for (String cachedDestination : getAffectedDestinations(destination)) {
+				this.cache.computeIfPresent(cachedDestination, (dest, subscriptions) -> {
+					// Subscription id's may also be populated via getSubscriptions()
+					List<String> subsForSession = subscriptions.get(sessionId);
+					if (subsForSession != null && subsForSession.contains(subsId)) {
+						return subscriptions;
 					}
+					LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+					updated.add(sessionId, subsId);
+					return updated;
 				});
 			}
 		}
 
-		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
-						if (subscriptions.isEmpty()) {
-							sessionMap.remove(sessionId);
-						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+		public void updateAfterRemovedSubscription(String destination, String sessionId, String subsId) {
+			for (String cachedDestination : getAffectedDestinations(destination)) {
+				this.cache.computeIfPresent(cachedDestination, (dest, subscriptions) -> {
+					List<String> subsForSession = subscriptions.get(sessionId);
+					if (subsForSession == null || !subsForSession.contains(subsId)) {
+						return subscriptions;
+					}
+					LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+					List<String> updatedSubsForSession = updated.get(sessionId);
+					updatedSubsForSession.remove(subsId);
+					if (updatedSubsForSession.isEmpty()) {
+						updated.remove(sessionId);
 					}
+					return afterRemoval(dest, updated);
 				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
-				}
 			}
 		}
 
 		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
+			String sessionId = info.getSessionId();
+			for (String destination : info.getDestinations()) {
+				for (String cachedDestination : getAffectedDestinations(destination)) {
+					this.cache.computeIfPresent(cachedDestination, (dest, subscriptions) -> {
+						if (!subscriptions.containsKey(sessionId)) {
+							return subscriptions;
 						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
+						LinkedMultiValueMap<String, String> updated = subscriptions.deepCopy();
+						updated.remove(sessionId);
+						return afterRemoval(dest, updated);
+					});
+				}
+			}
+		}
+
+		@Nullable
+		private LinkedMultiValueMap<String, String> afterRemoval(
+				String destination, LinkedMultiValueMap<String, String> subscriptions) {
+
+			if (!subscriptions.isEmpty()) {
+				return subscriptions;
+			}
+			this.sortedDestinations.remove(destination);
+			this.evictionQueue.remove(destination);
+			this.cacheSize.decrementAndGet();
+			return null;
+		}
+
+		/**
+		 * Return the cached destinations matched by the given destination (pattern),
+		 * narrowed down to those starting with its literal prefix if possible.
+		 */
+		private List<String> getAffectedDestinations(String destination) {
+			List<String> result = new ArrayList<>();
+			if (prefixMatching) {
+				String prefix = getLiteralPrefix(destination);
+				for (String cachedDestination : this.sortedDestinations.tailSet(prefix)) {
+					if (!cachedDestination.startsWith(prefix)) {
+						break;
+					}
+					if (getPathMatcher().match(destination, cachedDestination)) {
+						result.add(cachedDestination);
+					}
+				}
+			}
+			else {
+				for (String cachedDestination : this.sortedDestinations) {
+					if (getPathMatcher().match(destination, cachedDestination)) {
+						result.add(cachedDestination);
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return "cache[" + this.cacheSize + " destination(s)]";
+		}
+	}
+
+
+	/**
+	 * Index of all subscriptions by destination (pattern), plus an index of
+	 * destination patterns by their literal prefix, so that resolving the
+	 * subscriptions for a destination only needs to match the patterns
+	 * whose literal prefix is a prefix of that destination.
+	 */
+	private class DestinationIndex {
+
+		/** Map from destination (pattern) to sessionId to subscription ids. */
+		private final ConcurrentMap<String, Map<String, Set<String>>> subscriptions = new ConcurrentHashMap<>();
+
+		/** Map from literal prefix to the destination patterns starting with it. */
+		private final ConcurrentMap<String, Set<String>> prefixIndex = new ConcurrentHashMap<>();
+
+
+		public void addSubscription(String destination, String sessionId, String subsId) {
+			this.subscriptions.compute(destination, (dest, sessions) -> {
+				if (sessions == null) {
+					sessions = new ConcurrentHashMap<>(4);
+					this.prefixIndex.compute(getLiteralPrefix(dest), (prefix, destinations) -> {
+						Set<String> result = (destinations != null ? destinations : ConcurrentHashMap.newKeySet());
+						result.add(dest);
+						return result;
+					});
+				}
+				sessions.computeIfAbsent(sessionId, id -> new CopyOnWriteArraySet<>()).add(subsId);
+				return sessions;
+			});
+		}
+
+		public void removeSubscription(String destination, String sessionId, String subsId) {
+			this.subscriptions.computeIfPresent(destination, (dest, sessions) -> {
+				Set<String> subsIds = sessions.get(sessionId);
+				if (subsIds != null) {
+					subsIds.remove(subsId);
+					if (subsIds.isEmpty()) {
+						sessions.remove(sessionId);
+					}
+				}
+				return afterRemoval(dest, sessions);
+			});
+		}
+
+		public void removeSession(String destination, String sessionId) {
+			this.subscriptions.computeIfPresent(destination, (dest, sessions) -> {
+				sessions.remove(sessionId);
+				return afterRemoval(dest, sessions);
+			});
+		}
+
+		@Nullable
+		private Map<String, Set<String>> afterRemoval(String destination, Map<String, Set<String>> sessions) {
+			if (!sessions.isEmpty()) {
+				return sessions;
+			}
+			this.prefixIndex.computeIfPresent(getLiteralPrefix(destination), (prefix, destinations) -> {
+				destinations.remove(destination);
+				return (destinations.isEmpty() ? null : destinations);
+			});
+			return null;
+		}
+
+		public LinkedMultiValueMap<String, String> findSubscriptions(String destination) {
+			LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+			if (prefixMatching) {
+				// Most specific (longest) literal prefixes first
+				for (int end = destination.length(); end >= 0; end--) {
+					Set<String> patterns = this.prefixIndex.get(destination.substring(0, end));
+					if (patterns != null) {
+						for (String pattern : patterns) {
+							addMatchingSubscriptions(pattern, destination, result);
 						}
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+				}
+			}
+			else {
+				for (String pattern : this.subscriptions.keySet()) {
+					addMatchingSubscriptions(pattern, destination, result);
+				}
+			}
+			return result;
+		}
+
+		private void addMatchingSubscriptions(
+				String pattern, String destination, LinkedMultiValueMap<String, String> result) {
+
+			if (getPathMatcher().match(pattern, destination)) {
+				Map<String, Set<String>> sessions = this.subscriptions.get(pattern);
+				if (sessions != null) {
+					sessions.forEach((sessionId, subsIds) -> {
+						for (String subsId : subsIds) {
+							result.add(sessionId, subsId);
+						}
+					});
 				}
 			}
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "index[" + this.subscriptions.size() + " destination(s)]";
 		}
 	}
 
@@ -376,10 +591,6 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.sessions.get(sessionId);
 		}
 
-		public Collection<SessionSubscriptionInfo> getAllSubscriptions() {
-			return this.sessions.values();
-		}
-
 		public SessionSubscriptionInfo addSubscription(String sessionId, String subscriptionId,
 				String destination, @Nullable Expression selectorExpression) {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,21 @@
 package org.springframework.messaging.simp.broker;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
 
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -34,6 +44,7 @@ import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderInitializer;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -43,6 +54,12 @@ import org.springframework.util.PathMatcher;
  * {@link SimpMessageType}, keeps track of subscriptions with the help of a
  * {@link SubscriptionRegistry} and sends messages to subscribers.
  *
+ * <p>By default messages are matched and fanned out on the thread that
+ * delivered them to the broker. With a {@link #setShardCount shard count}
+ * greater than zero, destinations are instead partitioned across a fixed
+ * number of single-threaded workers so that a destination with many
+ * subscribers cannot hold up publication to all other destinations.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 4.0
@@ -70,6 +87,8 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	@Nullable
 	private MessageHeaderInitializer headerInitializer;
 
+	private int shardCount = 0;
+
 
 	private SubscriptionRegistry subscriptionRegistry;
 
@@ -78,6 +97,9 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	@Nullable
 	private ScheduledFuture<?> heartbeatFuture;
 
+	@Nullable
+	private volatile ExecutorService[] shardExecutors;
+
 
 	/**
 	 * Create a SimpleBrokerMessageHandler instance with the given message channels
@@ -249,9 +271,43 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		return this.headerInitializer;
 	}
 
+	/**
+	 * Configure the number of worker threads ("shards") across which
+	 * destinations are partitioned for matching and fan-out of published
+	 * messages. All messages for a given destination are processed by the
+	 * same shard, in the order in which they were received, while replies
+	 * are handed to each session one batch at a time so that a session never
+	 * receives messages from two shards concurrently.
+	 * <p>By default this is set to 0, in which case messages are processed
+	 * on the thread that delivered them to the broker.
+	 * @param shardCount the number of shards, or 0 to disable sharding
+	 * @since 5.2
+	 */
+	public void setShardCount(int shardCount) {
+		Assert.isTrue(shardCount >= 0, "Shard count must not be negative");
+		this.shardCount = shardCount;
+	}
+
+	/**
+	 * Return the configured number of shards.
+	 * @since 5.2
+	 */
+	public int getShardCount() {
+		return this.shardCount;
+	}
+
 
 	@Override
 	public void startInternal() {
+		if (this.shardCount > 0 && this.shardExecutors == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("SimpleBrokerShard-");
+			threadFactory.setDaemon(true);
+			ExecutorService[] executors = new ExecutorService[this.shardCount];
+			for (int i = 0; i < executors.length; i++) {
+				executors[i] = Executors.newSingleThreadExecutor(threadFactory);
+			}
+			this.shardExecutors = executors;
+		}
 		publishBrokerAvailableEvent();
 		if (this.taskScheduler != null) {
 			long interval = initHeartbeatTaskDelay();
@@ -284,6 +340,13 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		if (this.heartbeatFuture != null) {
 			this.heartbeatFuture.cancel(true);
 		}
+		ExecutorService[] executors = this.shardExecutors;
+		if (executors != null) {
+			this.shardExecutors = null;
+			for (ExecutorService executor : executors) {
+				executor.shutdown();
+			}
+		}
 	}
 
 	@Override
@@ -301,7 +364,20 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 
 		if (SimpMessageType.MESSAGE.equals(messageType)) {
 			logMessage(message);
-			sendMessageToSubscribers(destination, message);
+			ExecutorService shard = getShardExecutor(destination);
+			if (shard != null) {
+				try {
+					shard.execute(() -> sendMessageToSubscribers(destination, message));
+				}
+				catch (RejectedExecutionException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Broker shard stopped, discarding " + message);
+					}
+				}
+			}
+			else {
+				sendMessageToSubscribers(destination, message);
+			}
 		}
 		else if (SimpMessageType.CONNECT.equals(messageType)) {
 			logMessage(message);
@@ -340,6 +416,16 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		}
 	}
 
+	@Nullable
+	private ExecutorService getShardExecutor(@Nullable String destination) {
+		ExecutorService[] executors = this.shardExecutors;
+		if (executors == null) {
+			return null;
+		}
+		int hash = (destination != null ? destination.hashCode() : 0);
+		return executors[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % executors.length];
+	}
+
 	private void updateSessionReadTime(@Nullable String sessionId) {
 		if (sessionId != null) {
 			SessionInfo info = this.sessions.get(sessionId);
@@ -384,8 +470,14 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		if (!subscriptions.isEmpty() && logger.isDebugEnabled()) {
 			logger.debug("Broadcasting to " + subscriptions.size() + " sessions.");
 		}
+		boolean sharded = (this.shardExecutors != null);
 		long now = System.currentTimeMillis();
 		subscriptions.forEach((sessionId, subscriptionIds) -> {
+			SessionInfo info = this.sessions.get(sessionId);
+			if (info == null) {
+				return;
+			}
+			List<Message<?>> batch = (sharded ? new ArrayList<>(subscriptionIds.size()) : null);
 			for (String subscriptionId : subscriptionIds) {
 				SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
 				initHeaders(headerAccessor);
@@ -395,20 +487,25 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 				headerAccessor.setLeaveMutable(true);
 				Object payload = message.getPayload();
 				Message<?> reply = MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders());
-				SessionInfo info = this.sessions.get(sessionId);
-				if (info != null) {
-					try {
-						info.getClientOutboundChannel().send(reply);
-					}
-					catch (Throwable ex) {
-						if (logger.isErrorEnabled()) {
-							logger.error("Failed to send " + message, ex);
-						}
-					}
-					finally {
-						info.setLastWriteTime(now);
+				if (batch != null) {
+					batch.add(reply);
+					continue;
+				}
+				try {
+					info.getClientOutboundChannel().send(reply);
+				}
+				catch (Throwable ex) {
+					if (logger.isErrorEnabled()) {
+						logger.error("Failed to send " + message, ex);
 					}
 				}
+				finally {
+					info.setLastWriteTime(now);
+				}
+			}
+			if (batch != null) {
+				info.sendBatch(batch, logger);
+				info.setLastWriteTime(now);
 			}
 		});
 	}
@@ -439,6 +536,10 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 
 		private volatile long lastWriteTime;
 
+		private final Queue<Message<?>> pendingMessages = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean sendInProgress = new AtomicBoolean(false);
+
 
 		public SessionInfo(String sessionId, @Nullable Principal user, MessageChannel outboundChannel,
 				@Nullable long[] clientHeartbeat, @Nullable long[] serverHeartbeat) {
@@ -495,6 +596,33 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		public void setLastWriteTime(long lastWriteTime) {
 			this.lastWriteTime = lastWriteTime;
 		}
+
+		/**
+		 * Queue a batch of messages and, unless another shard is already
+		 * sending to this session, drain the queue to the outbound channel.
+		 * Messages are sent one at a time in the order in which they were queued.
+		 */
+		public void sendBatch(List<Message<?>> batch, Log logger) {
+			this.pendingMessages.addAll(batch);
+			while (!this.pendingMessages.isEmpty() && this.sendInProgress.compareAndSet(false, true)) {
+				try {
+					Message<?> message;
+					while ((message = this.pendingMessages.poll()) != null) {
+						try {
+							this.clientOutboundChannel.send(message);
+						}
+						catch (Throwable ex) {
+							if (logger.isErrorEnabled()) {
+								logger.error("Failed to send " + message, ex);
+							}
+						}
+					}
+				}
+				finally {
+					this.sendInProgress.set(false);
+				}
+			}
+		}
 	}
 
 
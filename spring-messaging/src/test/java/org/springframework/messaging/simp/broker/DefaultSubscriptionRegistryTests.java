@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,10 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -28,10 +32,12 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test fixture for
@@ -439,6 +445,117 @@ public class DefaultSubscriptionRegistryTests {
 		assertEquals(2, this.registry.findSubscriptions(createMessage("/bar")).size());
 	}
 
+	@Test
+	public void findSubscriptionsWithPatternsSharingPrefixes() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/**"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "/topic/price.*"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "/topic/price.{ticker}"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "2", "/topic/price.ibm"));
+		this.registry.registerSubscription(subscribeMessage("sess3", "1", "/topic/pri?e.ibm"));
+		this.registry.registerSubscription(subscribeMessage("sess3", "2", "/queue/price.ibm"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/price.ibm"));
+		assertEquals(3, actual.size());
+		assertEquals(Arrays.asList("1", "2"), sort(actual.get("sess1")));
+		assertEquals(Arrays.asList("1", "2"), sort(actual.get("sess2")));
+		assertEquals(Collections.singletonList("1"), actual.get("sess3"));
+
+		actual = this.registry.findSubscriptions(createMessage("/topic/news"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("1"), actual.get("sess1"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "1"));
+		this.registry.unregisterAllSubscriptions("sess2");
+
+		actual = this.registry.findSubscriptions(createMessage("/topic/price.ibm"));
+		assertEquals(2, actual.size());
+		assertEquals(Collections.singletonList("2"), actual.get("sess1"));
+		assertEquals(Collections.singletonList("1"), actual.get("sess3"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/topic/news")).size());
+	}
+
+	@Test
+	public void findSubscriptionsWithTrailingDoubleWildcardMatchingParent() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic"));
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/topic")).size());
+
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "/topic/**"));
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic"));
+		assertEquals(2, actual.size());
+		assertEquals(Collections.singletonList("1"), actual.get("sess2"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess2", "1"));
+		actual = this.registry.findSubscriptions(createMessage("/topic"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("1"), actual.get("sess1"));
+	}
+
+	@Test
+	public void findSubscriptionsWithDotSeparatorMatchingParent() {
+		this.registry.setPathMatcher(new AntPathMatcher("."));
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "price.**"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "price.stock.*"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("price"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("1"), actual.get("sess1"));
+
+		actual = this.registry.findSubscriptions(createMessage("price.stock.ibm"));
+		assertEquals(2, actual.size());
+		assertEquals(0, this.registry.findSubscriptions(createMessage("prices")).size());
+	}
+
+	@Test
+	public void findSubscriptionsWithCaseInsensitivePathMatcher() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		this.registry.setPathMatcher(pathMatcher);
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/Topic/*"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "/topic/A"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/TOPIC/a"));
+		assertEquals(2, actual.size());
+
+		this.registry.registerSubscription(subscribeMessage("sess3", "1", "/TOPIC/*"));
+		actual = this.registry.findSubscriptions(createMessage("/TOPIC/a"));
+		assertEquals(3, actual.size());
+	}
+
+	@Test
+	public void concurrentSubscriptionChangesKeepCacheConsistent() throws Exception {
+		int threadCount = 8;
+		CountDownLatch latch = new CountDownLatch(threadCount);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		for (int t = 0; t < threadCount; t++) {
+			String sessionId = "sess" + t;
+			executor.execute(() -> {
+				try {
+					for (int i = 0; i < 200; i++) {
+						this.registry.registerSubscription(subscribeMessage(sessionId, "sub" + i, "/topic/" + (i % 10)));
+						this.registry.findSubscriptions(createMessage("/topic/" + (i % 10)));
+						if (i % 2 == 0) {
+							this.registry.unregisterSubscription(unsubscribeMessage(sessionId, "sub" + i));
+						}
+					}
+				}
+				finally {
+					latch.countDown();
+				}
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		for (int i = 0; i < 10; i++) {
+			MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/" + i));
+			int expected = (i % 2 == 0 ? 0 : threadCount);
+			assertEquals(expected, actual.size());
+			for (List<String> subsIds : actual.values()) {
+				assertEquals(20, subsIds.size());
+			}
+		}
+	}
+
 	private Message<?> createMessage(String destination) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setDestination(destination);
@@ -101,6 +101,51 @@ public class SimpleBrokerMessageHandlerTests {
 		assertTrue(messageCaptured("sess2", "sub3", "/bar"));
 	}
 
+	@Test
+	public void subscribePublishWithShards() {
+		this.messageHandler.setShardCount(2);
+		startSession("sess1");
+		startSession("sess2");
+
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub2", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub3", "/bar"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess2", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess2", "sub3", "/bar"));
+
+		this.messageHandler.handleMessage(createMessage("/foo", "message1"));
+		this.messageHandler.handleMessage(createMessage("/bar", "message2"));
+
+		verify(this.clientOutChannel, timeout(5000).times(5)).send(this.messageCaptor.capture());
+		assertTrue(messageCaptured("sess1", "sub1", "/foo"));
+		assertTrue(messageCaptured("sess1", "sub2", "/foo"));
+		assertTrue(messageCaptured("sess2", "sub1", "/foo"));
+		assertTrue(messageCaptured("sess1", "sub3", "/bar"));
+		assertTrue(messageCaptured("sess2", "sub3", "/bar"));
+
+		this.messageHandler.stop();
+	}
+
+	@Test
+	public void publishWithShardsPreservesOrder() {
+		this.messageHandler.setShardCount(4);
+		startSession("sess1");
+
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		for (int i = 0; i < 100; i++) {
+			this.messageHandler.handleMessage(createMessage("/foo", "message" + i));
+		}
+
+		verify(this.clientOutChannel, timeout(5000).times(100)).send(this.messageCaptor.capture());
+		List<Message<?>> messages = this.messageCaptor.getAllValues();
+		messages = messages.subList(messages.size() - 100, messages.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("message" + i, messages.get(i).getPayload());
+		}
+
+		this.messageHandler.stop();
+	}
+
 	@Test
 	public void subscribeDisconnectPublish() {
 		String sess1 = "sess1";
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Benchmark for {@link PathPattern#matches} against a set of typical
+ * request mapping patterns, using the same patterns and paths as
+ * {@code AntPathMatcherBenchmark} in spring-core for comparison.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public String[] patternStrings = {"/", "/static/**", "/api/users", "/api/users/{id}",
+				"/api/users/{id}/orders/{orderId}", "/api/*/settings", "/docs/**"};
+
+		public String[] pathStrings = {"/", "/static/css/main.css", "/api/users", "/api/users/42",
+				"/api/users/42/orders/7", "/api/admin/settings", "/docs/guide/intro.html", "/unknown/path"};
+
+		public List<PathPattern> patterns = new ArrayList<>();
+
+		public List<PathContainer> paths = new ArrayList<>();
+
+		@Setup
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			for (String pattern : this.patternStrings) {
+				this.patterns.add(parser.parse(pattern));
+			}
+			for (String path : this.pathStrings) {
+				this.paths.add(PathContainer.parsePath(path));
+			}
+		}
+	}
+
+
+	@Benchmark
+	public void matches(BenchmarkState state, Blackhole bh) {
+		for (PathContainer path : state.paths) {
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseAndMatch(BenchmarkState state, Blackhole bh) {
+		for (String path : state.pathStrings) {
+			PathContainer container = PathContainer.parsePath(path);
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(container));
+			}
+		}
+	}
+
+}
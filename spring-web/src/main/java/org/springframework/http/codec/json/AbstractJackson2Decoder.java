@@ -18,6 +18,8 @@ package org.springframework.http.codec.json;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -38,12 +40,15 @@ import org.springframework.core.codec.CodecException;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.log.LogFormatUtils;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageDecoder;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.util.MimeType;
 
 /**
@@ -57,12 +62,23 @@ import org.springframework.util.MimeType;
  */
 public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport implements HttpMessageDecoder<Object> {
 
+	/**
+	 * The "application/x-ndjson" media type for newline delimited JSON,
+	 * supported for {@link #setLineDelimitedDirectBinding direct binding}
+	 * if configured as one of the decodable mime types.
+	 * @since 5.2
+	 */
+	public static final MimeType NDJSON_MIME_TYPE = new MimeType("application", "x-ndjson");
+
+
 	/**
 	 * Until https://github.com/FasterXML/jackson-core/issues/476 is resolved,
 	 * we need to ensure buffer recycling is off.
 	 */
 	private final JsonFactory jsonFactory;
 
+	private boolean lineDelimitedDirectBinding = false;
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -74,6 +90,30 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 	}
 
 
+	/**
+	 * Whether to bind each line of a newline delimited stream, i.e.
+	 * {@code "application/stream+json"} or {@code "application/x-ndjson"},
+	 * directly from the input buffers, rather than going through the
+	 * non-blocking tokenizer and an intermediate {@code TokenBuffer} per element.
+	 * <p>This avoids most per-element allocations when decoding large streams,
+	 * but requires every element to be contained on a single line, as written
+	 * by {@link Jackson2JsonEncoder} for streaming media types.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.2
+	 */
+	public void setLineDelimitedDirectBinding(boolean lineDelimitedDirectBinding) {
+		this.lineDelimitedDirectBinding = lineDelimitedDirectBinding;
+	}
+
+	/**
+	 * Return whether newline delimited streams are bound directly from the input buffers.
+	 * @since 5.2
+	 */
+	public boolean isLineDelimitedDirectBinding() {
+		return this.lineDelimitedDirectBinding;
+	}
+
+
 	@Override
 	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		JavaType javaType = getObjectMapper().getTypeFactory().constructType(elementType.getType());
@@ -86,11 +126,23 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 	public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
+		if (this.lineDelimitedDirectBinding && isLineDelimited(mimeType)) {
+			ObjectReader reader = getObjectReader(elementType, hints);
+			return Flux.defer(() -> {
+				LineBinder binder = new LineBinder(reader, hints);
+				return Flux.from(input).flatMap(binder::bind, Flux::error, binder::endOfInput);
+			});
+		}
 		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(
 				Flux.from(input), this.jsonFactory, getObjectMapper(), true);
 		return decodeInternal(tokens, elementType, mimeType, hints);
 	}
 
+	private boolean isLineDelimited(@Nullable MimeType mimeType) {
+		return (mimeType != null && (MediaType.APPLICATION_STREAM_JSON.equalsTypeAndSubtype(mimeType) ||
+				NDJSON_MIME_TYPE.equalsTypeAndSubtype(mimeType)));
+	}
+
 	@Override
 	public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
@@ -104,40 +156,51 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Assert.notNull(tokens, "'tokens' must not be null");
-		Assert.notNull(elementType, "'elementType' must not be null");
-
-		MethodParameter param = getParameter(elementType);
-		Class<?> contextClass = (param != null ? param.getContainingClass() : null);
-		JavaType javaType = getJavaType(elementType.getType(), contextClass);
-		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-
-		ObjectReader reader = (jsonView != null ?
-				getObjectMapper().readerWithView(jsonView).forType(javaType) :
-				getObjectMapper().readerFor(javaType));
 
+		ObjectReader reader = getObjectReader(elementType, hints);
 		return tokens.flatMap(tokenBuffer -> {
 			try {
 				Object value = reader.readValue(tokenBuffer.asParser(getObjectMapper()));
-				if (!Hints.isLoggingSuppressed(hints)) {
-					LogFormatUtils.traceDebug(logger, traceOn -> {
-						String formatted = LogFormatUtils.formatValue(value, !traceOn);
-						return Hints.getLogPrefix(hints) + "Decoded [" + formatted + "]";
-					});
-				}
+				logValue(value, hints);
 				return Mono.justOrEmpty(value);
 			}
-			catch (InvalidDefinitionException ex) {
-				return Mono.error(new CodecException("Type definition error: " + ex.getType(), ex));
-			}
-			catch (JsonProcessingException ex) {
-				return Mono.error(new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex));
-			}
 			catch (IOException ex) {
-				return Mono.error(new DecodingException("I/O error while parsing input stream", ex));
+				return Mono.error(processException(ex));
 			}
 		});
 	}
 
+	private ObjectReader getObjectReader(ResolvableType elementType, @Nullable Map<String, Object> hints) {
+		Assert.notNull(elementType, "'elementType' must not be null");
+		MethodParameter param = getParameter(elementType);
+		Class<?> contextClass = (param != null ? param.getContainingClass() : null);
+		JavaType javaType = getJavaType(elementType.getType(), contextClass);
+		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
+		return (jsonView != null ?
+				getObjectMapper().readerWithView(jsonView).forType(javaType) :
+				getObjectMapper().readerFor(javaType));
+	}
+
+	private void logValue(@Nullable Object value, @Nullable Map<String, Object> hints) {
+		if (!Hints.isLoggingSuppressed(hints)) {
+			LogFormatUtils.traceDebug(logger, traceOn -> {
+				String formatted = LogFormatUtils.formatValue(value, !traceOn);
+				return Hints.getLogPrefix(hints) + "Decoded [" + formatted + "]";
+			});
+		}
+	}
+
+	private CodecException processException(IOException ex) {
+		if (ex instanceof InvalidDefinitionException) {
+			return new CodecException("Type definition error: " + ((InvalidDefinitionException) ex).getType(), ex);
+		}
+		if (ex instanceof JsonProcessingException) {
+			String originalMessage = ((JsonProcessingException) ex).getOriginalMessage();
+			return new DecodingException("JSON decoding error: " + originalMessage, ex);
+		}
+		return new DecodingException("I/O error while parsing input stream", ex);
+	}
+
 
 	// HttpMessageDecoder...
 
@@ -160,4 +223,121 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		return parameter.getParameterAnnotation(annotType);
 	}
 
+
+	/**
+	 * Splits newline delimited input into lines and binds each line directly
+	 * from the backing array of the input buffer, or from an accumulated copy
+	 * for the (rare) lines spanning several buffers.
+	 */
+	private class LineBinder {
+
+		private final ObjectReader reader;
+
+		@Nullable
+		private final Map<String, Object> hints;
+
+		private final FastByteArrayOutputStream partialLine = new FastByteArrayOutputStream(256);
+
+		LineBinder(ObjectReader reader, @Nullable Map<String, Object> hints) {
+			this.reader = reader;
+			this.hints = hints;
+		}
+
+		public Flux<Object> bind(DataBuffer dataBuffer) {
+			List<Object> result = new ArrayList<>();
+			try {
+				ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+				int start = byteBuffer.position();
+				int end = byteBuffer.limit();
+				for (int i = start; i < end; i++) {
+					if (byteBuffer.get(i) == '\n') {
+						if (this.partialLine.size() > 0) {
+							append(byteBuffer, start, i);
+							bindPartialLine(result);
+						}
+						else {
+							bindLine(byteBuffer, start, i, result);
+						}
+						start = i + 1;
+					}
+				}
+				if (start < end) {
+					append(byteBuffer, start, end);
+				}
+				return Flux.fromIterable(result);
+			}
+			catch (IOException ex) {
+				// Emit the values bound from preceding lines first, as the tokenizer would
+				return Flux.fromIterable(result).concatWith(Flux.error(processException(ex)));
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		public Flux<Object> endOfInput() {
+			List<Object> result = new ArrayList<>(1);
+			try {
+				bindPartialLine(result);
+				return Flux.fromIterable(result);
+			}
+			catch (IOException ex) {
+				return Flux.error(processException(ex));
+			}
+		}
+
+		private void append(ByteBuffer byteBuffer, int start, int end) throws IOException {
+			if (byteBuffer.hasArray()) {
+				this.partialLine.write(byteBuffer.array(), byteBuffer.arrayOffset() + start, end - start);
+			}
+			else {
+				this.partialLine.write(copyBytes(byteBuffer, start, end));
+			}
+		}
+
+		private void bindPartialLine(List<Object> result) throws IOException {
+			int length = this.partialLine.size();
+			if (length > 0) {
+				byte[] bytes = this.partialLine.toByteArrayUnsafe();
+				this.partialLine.reset();
+				bindLine(ByteBuffer.wrap(bytes, 0, length), 0, length, result);
+			}
+		}
+
+		private void bindLine(ByteBuffer byteBuffer, int start, int end, List<Object> result) throws IOException {
+			if (isBlank(byteBuffer, start, end)) {
+				return;
+			}
+			Object value;
+			if (byteBuffer.hasArray()) {
+				value = this.reader.readValue(byteBuffer.array(), byteBuffer.arrayOffset() + start, end - start);
+			}
+			else {
+				value = this.reader.readValue(copyBytes(byteBuffer, start, end));
+			}
+			logValue(value, this.hints);
+			if (value != null) {
+				result.add(value);
+			}
+		}
+
+		private byte[] copyBytes(ByteBuffer byteBuffer, int start, int end) {
+			byte[] bytes = new byte[end - start];
+			ByteBuffer duplicate = byteBuffer.duplicate();
+			duplicate.position(start);
+			duplicate.get(bytes);
+			return bytes;
+		}
+
+		private boolean isBlank(ByteBuffer byteBuffer, int start, int end) {
+			for (int i = start; i < end; i++) {
+				byte b = byteBuffer.get(i);
+				if (b != ' ' && b != '\t' && b != '\r') {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 }
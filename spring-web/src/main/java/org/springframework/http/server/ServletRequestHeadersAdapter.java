@@ -0,0 +1,314 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server;
+
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code MultiValueMap} implementation that reads through to the headers of
+ * a {@link HttpServletRequest} without copying them.
+ *
+ * <p>Single header lookups such as {@link #getFirst}, {@link #get} and
+ * {@link #containsKey} are delegated to the request. The headers are copied
+ * into a local map only once the map is modified or iterated as a whole,
+ * after which all operations are served from that copy.
+ *
+ * <p>As with the previous eager copy in {@link ServletServerHttpRequest},
+ * the "Content-Type" and "Content-Length" headers fall back on the
+ * corresponding {@code HttpServletRequest} properties, and the request
+ * character encoding is reflected as "charset" parameter of the content type.
+ *
+ * @author agent
+ * @since 5.2
+ */
+class ServletRequestHeadersAdapter implements MultiValueMap<String, String> {
+
+	private final HttpServletRequest servletRequest;
+
+	@Nullable
+	private MultiValueMap<String, String> headers;
+
+	@Nullable
+	private List<String> contentType;
+
+	private boolean contentTypeResolved;
+
+
+	ServletRequestHeadersAdapter(HttpServletRequest servletRequest) {
+		this.servletRequest = servletRequest;
+	}
+
+
+	@Override
+	@Nullable
+	public String getFirst(String key) {
+		if (this.headers != null) {
+			return this.headers.getFirst(key);
+		}
+		List<String> derivedValues = getDerivedValues(key);
+		if (derivedValues != null) {
+			return (!derivedValues.isEmpty() ? derivedValues.get(0) : null);
+		}
+		return this.servletRequest.getHeader(key);
+	}
+
+	@Override
+	@Nullable
+	public List<String> get(Object key) {
+		if (this.headers != null) {
+			return this.headers.get(key);
+		}
+		if (!(key instanceof String)) {
+			return null;
+		}
+		List<String> derivedValues = getDerivedValues((String) key);
+		if (derivedValues != null) {
+			return (!derivedValues.isEmpty() ? derivedValues : null);
+		}
+		return getRequestHeaderValues((String) key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (this.headers != null) {
+			return this.headers.containsKey(key);
+		}
+		return (key instanceof String && getFirst((String) key) != null);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return getHeaders().containsValue(value);
+	}
+
+	@Override
+	public int size() {
+		return getHeaders().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return getHeaders().isEmpty();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return getHeaders().keySet();
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		return getHeaders().values();
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		return getHeaders().entrySet();
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		return getHeaders().toSingleValueMap();
+	}
+
+	@Override
+	public void add(String key, @Nullable String value) {
+		getHeaders().add(key, value);
+	}
+
+	@Override
+	public void addAll(String key, List<? extends String> values) {
+		getHeaders().addAll(key, values);
+	}
+
+	@Override
+	public void addAll(MultiValueMap<String, String> values) {
+		getHeaders().addAll(values);
+	}
+
+	@Override
+	public void set(String key, @Nullable String value) {
+		getHeaders().set(key, value);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		getHeaders().setAll(values);
+	}
+
+	@Override
+	@Nullable
+	public List<String> put(String key, List<String> value) {
+		return getHeaders().put(key, value);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		getHeaders().putAll(map);
+	}
+
+	@Override
+	@Nullable
+	public List<String> remove(Object key) {
+		return getHeaders().remove(key);
+	}
+
+	@Override
+	public void clear() {
+		getHeaders().clear();
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || getHeaders().equals(other));
+	}
+
+	@Override
+	public int hashCode() {
+		return getHeaders().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return HttpHeaders.formatHeaders(this);
+	}
+
+
+	/**
+	 * Return the values for headers that are not taken from the request
+	 * headers as-is, or {@code null} for a regular header.
+	 */
+	@Nullable
+	private List<String> getDerivedValues(String key) {
+		if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(key)) {
+			List<String> values = getContentTypeValues();
+			return (values != null ? values : Collections.emptyList());
+		}
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(key)) {
+			List<String> values = getRequestHeaderValues(key);
+			if (values == null) {
+				int requestContentLength = this.servletRequest.getContentLength();
+				if (requestContentLength != -1) {
+					values = Collections.singletonList(Integer.toString(requestContentLength));
+				}
+			}
+			return (values != null ? values : Collections.emptyList());
+		}
+		return null;
+	}
+
+	@Nullable
+	private List<String> getRequestHeaderValues(String key) {
+		Enumeration<String> values = this.servletRequest.getHeaders(key);
+		if (values == null || !values.hasMoreElements()) {
+			return null;
+		}
+		return Collections.list(values);
+	}
+
+	/**
+	 * Resolve the "Content-Type" values once, falling back on the content type
+	 * and character encoding properties of the request.
+	 */
+	@Nullable
+	private List<String> getContentTypeValues() {
+		if (!this.contentTypeResolved) {
+			this.contentType = resolveContentType();
+			this.contentTypeResolved = true;
+		}
+		return this.contentType;
+	}
+
+	@Nullable
+	private List<String> resolveContentType() {
+		List<String> values = getRequestHeaderValues(HttpHeaders.CONTENT_TYPE);
+		if (values == null) {
+			String requestContentType = this.servletRequest.getContentType();
+			if (!StringUtils.hasLength(requestContentType)) {
+				return null;
+			}
+			values = Collections.singletonList(requestContentType);
+		}
+
+		// Only parse the content type if there is a character encoding to apply
+		String requestEncoding = this.servletRequest.getCharacterEncoding();
+		if (StringUtils.hasLength(requestEncoding)) {
+			try {
+				MediaType contentType = MediaType.parseMediaType(values.get(0));
+				if (contentType.getCharset() == null) {
+					Charset charSet = Charset.forName(requestEncoding);
+					Map<String, String> params = new LinkedCaseInsensitiveMap<>();
+					params.putAll(contentType.getParameters());
+					params.put("charset", charSet.toString());
+					MediaType mediaType = new MediaType(contentType.getType(), contentType.getSubtype(), params);
+					values = Collections.singletonList(mediaType.toString());
+				}
+			}
+			catch (InvalidMediaTypeException ex) {
+				// Ignore: simply not exposing an invalid content type in HttpHeaders...
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Return the local copy of the request headers, creating it on first access.
+	 */
+	private MultiValueMap<String, String> getHeaders() {
+		if (this.headers == null) {
+			HttpHeaders headers = new HttpHeaders();
+			for (Enumeration<?> names = this.servletRequest.getHeaderNames(); names.hasMoreElements();) {
+				String headerName = (String) names.nextElement();
+				for (Enumeration<?> headerValues = this.servletRequest.getHeaders(headerName);
+						headerValues.hasMoreElements();) {
+					String headerValue = (String) headerValues.nextElement();
+					headers.add(headerName, headerValue);
+				}
+			}
+			List<String> contentType = getContentTypeValues();
+			if (contentType != null) {
+				headers.put(HttpHeaders.CONTENT_TYPE, contentType);
+			}
+			if (!headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+				int requestContentLength = this.servletRequest.getContentLength();
+				if (requestContentLength != -1) {
+					headers.setContentLength(requestContentLength);
+				}
+			}
+			this.headers = headers;
+		}
+		return this.headers;
+	}
+
+}
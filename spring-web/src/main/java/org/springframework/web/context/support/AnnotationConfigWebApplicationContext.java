@@ -95,6 +95,8 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 	@Nullable
 	private ScopeMetadataResolver scopeMetadataResolver;
 
+	private boolean parallelScanning = false;
+
 	private final Set<Class<?>> componentClasses = new LinkedHashSet<>();
 
 	private final Set<String> basePackages = new LinkedHashSet<>();
@@ -140,6 +142,26 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 		return this.scopeMetadataResolver;
 	}
 
+	/**
+	 * Set whether the {@link ClassPathBeanDefinitionScanner} should read and
+	 * introspect class files in parallel.
+	 * <p>Default is {@code false}.
+	 * @since 5.2
+	 * @see ClassPathBeanDefinitionScanner#setParallelScanning
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether the {@link ClassPathBeanDefinitionScanner} reads and
+	 * introspects class files in parallel.
+	 * @since 5.2
+	 */
+	protected boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
 
 	/**
 	 * Register one or more component classes to be processed.
@@ -210,6 +232,7 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 		 * 最终实现类 {@link ClassPathBeanDefinitionScanner#ClassPathBeanDefinitionScanner(BeanDefinitionRegistry, boolean, Environment, ResourceLoader)}
 		 */
 		ClassPathBeanDefinitionScanner scanner = getClassPathBeanDefinitionScanner(beanFactory);
+		scanner.setParallelScanning(isParallelScanning());
 
 		// 获取 容器bean 名称 生成器。
 		BeanNameGenerator beanNameGenerator = getBeanNameGenerator();
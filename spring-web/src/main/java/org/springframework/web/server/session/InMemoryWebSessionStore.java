@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,14 +22,20 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.IdGenerator;
 import org.springframework.util.JdkIdGenerator;
@@ -38,6 +44,13 @@ import org.springframework.web.server.WebSession;
 /**
  * Simple Map-based storage for {@link WebSession} instances.
  *
+ * <p>Saved sessions are tracked in an expiration index ordered by the time
+ * at which they are next due to expire, so that a check for expired sessions
+ * only visits sessions that are actually due rather than all sessions. Checks
+ * are kicked off lazily from {@link #createWebSession()} and
+ * {@link #retrieveSession}, or can be moved off the request path entirely
+ * through {@link #setExpirationScheduler}.
+ *
  * @author Rossen Stoyanchev
  * @author Rob Winch
  * @since 5.0
@@ -46,6 +59,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	private static final IdGenerator idGenerator = new JdkIdGenerator();
 
+	private static final AtomicReferenceFieldUpdater<InMemoryWebSession, State> stateUpdater =
+			AtomicReferenceFieldUpdater.newUpdater(InMemoryWebSession.class, State.class, "state");
+
 
 	private int maxSessions = 10000;
 
@@ -55,12 +71,17 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	private final ExpiredSessionChecker expiredSessionChecker = new ExpiredSessionChecker();
 
+	@Nullable
+	private Disposable expirationTask;
+
 
 	/**
 	 * Set the maximum number of sessions that can be stored. Once the limit is
 	 * reached, any attempt to store an additional session will result in an
 	 * {@link IllegalStateException}.
-	 * <p>By default set to 10000.
+	 * <p>By default set to 10000. Since expiration checks only visit sessions
+	 * that are due to expire, this limit may be raised considerably for
+	 * applications that keep a large number of sessions in memory.
 	 * @param maxSessions the maximum number of sessions
 	 * @since 5.0.8
 	 */
@@ -98,6 +119,26 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		return this.clock;
 	}
 
+	/**
+	 * Configure a {@link Scheduler} on which to periodically check for and
+	 * remove expired sessions, instead of checking lazily on calls to
+	 * {@link #createWebSession() create} or {@link #retrieveSession retrieve}.
+	 * <p>By default this is not set and checks are made lazily.
+	 * @param scheduler the scheduler to use, or {@code null} to revert to lazy checks
+	 * @since 5.2
+	 */
+	public void setExpirationScheduler(@Nullable Scheduler scheduler) {
+		if (this.expirationTask != null) {
+			this.expirationTask.dispose();
+			this.expirationTask = null;
+		}
+		if (scheduler != null) {
+			long period = ExpiredSessionChecker.CHECK_PERIOD;
+			this.expirationTask = scheduler.schedulePeriodically(
+					this::removeExpiredSessions, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
 	/**
 	 * Return the map of sessions with an {@link Collections#unmodifiableMap
 	 * unmodifiable} wrapper. This could be used for management purposes, to
@@ -112,20 +153,21 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	@Override
 	public Mono<WebSession> createWebSession() {
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		checkExpiredSessionsIfNecessary(now);
 		return Mono.fromSupplier(() -> new InMemoryWebSession(now));
 	}
 
 	@Override
 	public Mono<WebSession> retrieveSession(String id) {
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		checkExpiredSessionsIfNecessary(now);
 		InMemoryWebSession session = this.sessions.get(id);
 		if (session == null) {
 			return Mono.empty();
 		}
 		else if (session.isExpired(now)) {
 			this.sessions.remove(id);
+			this.expiredSessionChecker.cancelExpiration(session);
 			return Mono.empty();
 		}
 		else {
@@ -136,7 +178,10 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	@Override
 	public Mono<Void> removeSession(String id) {
-		this.sessions.remove(id);
+		InMemoryWebSession session = this.sessions.remove(id);
+		if (session != null) {
+			this.expiredSessionChecker.cancelExpiration(session);
+		}
 		return Mono.empty();
 	}
 
@@ -151,7 +196,8 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	/**
 	 * Check for expired sessions and remove them. Typically such checks are
 	 * kicked off lazily during calls to {@link #createWebSession() create} or
-	 * {@link #retrieveSession retrieve}, no less than 60 seconds apart.
+	 * {@link #retrieveSession retrieve}, no less than 60 seconds apart, or
+	 * periodically on the {@link #setExpirationScheduler expiration scheduler}.
 	 * This method can be called to force a check at a specific time.
 	 * @since 5.0.8
 	 */
@@ -159,12 +205,19 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		this.expiredSessionChecker.removeExpiredSessions(this.clock.instant());
 	}
 
+	private void checkExpiredSessionsIfNecessary(Instant now) {
+		if (this.expirationTask == null) {
+			this.expiredSessionChecker.checkIfNecessary(now);
+		}
+	}
+
 
 	private class InMemoryWebSession implements WebSession {
 
-		private final AtomicReference<String> id = new AtomicReference<>(String.valueOf(idGenerator.generateId()));
+		private volatile String id = String.valueOf(idGenerator.generateId());
 
-		private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+		@Nullable
+		private volatile Map<String, Object> attributes;
 
 		private final Instant creationTime;
 
@@ -172,7 +225,11 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private volatile Duration maxIdleTime = Duration.ofMinutes(30);
 
-		private final AtomicReference<State> state = new AtomicReference<>(State.NEW);
+		/* Not private: updated through the store's stateUpdater */
+		volatile State state = State.NEW;
+
+		@Nullable
+		private volatile ExpirationEntry expirationEntry;
 
 
 		public InMemoryWebSession(Instant creationTime) {
@@ -182,12 +239,27 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		@Override
 		public String getId() {
-			return this.id.get();
+			return this.id;
 		}
 
 		@Override
 		public Map<String, Object> getAttributes() {
-			return this.attributes;
+			Map<String, Object> attributes = this.attributes;
+			if (attributes == null) {
+				synchronized (this) {
+					attributes = this.attributes;
+					if (attributes == null) {
+						attributes = new ConcurrentHashMap<>(4);
+						this.attributes = attributes;
+					}
+				}
+			}
+			return attributes;
+		}
+
+		private boolean hasAttributes() {
+			Map<String, Object> attributes = this.attributes;
+			return (attributes != null && !attributes.isEmpty());
 		}
 
 		@Override
@@ -203,6 +275,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		@Override
 		public void setMaxIdleTime(Duration maxIdleTime) {
 			this.maxIdleTime = maxIdleTime;
+			if (InMemoryWebSessionStore.this.sessions.get(this.id) == this) {
+				expiredSessionChecker.scheduleExpiration(this);
+			}
 		}
 
 		@Override
@@ -212,29 +287,34 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		@Override
 		public void start() {
-			this.state.compareAndSet(State.NEW, State.STARTED);
+			stateUpdater.compareAndSet(this, State.NEW, State.STARTED);
 		}
 
 		@Override
 		public boolean isStarted() {
-			return this.state.get().equals(State.STARTED) || !getAttributes().isEmpty();
+			return this.state.equals(State.STARTED) || hasAttributes();
 		}
 
 		@Override
 		public Mono<Void> changeSessionId() {
-			String currentId = this.id.get();
+			String currentId = this.id;
 			InMemoryWebSessionStore.this.sessions.remove(currentId);
 			String newId = String.valueOf(idGenerator.generateId());
-			this.id.set(newId);
+			this.id = newId;
 			InMemoryWebSessionStore.this.sessions.put(this.getId(), this);
+			expiredSessionChecker.scheduleExpiration(this);
 			return Mono.empty();
 		}
 
 		@Override
 		public Mono<Void> invalidate() {
-			this.state.set(State.EXPIRED);
-			getAttributes().clear();
-			InMemoryWebSessionStore.this.sessions.remove(this.id.get());
+			this.state = State.EXPIRED;
+			Map<String, Object> attributes = this.attributes;
+			if (attributes != null) {
+				attributes.clear();
+			}
+			InMemoryWebSessionStore.this.sessions.remove(this.id);
+			expiredSessionChecker.cancelExpiration(this);
 			return Mono.empty();
 		}
 
@@ -244,17 +324,21 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 			checkMaxSessionsLimit();
 
 			// Implicitly started session..
-			if (!getAttributes().isEmpty()) {
-				this.state.compareAndSet(State.NEW, State.STARTED);
+			if (hasAttributes()) {
+				stateUpdater.compareAndSet(this, State.NEW, State.STARTED);
 			}
 
 			if (isStarted()) {
 				// Save
 				InMemoryWebSessionStore.this.sessions.put(this.getId(), this);
+				if (this.expirationEntry == null) {
+					expiredSessionChecker.scheduleExpiration(this);
+				}
 
 				// Unless it was invalidated
-				if (this.state.get().equals(State.EXPIRED)) {
+				if (this.state.equals(State.EXPIRED)) {
 					InMemoryWebSessionStore.this.sessions.remove(this.getId());
+					expiredSessionChecker.cancelExpiration(this);
 					return Mono.error(new IllegalStateException("Session was invalidated"));
 				}
 			}
@@ -277,11 +361,11 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		}
 
 		private boolean isExpired(Instant now) {
-			if (this.state.get().equals(State.EXPIRED)) {
+			if (this.state.equals(State.EXPIRED)) {
 				return true;
 			}
 			if (checkExpired(now)) {
-				this.state.set(State.EXPIRED);
+				this.state = State.EXPIRED;
 				return true;
 			}
 			return false;
@@ -295,6 +379,45 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		private void updateLastAccessTime(Instant currentTime) {
 			this.lastAccessTime = currentTime;
 		}
+
+		/**
+		 * Return the earliest time, in epoch millis, at which the session
+		 * may expire given its current last access time and max idle time.
+		 */
+		private long getExpirationTime() {
+			Duration maxIdleTime = this.maxIdleTime;
+			if (maxIdleTime.isNegative()) {
+				return Long.MAX_VALUE;
+			}
+			return this.lastAccessTime.plus(maxIdleTime).toEpochMilli();
+		}
+	}
+
+
+	/**
+	 * Entry in the expiration index. A session refers to its current entry,
+	 * which is replaced when the session is re-indexed and dropped from the
+	 * index when the session is removed or invalidated.
+	 */
+	private static class ExpirationEntry implements Comparable<ExpirationEntry> {
+
+		private final InMemoryWebSession session;
+
+		private final long expirationTime;
+
+		private final long sequence;
+
+		public ExpirationEntry(InMemoryWebSession session, long expirationTime, long sequence) {
+			this.session = session;
+			this.expirationTime = expirationTime;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(ExpirationEntry other) {
+			int result = Long.compare(this.expirationTime, other.expirationTime);
+			return (result != 0 ? result : Long.compare(this.sequence, other.sequence));
+		}
 	}
 
 
@@ -309,25 +432,81 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		private Instant checkTime = clock.instant().plus(CHECK_PERIOD, ChronoUnit.MILLIS);
 
 
+		private final NavigableSet<ExpirationEntry> expirationIndex = new ConcurrentSkipListSet<>();
+
+		private final AtomicLong sequence = new AtomicLong();
+
+
 		public void checkIfNecessary(Instant now) {
 			if (this.checkTime.isBefore(now)) {
 				removeExpiredSessions(now);
 			}
 		}
 
+		/**
+		 * Index the given session by its current expiration time, replacing
+		 * its previous entry if any. Sessions that never expire, i.e. with a
+		 * negative max idle time, are not indexed.
+		 */
+		public void scheduleExpiration(InMemoryWebSession session) {
+			synchronized (session) {
+				ExpirationEntry previous = session.expirationEntry;
+				ExpirationEntry entry = null;
+				if (!session.getMaxIdleTime().isNegative()) {
+					entry = new ExpirationEntry(
+							session, session.getExpirationTime(), this.sequence.incrementAndGet());
+					this.expirationIndex.add(entry);
+				}
+				session.expirationEntry = entry;
+				if (previous != null) {
+					this.expirationIndex.remove(previous);
+				}
+			}
+		}
+
+		/**
+		 * Drop the given session from the expiration index.
+		 */
+		public void cancelExpiration(InMemoryWebSession session) {
+			synchronized (session) {
+				ExpirationEntry entry = session.expirationEntry;
+				if (entry != null) {
+					session.expirationEntry = null;
+					this.expirationIndex.remove(entry);
+				}
+			}
+		}
+
+		/**
+		 * Poll the expiration index for sessions that are due. Sessions that
+		 * were accessed in the meantime are re-indexed with their new
+		 * expiration time, so the cost is proportional to the number of due
+		 * entries rather than to the total number of sessions.
+		 */
 		public void removeExpiredSessions(Instant now) {
-			if (sessions.isEmpty()) {
+			if (sessions.isEmpty() && this.expirationIndex.isEmpty()) {
 				return;
 			}
 			if (this.lock.tryLock()) {
 				try {
-					Iterator<InMemoryWebSession> iterator = sessions.values().iterator();
-					while (iterator.hasNext()) {
-						InMemoryWebSession session = iterator.next();
+					long nowMillis = now.toEpochMilli();
+					ExpirationEntry entry;
+					while ((entry = this.expirationIndex.pollFirst()) != null) {
+						if (entry.expirationTime > nowMillis) {
+							this.expirationIndex.add(entry);
+							break;
+						}
+						InMemoryWebSession session = entry.session;
+						if (session.expirationEntry != entry) {
+							continue;
+						}
 						if (session.isExpired(now)) {
-							iterator.remove();
+							sessions.remove(session.getId(), session);
 							session.invalidate();
 						}
+						else {
+							scheduleExpiration(session);
+						}
 					}
 				}
 				finally {
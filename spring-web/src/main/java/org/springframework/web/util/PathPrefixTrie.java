@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of path-mapped items (e.g. request mappings) by the leading literal
+ * segments of their URL path patterns, used to narrow down the candidates
+ * for a lookup path before evaluating the actual matching conditions.
+ *
+ * <p>Each pattern is split into {@code "/"}-separated segments, and the item
+ * is registered at the trie node reached through the literal segments that
+ * precede the first segment with wildcards or URI variables. The last segment
+ * of a pattern is never indexed, so that suffix pattern and trailing slash
+ * matching variants of a pattern remain covered. Items without any patterns
+ * are registered at the root and are therefore candidates for every path.
+ * Segments are compared after trimming and lower-casing, and empty segments
+ * are ignored, which keeps the candidates a superset of the items whose
+ * patterns actually match, for both case-sensitive and case-insensitive
+ * {@link org.springframework.util.AntPathMatcher} and
+ * {@link org.springframework.web.util.pattern.PathPattern} matching.
+ *
+ * <p>This class is not thread-safe: modifications need to be guarded against
+ * concurrent lookups, e.g. through a read-write lock.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <T> the type of items to index
+ */
+public class PathPrefixTrie<T> {
+
+	private final Node<T> root = new Node<>(null, null);
+
+	private final Map<T, List<Node<T>>> registrations = new HashMap<>();
+
+
+	/**
+	 * Register the given item under the given URL path patterns,
+	 * replacing any previous registration of the same item.
+	 * @param item the item to register
+	 * @param patterns the URL path patterns of the item
+	 * (an empty collection indicates an item that may match any path)
+	 */
+	public void add(T item, Collection<String> patterns) {
+		remove(item);
+		List<Node<T>> nodes = new ArrayList<>(1);
+		if (patterns.isEmpty()) {
+			nodes.add(this.root);
+		}
+		for (String pattern : patterns) {
+			Node<T> node = this.root;
+			for (String segment : getPrefixSegments(pattern)) {
+				node = node.getOrCreateChild(segment);
+			}
+			nodes.add(node);
+		}
+		List<Node<T>> registeredNodes = new ArrayList<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			// An item registered at an ancestor is a candidate for any path reaching
+			// the node as well: skip the node in order to avoid duplicate candidates.
+			if (!isCovered(nodes.get(i), nodes.subList(0, i), nodes)) {
+				nodes.get(i).items.add(item);
+				registeredNodes.add(nodes.get(i));
+			}
+		}
+		for (Node<T> node : nodes) {
+			node.pruneIfEmpty();
+		}
+		this.registrations.put(item, registeredNodes);
+	}
+
+	private static <T> boolean isCovered(Node<T> node, List<Node<T>> previousNodes, List<Node<T>> allNodes) {
+		if (previousNodes.contains(node)) {
+			return true;
+		}
+		for (Node<T> other : allNodes) {
+			if (other.isAncestorOf(node)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Remove the registration of the given item, if any.
+	 * @param item the item to remove
+	 */
+	public void remove(T item) {
+		List<Node<T>> nodes = this.registrations.remove(item);
+		if (nodes != null) {
+			for (Node<T> node : nodes) {
+				node.items.remove(item);
+				node.pruneIfEmpty();
+			}
+		}
+	}
+
+	/**
+	 * Return the candidate items for the given {@code "/"}-separated lookup path.
+	 * @param path the lookup path
+	 * @return the items registered along the path, outermost first
+	 */
+	public List<T> getCandidates(String path) {
+		List<T> candidates = new ArrayList<>(this.root.items);
+		Node<T> node = this.root;
+		int start = 0;
+		int length = path.length();
+		while (start < length && !node.children.isEmpty()) {
+			int end = path.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (end > start) {
+				String key = toKey(path.substring(start, end));
+				if (!key.isEmpty()) {
+					node = node.children.get(key);
+					if (node == null) {
+						break;
+					}
+					candidates.addAll(node.items);
+				}
+			}
+			start = end + 1;
+		}
+		return candidates;
+	}
+
+	/**
+	 * Return the candidate items for the given parsed lookup path,
+	 * using the {@link PathContainer.PathSegment#valueToMatch() value to match}
+	 * of each path segment.
+	 * @param path the lookup path
+	 * @return the items registered along the path, outermost first
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		List<T> candidates = new ArrayList<>(this.root.items);
+		Node<T> node = this.root;
+		for (PathContainer.Element element : path.elements()) {
+			if (node.children.isEmpty()) {
+				break;
+			}
+			if (element instanceof PathContainer.PathSegment) {
+				String key = toKey(((PathContainer.PathSegment) element).valueToMatch());
+				if (!key.isEmpty()) {
+					node = node.children.get(key);
+					if (node == null) {
+						break;
+					}
+					candidates.addAll(node.items);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Return the number of registered items.
+	 */
+	public int size() {
+		return this.registrations.size();
+	}
+
+
+	private static List<String> getPrefixSegments(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, "/")) {
+			segments.add(segment);
+		}
+		if (segments.isEmpty()) {
+			return segments;
+		}
+		// Never index the last segment: it may be matched with a suffix or trailing slash
+		segments.remove(segments.size() - 1);
+		for (int i = 0; i < segments.size(); i++) {
+			if (!isLiteral(segments.get(i))) {
+				return segments.subList(0, i);
+			}
+			segments.set(i, toKey(segments.get(i)));
+		}
+		return segments;
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}' || c == '%' || c == ';' || c == '\\') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toKey(String segment) {
+		String key = segment.trim();
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (Character.toLowerCase(c) != c) {
+				char[] chars = key.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = Character.toLowerCase(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return key;
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private final Node<T> parent;
+
+		@Nullable
+		private final String key;
+
+		private final List<T> items = new ArrayList<>(1);
+
+		private Map<String, Node<T>> children = Collections.emptyMap();
+
+		Node(@Nullable Node<T> parent, @Nullable String key) {
+			this.parent = parent;
+			this.key = key;
+		}
+
+		Node<T> getOrCreateChild(String key) {
+			Node<T> child = this.children.get(key);
+			if (child == null) {
+				if (this.children.isEmpty()) {
+					this.children = new HashMap<>(4);
+				}
+				child = new Node<>(this, key);
+				this.children.put(key, child);
+			}
+			return child;
+		}
+
+		boolean isAncestorOf(Node<T> node) {
+			for (Node<T> current = node.parent; current != null; current = current.parent) {
+				if (current == this) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void pruneIfEmpty() {
+			Node<T> node = this;
+			while (node.parent != null && node.items.isEmpty() && node.children.isEmpty()) {
+				node.parent.children.remove(node.key);
+				node = node.parent;
+			}
+		}
+	}
+
+}
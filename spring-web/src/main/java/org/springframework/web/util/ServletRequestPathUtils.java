@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} into a
+ * {@link RequestPath} for matching against parsed
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+ * caching the result in a request attribute so that the path is parsed only
+ * once per request, no matter how many patterns are matched against it.
+ *
+ * <p>The {@link RequestPath#contextPath() context path} of the parsed path
+ * includes the servlet path for a path-mapped Servlet (e.g. "/app/*"), so that
+ * the {@link RequestPath#pathWithinApplication() path within the application}
+ * corresponds to the lookup path that {@link UrlPathHelper} determines by
+ * default. Include dispatches are taken into account; a cached path that no
+ * longer corresponds to the request URI (e.g. after a forward) is re-parsed.
+ *
+ * @author agent
+ * @since 5.2
+ * @see org.springframework.web.util.pattern.PathPattern#matches
+ */
+public abstract class ServletRequestPathUtils {
+
+	/** Name of the request attribute that holds the parsed {@link RequestPath}. */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Return the parsed {@link RequestPath} for the given request, parsing
+	 * and caching it in the {@link #PATH_ATTRIBUTE} request attribute if
+	 * not parsed for the current request URI yet.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath getParsedRequestPath(HttpServletRequest request) {
+		Object cached = request.getAttribute(PATH_ATTRIBUTE);
+		if (cached instanceof RequestPath && ((RequestPath) cached).value().equals(getRequestUri(request))) {
+			return (RequestPath) cached;
+		}
+		return parseAndCache(request);
+	}
+
+	/**
+	 * Parse the path of the given request into a {@link RequestPath} and
+	 * cache it in the {@link #PATH_ATTRIBUTE} request attribute.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Remove the cached {@link RequestPath}, if any, from the given request.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(HttpServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+	private static RequestPath parse(HttpServletRequest request) {
+		boolean include = (request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE) != null);
+		String requestUri = getRequestUri(request);
+		String contextPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE) : request.getContextPath());
+		String servletPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE) : request.getServletPath());
+		String pathInfo = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE) : request.getPathInfo());
+
+		contextPath = (contextPath != null ? contextPath : "");
+		if (pathInfo != null && StringUtils.hasLength(servletPath) && !"/".equals(servletPath)) {
+			// Path-mapped Servlet: treat the servlet path as part of the context path
+			String servletPathPrefix = UriUtils.encodePath(servletPath, StandardCharsets.UTF_8);
+			try {
+				return RequestPath.parse(requestUri, contextPath + servletPathPrefix);
+			}
+			catch (IllegalArgumentException ex) {
+				// Servlet path not matching the raw request URI: fall back to the context path only
+			}
+		}
+		return RequestPath.parse(requestUri, contextPath);
+	}
+
+	private static String getRequestUri(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		return (requestUri != null ? requestUri : request.getRequestURI());
+	}
+
+}
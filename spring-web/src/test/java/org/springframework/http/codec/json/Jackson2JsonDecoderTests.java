@@ -124,6 +124,46 @@ public class Jackson2JsonDecoderTests extends AbstractDecoderTestCase<Jackson2Js
 	}
 
 
+	@Test
+	public void decodeLineDelimitedWithDirectBinding() {
+		this.decoder.setLineDelimitedDirectBinding(true);
+		Flux<DataBuffer> input = Flux.concat(
+				stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"}\n{\"bar\":"),
+				stringBuffer("\"b2\",\"foo\":\"f2\"}\r\n\n"),
+				stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"}"));
+
+		testDecodeAll(input, forClass(Pojo.class), step -> step
+				.expectNext(pojo1)
+				.expectNext(pojo2)
+				.expectNext(pojo1)
+				.verifyComplete(), APPLICATION_STREAM_JSON, null);
+	}
+
+	@Test
+	public void decodeLineDelimitedWithDirectBindingInvalidJson() {
+		this.decoder.setLineDelimitedDirectBinding(true);
+		Flux<DataBuffer> input = Flux.concat(
+				stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"}\n"),
+				stringBuffer("{\"bar\":\"b2\"\n"));
+
+		testDecode(input, forClass(Pojo.class), step -> step
+				.expectNext(pojo1)
+				.expectError(DecodingException.class)
+				.verify(), NDJSON_MIME_TYPE, null);
+	}
+
+	@Test
+	public void decodeLineDelimitedWithDirectBindingInvalidJsonInSameBuffer() {
+		this.decoder.setLineDelimitedDirectBinding(true);
+		Flux<DataBuffer> input = Flux.from(
+				stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"}\n{\"bar\":\"b2\"\n{\"bar\":\"b1\",\"foo\":\"f1\"}\n"));
+
+		testDecode(input, forClass(Pojo.class), step -> step
+				.expectNext(pojo1)
+				.expectError(DecodingException.class)
+				.verify(), NDJSON_MIME_TYPE, null);
+	}
+
 	@Test
 	public void decodeEmptyArrayToFlux() {
 		Flux<DataBuffer> input = Flux.from(stringBuffer("[]"));
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Before;
@@ -148,6 +150,35 @@ public class ServletServerHttpRequestTests {
 		assertNull(headers.getContentType());
 	}
 
+	@Test
+	public void getHeadersReadsThroughToRequest() {
+		HttpHeaders headers = request.getHeaders();
+		mockRequest.addHeader("MyHeader", "value1");
+		mockRequest.setContent(new byte[] {1, 2, 3});
+
+		assertEquals("value1", headers.getFirst("myheader"));
+		assertTrue(headers.containsKey("MyHeader"));
+		assertEquals(3, headers.getContentLength());
+		assertNull(headers.get("Other"));
+	}
+
+	@Test
+	public void getHeadersCopiedOnWrite() {
+		mockRequest.addHeader("MyHeader", "value1");
+		mockRequest.setContentType("text/plain");
+		mockRequest.setCharacterEncoding("UTF-8");
+
+		HttpHeaders headers = request.getHeaders();
+		headers.add("MyHeader", "value2");
+		headers.setAccept(Collections.singletonList(MediaType.TEXT_HTML));
+
+		assertEquals(Arrays.asList("value1", "value2"), headers.get("MyHeader"));
+		assertEquals(Collections.singletonList(MediaType.TEXT_HTML), headers.getAccept());
+		assertEquals(new MediaType("text", "plain", StandardCharsets.UTF_8), headers.getContentType());
+		assertEquals(3, headers.size());
+		assertNull(mockRequest.getHeader(HttpHeaders.ACCEPT));
+	}
+
 	@Test
 	public void getBody() throws IOException {
 		byte[] content = "Hello World".getBytes("UTF-8");
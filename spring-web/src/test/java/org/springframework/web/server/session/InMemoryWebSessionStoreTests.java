@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,19 @@ package org.springframework.web.server.session;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Map;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
 
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.web.server.WebSession;
 
 import static junit.framework.TestCase.assertSame;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -144,6 +147,97 @@ public class InMemoryWebSessionStoreTests {
 		assertEquals(1, sessions.size());
 	}
 
+	@Test
+	public void expirationCheckKeepsRecentlyAccessedSessions() {
+		Map<String, WebSession> sessions = this.store.getSessions();
+		WebSession idle = insertSession();
+		WebSession active = insertSession();
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(20)));
+		assertNotNull(this.store.retrieveSession(active.getId()).block());
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(11)));
+		assertEquals(1, sessions.size());
+		assertTrue(sessions.containsKey(active.getId()));
+		assertTrue(idle.isExpired());
+	}
+
+	@Test
+	public void expirationCheckAfterMaxIdleTimeChange() {
+		Map<String, WebSession> sessions = this.store.getSessions();
+		WebSession session = insertSession();
+		session.setMaxIdleTime(Duration.ofMinutes(5));
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(6)));
+		assertEquals(0, sessions.size());
+	}
+
+	@Test
+	public void expirationCheckAfterSessionIdChange() {
+		Map<String, WebSession> sessions = this.store.getSessions();
+		WebSession session = insertSession();
+		String oldId = session.getId();
+		session.changeSessionId().block();
+		assertEquals(1, getExpirationIndex().size());
+		assertTrue(sessions.containsKey(session.getId()));
+		assertFalse(sessions.containsKey(oldId));
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(31)));
+		assertEquals(0, sessions.size());
+		assertEquals(0, getExpirationIndex().size());
+	}
+
+	@Test
+	public void removedSessionsLeaveExpirationIndex() {
+		WebSession removed = insertSession();
+		WebSession invalidated = insertSession();
+		insertSession();
+		assertEquals(3, getExpirationIndex().size());
+
+		this.store.removeSession(removed.getId()).block();
+		invalidated.invalidate().block();
+		assertEquals(1, getExpirationIndex().size());
+	}
+
+	@Test
+	public void sessionWithoutMaxIdleTimeIsNotIndexed() {
+		WebSession session = this.store.createWebSession().block();
+		assertNotNull(session);
+		session.setMaxIdleTime(Duration.ofSeconds(-1));
+		session.start();
+		session.save().block();
+		assertEquals(0, getExpirationIndex().size());
+
+		session.setMaxIdleTime(Duration.ofMinutes(5));
+		assertEquals(1, getExpirationIndex().size());
+
+		session.setMaxIdleTime(Duration.ofSeconds(-1));
+		assertEquals(0, getExpirationIndex().size());
+	}
+
+	@Test
+	public void expirationCheckOnScheduler() {
+		VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+		this.store.setExpirationScheduler(scheduler);
+
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Map<?,?> sessions = (Map<?, ?>) accessor.getPropertyValue("sessions");
+		assertNotNull(sessions);
+
+		IntStream.range(0, 100).forEach(i -> insertSession());
+		accessor.setPropertyValue("clock", Clock.offset(this.store.getClock(), Duration.ofMinutes(31)));
+
+		// Request path no longer triggers the check
+		insertSession();
+		assertEquals(101, sessions.size());
+
+		scheduler.advanceTimeBy(Duration.ofMinutes(1));
+		assertEquals(1, sessions.size());
+
+		this.store.setExpirationScheduler(null);
+		scheduler.dispose();
+	}
+
 	@Test
 	public void maxSessions() {
 
@@ -166,4 +260,9 @@ public class InMemoryWebSessionStoreTests {
 		return session;
 	}
 
+	private Collection<?> getExpirationIndex() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		return (Collection<?>) accessor.getPropertyValue("expiredSessionChecker.expirationIndex");
+	}
+
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathPrefixTrie}.
+ *
+ * @author agent
+ */
+public class PathPrefixTrieTests {
+
+	private final PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+
+
+	@Test
+	public void literalPrefix() {
+		this.trie.add("users", Collections.singleton("/api/users/{id}"));
+		this.trie.add("orders", Collections.singleton("/api/orders/{id}"));
+
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api/users/42"));
+		assertEquals(Collections.singletonList("orders"), this.trie.getCandidates("/api/orders/42"));
+		assertEquals(Collections.emptyList(), this.trie.getCandidates("/api/items/42"));
+		assertEquals(Collections.emptyList(), this.trie.getCandidates("/other"));
+	}
+
+	@Test
+	public void lastSegmentIsNotIndexed() {
+		this.trie.add("users", Collections.singleton("/api/users"));
+
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api/users"));
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api/users.json"));
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api/users/"));
+		assertEquals(Collections.emptyList(), this.trie.getCandidates("/other/users"));
+	}
+
+	@Test
+	public void wildcardsStopIndexing() {
+		this.trie.add("any", Collections.singleton("/**"));
+		this.trie.add("star", Collections.singleton("/api/*/items/list"));
+		this.trie.add("variable", Collections.singleton("/{version}/items/list"));
+
+		assertEquals(Arrays.asList("any", "variable"), this.trie.getCandidates("/other/items/list"));
+		assertEquals(Arrays.asList("any", "variable", "star"), this.trie.getCandidates("/api/v1/items/list"));
+	}
+
+	@Test
+	public void emptyPatterns() {
+		this.trie.add("all", Collections.emptySet());
+		this.trie.add("users", Collections.singleton("/api/users/{id}"));
+
+		assertEquals(Collections.singletonList("all"), this.trie.getCandidates("/other"));
+		assertEquals(Arrays.asList("all", "users"), this.trie.getCandidates("/api/users/42"));
+	}
+
+	@Test
+	public void caseAndEmptySegmentsAreIgnored() {
+		this.trie.add("users", Collections.singleton("/API/Users/{id}"));
+
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api//USERS/42"));
+	}
+
+	@Test
+	public void noDuplicateCandidates() {
+		this.trie.add("users", Arrays.asList("/api/users/{id}", "/api/{id}", "/api/users/{id}/x", "/api/users/{id}"));
+
+		assertEquals(Collections.singletonList("users"), this.trie.getCandidates("/api/users/42"));
+	}
+
+	@Test
+	public void pathContainer() {
+		this.trie.add("users", Collections.singleton("/api/users/{id}"));
+
+		assertEquals(Collections.singletonList("users"),
+				this.trie.getCandidates(PathContainer.parsePath("/api;a=b/users/42")));
+		assertEquals(Collections.emptyList(), this.trie.getCandidates(PathContainer.parsePath("/api/orders/42")));
+	}
+
+	@Test
+	public void remove() {
+		this.trie.add("users", Collections.singleton("/api/users/{id}"));
+		this.trie.add("orders", Collections.singleton("/api/orders/{id}"));
+		this.trie.remove("users");
+
+		assertEquals(1, this.trie.size());
+		assertEquals(Collections.emptyList(), this.trie.getCandidates("/api/users/42"));
+		assertEquals(Collections.singletonList("orders"), this.trie.getCandidates("/api/orders/42"));
+
+		this.trie.add("orders", Collections.singleton("/other/orders/{id}"));
+		assertEquals(1, this.trie.size());
+		assertEquals(Collections.emptyList(), this.trie.getCandidates("/api/orders/42"));
+		assertEquals(Collections.singletonList("orders"), this.trie.getCandidates("/other/orders/42"));
+	}
+
+}
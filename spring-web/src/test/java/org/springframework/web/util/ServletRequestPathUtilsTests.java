@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @author agent
+ */
+public class ServletRequestPathUtilsTests {
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+
+	@Test
+	public void parseWithDefaultServlet() {
+		this.request.setRequestURI("/app/welcome.html");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/welcome.html");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(this.request);
+		assertEquals("/app", path.contextPath().value());
+		assertEquals("/welcome.html", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parseWithPathMappedServlet() {
+		this.request.setRequestURI("/app/servlet/a/b");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/servlet");
+		this.request.setPathInfo("/a/b");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(this.request);
+		assertEquals("/app/servlet", path.contextPath().value());
+		assertEquals("/a/b", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parseWithPathMappedServletAndEncodedServletPath() {
+		this.request.setRequestURI("/app/my%20servlet/a");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/my servlet");
+		this.request.setPathInfo("/a");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(this.request);
+		assertEquals("/app/my%20servlet", path.contextPath().value());
+		assertEquals("/a", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parseWithServletPathNotMatchingRequestUri() {
+		this.request.setRequestURI("/app/%73ervlet/a");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/servlet");
+		this.request.setPathInfo("/a");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(this.request);
+		assertEquals("/app", path.contextPath().value());
+		assertEquals("/%73ervlet/a", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parseWithInclude() {
+		this.request.setRequestURI("/app/main");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/main");
+		this.request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/servlet/included");
+		this.request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+		this.request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/servlet");
+		this.request.setAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE, "/included");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(this.request);
+		assertEquals("/app/servlet", path.contextPath().value());
+		assertEquals("/included", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void getParsedRequestPathCachesPerRequestUri() {
+		this.request.setRequestURI("/app/a");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/a");
+
+		RequestPath path = ServletRequestPathUtils.getParsedRequestPath(this.request);
+		assertSame(path, this.request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+		assertSame(path, ServletRequestPathUtils.getParsedRequestPath(this.request));
+
+		this.request.setRequestURI("/app/b");
+		this.request.setServletPath("/b");
+		RequestPath forwardedPath = ServletRequestPathUtils.getParsedRequestPath(this.request);
+		assertNotSame(path, forwardedPath);
+		assertEquals("/b", forwardedPath.pathWithinApplication().value());
+
+		ServletRequestPathUtils.clearParsedRequestPath(this.request);
+		assertNull(this.request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+	}
+
+}
@@ -205,6 +205,46 @@ public class RequestMappingInfoHandlerMappingTests {
 				exchange.getAttributes().get(name));
 	}
 
+	@Test
+	public void getHandlerWithVariablePathPrefix() {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		Method expected = on(PathPrefixController.class).annot(getMapping("/{version}/orders/list")).resolveMethod();
+		ServerWebExchange exchange = MockServerWebExchange.from(get("/v1/orders/list"));
+		HandlerMethod hm = (HandlerMethod) this.handlerMapping.getHandler(exchange).block();
+
+		assertEquals(expected, hm.getMethod());
+		assertEquals("v1", getUriTemplateVariables(exchange).get("version"));
+	}
+
+	@Test
+	public void getHandlerWithSuffixPattern() {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		Method expected = on(PathPrefixController.class).annot(getMapping("/api/files/*.pdf")).resolveMethod();
+		ServerWebExchange exchange = MockServerWebExchange.from(get("/api/files/report.pdf"));
+		HandlerMethod hm = (HandlerMethod) this.handlerMapping.getHandler(exchange).block();
+
+		assertEquals(expected, hm.getMethod());
+
+		expected = on(PathPrefixController.class).annot(getMapping("/api/orders/{id}")).resolveMethod();
+		exchange = MockServerWebExchange.from(get("/api;v=2/orders/1/"));
+		hm = (HandlerMethod) this.handlerMapping.getHandler(exchange).block();
+
+		assertEquals(expected, hm.getMethod());
+	}
+
+	@Test
+	public void getHandlerWithoutMatchingPathPrefixCandidate() {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		ServerWebExchange exchange = MockServerWebExchange.from(get("/api/unknown/1"));
+		assertNull(this.handlerMapping.getHandler(exchange).block());
+
+		exchange = MockServerWebExchange.from(post("/api/orders/1"));
+		Mono<Object> mono = this.handlerMapping.getHandler(exchange);
+
+		assertError(mono, MethodNotAllowedException.class,
+				ex -> assertEquals(EnumSet.of(HttpMethod.GET), ex.getSupportedMethods()));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void handleMatchUriTemplateVariables() {
@@ -449,6 +489,24 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class PathPrefixController {
+
+		@GetMapping("/{version}/orders/list")
+		public void orderList() {
+		}
+
+		@GetMapping("/api/orders/{id}")
+		public void order() {
+		}
+
+		@GetMapping("/api/files/*.pdf")
+		public void file() {
+		}
+	}
+
+
 	private static class TestRequestMappingInfoHandlerMapping extends RequestMappingInfoHandlerMapping {
 
 		void registerHandler(Object handler) {
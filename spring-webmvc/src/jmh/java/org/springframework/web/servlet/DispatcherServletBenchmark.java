@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.mock.web.test.MockServletConfig;
+import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Benchmark for {@link DispatcherServlet} request dispatch to annotated
+ * controllers, using mock Servlet requests and responses.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DispatcherServletBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"/static", "/users/42", "/search"})
+		public String requestUri;
+
+		public DispatcherServlet servlet;
+
+		@Setup
+		public void setup() throws ServletException {
+			AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+			context.register(WebConfig.class);
+			MockServletContext servletContext = new MockServletContext();
+			context.setServletContext(servletContext);
+			this.servlet = new DispatcherServlet(context);
+			this.servlet.init(new MockServletConfig(servletContext));
+		}
+	}
+
+
+	@Benchmark
+	public Object dispatch(BenchmarkState state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", state.requestUri);
+		request.addParameter("q", "spring");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		state.servlet.service(request, response);
+		return response.getContentAsString();
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class WebConfig {
+
+		@RestController
+		static class BenchmarkController {
+
+			@GetMapping("/static")
+			public String staticPath() {
+				return "static";
+			}
+
+			@GetMapping("/users/{id}")
+			public String user(@PathVariable("id") String id) {
+				return id;
+			}
+
+			@GetMapping("/search")
+			public String search(@RequestParam("q") String q) {
+				return q;
+			}
+		}
+	}
+
+}
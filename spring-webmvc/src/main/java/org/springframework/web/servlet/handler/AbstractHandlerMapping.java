@@ -30,6 +30,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -46,7 +47,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -78,6 +81,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -185,6 +191,41 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the {@link PathPatternParser} to parse URL patterns with, matching
+	 * parsed {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * against the request path, parsed once per request via
+	 * {@link ServletRequestPathUtils}, instead of matching String patterns
+	 * against the lookup path with the {@link #setPathMatcher PathMatcher}.
+	 * <p>This applies to {@link MappedInterceptor} patterns as well as to the
+	 * URL patterns of subclasses that support it, and needs to be set before
+	 * handlers get registered. Default is {@code null}, using the PathMatcher.
+	 * @since 5.2
+	 * @see #usesPathPatterns()
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link PathPatternParser} to parse URL patterns with, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Whether URL patterns are matched as parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+	 * @since 5.2
+	 * @see #setPatternParser
+	 */
+	public boolean usesPathPatterns() {
+		return (this.patternParser != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -298,6 +339,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 		// 初始化拦截器，因为拦截器有不同的实现，所以需要将不同的拦截器适配到最终的 HandlerInterceptor 实现。
 		initInterceptors();
+		initInterceptorPathPatterns();
 	}
 
 	/**
@@ -348,6 +390,25 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		}
 	}
 
+	/**
+	 * Parse the path patterns of {@link MappedInterceptor MappedInterceptors} with
+	 * the configured {@link #setPatternParser PathPatternParser}, if any, so that
+	 * patterns it does not support are rejected on initialization.
+	 */
+	private void initInterceptorPathPatterns() {
+		if (this.patternParser == null) {
+			return;
+		}
+		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
+			if (interceptor instanceof MappedInterceptor) {
+				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
+				if (mappedInterceptor.getPathMatcher() == null) {
+					mappedInterceptor.parsePathPatterns(this.patternParser);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Adapt the given interceptor object to the {@link HandlerInterceptor} interface.
 	 * <p>By default, the supported interceptor types are {@link HandlerInterceptor}
@@ -480,6 +541,41 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Determine the lookup path for the given request, to match direct URLs
+	 * and path prefixes against.
+	 * <p>If {@link #usesPathPatterns() parsed patterns} are used, this is the
+	 * decoded value of the {@link ServletRequestPathUtils#getParsedRequestPath
+	 * parsed path} within the application, without path parameters, i.e. the
+	 * same path that the {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} are matched against. Otherwise, it is the lookup path as
+	 * determined by the {@link #getUrlPathHelper() UrlPathHelper}.
+	 * @param request current HTTP request
+	 * @return the lookup path
+	 * @since 5.2
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			return getValueToMatch(path);
+		}
+		return this.urlPathHelper.getLookupPathForRequest(request);
+	}
+
+	/**
+	 * Return the decoded value of the given path, without path parameters,
+	 * consistent with a path within the mapping as determined by the
+	 * {@link UrlPathHelper} with default settings.
+	 */
+	static String getValueToMatch(PathContainer path) {
+		StringBuilder sb = new StringBuilder(path.value().length());
+		for (PathContainer.Element element : path.elements()) {
+			sb.append(element instanceof PathContainer.PathSegment ?
+					((PathContainer.PathSegment) element).valueToMatch() : element.value());
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -504,13 +600,27 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		HandlerExecutionChain chain = (handler instanceof HandlerExecutionChain ?
 				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		String lookupPath = null;
+		PathContainer path = null;
 		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
 
 			// 判断处理器的类型
 			if (interceptor instanceof MappedInterceptor) {
 				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
-				if (mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
+				boolean matches;
+				if (this.patternParser != null && mappedInterceptor.getPathMatcher() == null) {
+					if (path == null) {
+						path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+					}
+					matches = mappedInterceptor.matches(path, this.patternParser);
+				}
+				else {
+					if (lookupPath == null) {
+						lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+					}
+					matches = mappedInterceptor.matches(lookupPath, this.pathMatcher);
+				}
+				if (matches) {
 
 					// 添加初始化拦截器
 					chain.addInterceptor(mappedInterceptor.getInterceptor());
@@ -40,14 +40,17 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.PathPrefixTrie;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -360,7 +363,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		this.mappingRegistry.acquireReadLock();
 		try {
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -387,6 +390,12 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		if (directPathMatches != null) {
 			addMatchingMappings(directPathMatches, matches, request);
 		}
+		if (matches.isEmpty()) {
+			List<T> pathPrefixMatches = this.mappingRegistry.getMappingsByPathPrefix(lookupPath);
+			if (pathPrefixMatches != null) {
+				addMatchingMappings(pathPrefixMatches, matches, request);
+			}
+		}
 		if (matches.isEmpty()) {
 			// No choice but to go through all mappings...
 			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
@@ -493,6 +502,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	/**
 	 * Extract and return the URL paths contained in a mapping.
+	 * <p>The leading literal segments of these paths are also used to narrow
+	 * down the candidate mappings for a lookup path. A mapping that may match
+	 * requests regardless of its URL paths should return an empty set.
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
@@ -528,6 +540,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPrefixTrie<T> pathPrefixLookup = new PathPrefixTrie<>();
+
+		private boolean pathPrefixLookupSupported;
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -551,6 +567,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings whose URL paths may match the given lookup path,
+		 * or {@code null} if the configured {@link org.springframework.util.PathMatcher}
+		 * does not allow for narrowing down mappings by path prefix. Not thread-safe.
+		 * @since 5.2
+		 * @see #acquireReadLock()
+		 */
+		@Nullable
+		public List<T> getMappingsByPathPrefix(String lookupPath) {
+			return (this.pathPrefixLookupSupported ? this.pathPrefixLookup.getCandidates(lookupPath) : null);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -592,6 +620,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				this.pathPrefixLookup.add(mapping, getMappingPathPatterns(mapping));
+				this.pathPrefixLookupSupported = isPathPrefixLookupSupported(getPathMatcher());
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -630,6 +661,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		private boolean isPathPrefixLookupSupported(PathMatcher pathMatcher) {
+			// Literal path segments only need to match exactly with the standard
+			// AntPathMatcher, which does not expose its separator: probe for "/".
+			return (pathMatcher.getClass() == AntPathMatcher.class &&
+					"/a/b".equals(pathMatcher.combine("/a", "b")));
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -668,6 +706,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.pathPrefixLookup.remove(definition.getMapping());
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -28,10 +28,14 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for URL-mapped {@link org.springframework.web.servlet.HandlerMapping}
@@ -48,6 +52,10 @@ import org.springframework.web.servlet.HandlerExecutionChain;
  * current request path. The most exact match is defined as the longest
  * path pattern that matches the current request path.
  *
+ * <p>If a {@link #setPatternParser PathPatternParser} is set, registered URL
+ * patterns are parsed into {@link PathPattern PathPatterns} and matched against
+ * the parsed request path instead, with the most specific match winning.
+ *
  * @author Juergen Hoeller
  * @author Arjen Poutsma
  * @since 16.04.2003
@@ -63,6 +71,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -122,7 +132,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
 
 		// 通过实用方法获得查找路径。
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 
 		/**
 		 * 最佳匹配处理器 {@link #lookupHandler(String, HttpServletRequest)}
@@ -166,7 +176,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	 * both "/test" and "/team". For details, see the AntPathMatcher class.
 	 * <p>Looks for the most exact pattern, where most exact is defined as
 	 * the longest path pattern.
-	 * @param urlPath the URL the bean is mapped to
+	 * @param urlPath the URL the bean is mapped to, as determined by {@link #initLookupPath}
 	 * @param request current HTTP request (to expose the path within the mapping to)
 	 * @return the associated handler instance, or {@code null} if not found
 	 * @see #exposePathWithinMapping
@@ -197,6 +207,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		}
 
 		// Pattern match?
+		if (usesPathPatterns()) {
+			return lookupPathPatternHandler(ServletRequestPathUtils.getParsedRequestPath(request), request);
+		}
 
 		// 执行最佳匹配方案。
 		List<String> matchingPatterns = new ArrayList<>();
@@ -281,6 +294,48 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return null;
 	}
 
+	/**
+	 * Look up a handler instance for the given parsed request path, matching
+	 * it against the {@link PathPattern PathPatterns} parsed on registration.
+	 * @param path the parsed request path
+	 * @param request current HTTP request
+	 * @return the associated handler instance, or {@code null} if not found
+	 * @see #setPatternParser
+	 */
+	@Nullable
+	private Object lookupPathPatternHandler(RequestPath path, HttpServletRequest request) throws Exception {
+		PathContainer pathWithinApplication = path.pathWithinApplication();
+		List<PathPattern> matchingPatterns = new ArrayList<>();
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(pathWithinApplication)) {
+				matchingPatterns.add(pattern);
+			}
+		}
+		if (matchingPatterns.isEmpty()) {
+			return null;
+		}
+		matchingPatterns.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		if (logger.isTraceEnabled() && matchingPatterns.size() > 1) {
+			logger.trace("Matching patterns " + matchingPatterns);
+		}
+		PathPattern bestMatch = matchingPatterns.get(0);
+		Object handler = this.pathPatternHandlerMap.get(bestMatch);
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			handler = obtainApplicationContext().getBean(handlerName);
+		}
+		validateHandler(handler, request);
+
+		String pathWithinMapping = getValueToMatch(bestMatch.extractPathWithinPattern(pathWithinApplication));
+		PathPattern.PathMatchInfo matchInfo = bestMatch.matchAndExtract(pathWithinApplication);
+		Map<String, String> uriTemplateVariables = (matchInfo != null ?
+				matchInfo.getUriVariables() : Collections.emptyMap());
+		if (logger.isTraceEnabled() && uriTemplateVariables.size() > 0) {
+			logger.trace("URI variables " + uriTemplateVariables);
+		}
+		return buildPathExposingHandler(handler, bestMatch.getPatternString(), pathWithinMapping, uriTemplateVariables);
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -421,6 +476,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				if (getPatternParser() != null) {
+					this.pathPatternHandlerMap.put(getPatternParser().parse(urlPath), resolvedHandler);
+				}
 				if (logger.isTraceEnabled()) {
 					logger.trace("Mapped [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
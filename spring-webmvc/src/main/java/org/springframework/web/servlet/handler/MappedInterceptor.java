@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,15 @@ package org.springframework.web.servlet.handler;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.context.request.WebRequestInterceptor;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Contains and delegates calls to a {@link HandlerInterceptor} along with
@@ -55,6 +58,9 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private volatile ParsedPatterns parsedPatterns;
+
 
 	/**
 	 * Create a new MappedInterceptor instance.
@@ -163,6 +169,56 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		return false;
 	}
 
+	/**
+	 * Parse the include and exclude patterns with the given parser, for
+	 * subsequent use by {@link #matches(PathContainer, PathPatternParser)}.
+	 * <p>Called by handler mappings on initialization, so that invalid
+	 * patterns are rejected on startup rather than on the first request.
+	 * @param patternParser the parser to parse the path patterns with
+	 * @throws org.springframework.web.util.pattern.PatternParseException
+	 * if a pattern is not supported by the given parser
+	 * @since 5.2
+	 */
+	public void parsePathPatterns(PathPatternParser patternParser) {
+		ParsedPatterns parsed = this.parsedPatterns;
+		if (parsed == null || parsed.parser != patternParser) {
+			this.parsedPatterns = new ParsedPatterns(patternParser, this.includePatterns, this.excludePatterns);
+		}
+	}
+
+	/**
+	 * Determine a match for the given parsed lookup path, matching the
+	 * include and exclude patterns as parsed with the given parser.
+	 * <p>The patterns are parsed once and reused for subsequent calls
+	 * with the same parser.
+	 * @param lookupPath the current request path within the application
+	 * @param patternParser the parser to parse the path patterns with
+	 * @return {@code true} if the interceptor applies to the given request path
+	 * @since 5.2
+	 * @see #parsePathPatterns
+	 */
+	public boolean matches(PathContainer lookupPath, PathPatternParser patternParser) {
+		ParsedPatterns parsed = this.parsedPatterns;
+		if (parsed == null || parsed.parser != patternParser) {
+			parsed = new ParsedPatterns(patternParser, this.includePatterns, this.excludePatterns);
+			this.parsedPatterns = parsed;
+		}
+		for (PathPattern pattern : parsed.excludePatterns) {
+			if (pattern.matches(lookupPath)) {
+				return false;
+			}
+		}
+		if (parsed.includePatterns.length == 0) {
+			return true;
+		}
+		for (PathPattern pattern : parsed.includePatterns) {
+			if (pattern.matches(lookupPath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
 			throws Exception {
@@ -184,4 +240,36 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		this.interceptor.afterCompletion(request, response, handler, ex);
 	}
 
+
+	/**
+	 * Include and exclude patterns parsed with a specific {@link PathPatternParser}.
+	 */
+	private static final class ParsedPatterns {
+
+		final PathPatternParser parser;
+
+		final PathPattern[] includePatterns;
+
+		final PathPattern[] excludePatterns;
+
+		ParsedPatterns(PathPatternParser parser, @Nullable String[] includePatterns,
+				@Nullable String[] excludePatterns) {
+
+			this.parser = parser;
+			this.includePatterns = parse(parser, includePatterns);
+			this.excludePatterns = parse(parser, excludePatterns);
+		}
+
+		private static PathPattern[] parse(PathPatternParser parser, @Nullable String[] patterns) {
+			if (ObjectUtils.isEmpty(patterns)) {
+				return new PathPattern[0];
+			}
+			PathPattern[] result = new PathPattern[patterns.length];
+			for (int i = 0; i < patterns.length; i++) {
+				result[i] = parser.parse(patterns[i]);
+			}
+			return result;
+		}
+	}
+
 }
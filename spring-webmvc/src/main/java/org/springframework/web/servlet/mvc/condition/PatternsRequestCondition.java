@@ -22,22 +22,36 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>Patterns are matched with a {@link PathMatcher} against the lookup path
+ * determined by a {@link UrlPathHelper} by default. If a {@link PathPatternParser}
+ * is given instead, patterns are parsed into {@link PathPattern PathPatterns}
+ * once and matched against the request path as parsed and cached via
+ * {@link ServletRequestPathUtils}; suffix pattern matching does not apply then,
+ * and trailing slash matching is determined by the parser.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -55,6 +69,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	private final List<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -62,7 +81,19 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @param patterns 0 or more URL patterns; if 0 the condition will match to every request.
 	 */
 	public PatternsRequestCondition(String... patterns) {
-		this(Arrays.asList(patterns), null, null, true, true, null);
+		this(Arrays.asList(patterns), null, null, true, true, null, null, null);
+	}
+
+	/**
+	 * Create a new instance with the given URL patterns, parsed with the given
+	 * {@link PathPatternParser} for matching against the parsed request path.
+	 * Each pattern that is not empty and does not start with "/" is prepended with "/".
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.2
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(Arrays.asList(patterns), null, null, false, false, null, patternParser, null);
 	}
 
 	/**
@@ -77,7 +108,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	public PatternsRequestCondition(String[] patterns, @Nullable UrlPathHelper urlPathHelper,
 			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch, boolean useTrailingSlashMatch) {
 
-		this(Arrays.asList(patterns), urlPathHelper, pathMatcher, useSuffixPatternMatch, useTrailingSlashMatch, null);
+		this(Arrays.asList(patterns), urlPathHelper, pathMatcher, useSuffixPatternMatch, useTrailingSlashMatch,
+				null, null, null);
 	}
 
 	/**
@@ -95,15 +127,17 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
 		this(Arrays.asList(patterns), urlPathHelper, pathMatcher, useSuffixPatternMatch,
-				useTrailingSlashMatch, fileExtensions);
+				useTrailingSlashMatch, fileExtensions, null, null);
 	}
 
 	/**
-	 * Private constructor accepting a collection of patterns.
+	 * Private constructor accepting a collection of patterns, and optionally
+	 * the corresponding {@link PathPattern PathPatterns} if already parsed.
 	 */
 	private PatternsRequestCondition(Collection<String> patterns, @Nullable UrlPathHelper urlPathHelper,
 			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch,
-			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
+			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions,
+			@Nullable PathPatternParser patternParser, @Nullable List<PathPattern> pathPatterns) {
 
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
 		this.pathHelper = (urlPathHelper != null ? urlPathHelper : new UrlPathHelper());
@@ -119,6 +153,21 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.fileExtensions.add(fileExtension);
 			}
 		}
+
+		this.patternParser = patternParser;
+		if (pathPatterns != null) {
+			this.pathPatterns = pathPatterns;
+		}
+		else if (patternParser != null) {
+			List<PathPattern> parsed = new ArrayList<>(this.patterns.size());
+			for (String pattern : this.patterns) {
+				parsed.add(patternParser.parse(pattern));
+			}
+			this.pathPatterns = Collections.unmodifiableList(parsed);
+		}
+		else {
+			this.pathPatterns = Collections.emptyList();
+		}
 	}
 
 
@@ -137,6 +186,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return this.patterns;
 	}
 
+	/**
+	 * Return the {@link PathPattern PathPatterns} parsed from the
+	 * {@link #getPatterns() patterns}, in the same order, if this condition
+	 * was created with a {@link PathPatternParser}; an empty list otherwise.
+	 * @since 5.2
+	 */
+	public List<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -159,6 +218,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
+		if (this.patternParser != null) {
+			return combinePathPatterns(other, this.patternParser);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -177,7 +239,33 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			result.add("");
 		}
 		return new PatternsRequestCondition(result, this.pathHelper, this.pathMatcher,
-				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
+				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions, null, null);
+	}
+
+	private PatternsRequestCondition combinePathPatterns(PatternsRequestCondition other, PathPatternParser parser) {
+		List<PathPattern> otherPathPatterns = (other.patternParser != null ? other.pathPatterns :
+				new PatternsRequestCondition(other.patterns.toArray(new String[0]), parser).pathPatterns);
+		Map<String, PathPattern> result = new LinkedHashMap<>();
+		if (!this.pathPatterns.isEmpty() && !otherPathPatterns.isEmpty()) {
+			for (PathPattern pattern1 : this.pathPatterns) {
+				for (PathPattern pattern2 : otherPathPatterns) {
+					PathPattern combined = pattern1.combine(pattern2);
+					result.putIfAbsent(combined.getPatternString(), combined);
+				}
+			}
+		}
+		else if (!this.pathPatterns.isEmpty()) {
+			this.pathPatterns.forEach(pattern -> result.putIfAbsent(pattern.getPatternString(), pattern));
+		}
+		else if (!otherPathPatterns.isEmpty()) {
+			otherPathPatterns.forEach(pattern -> result.putIfAbsent(pattern.getPatternString(), pattern));
+		}
+		else {
+			result.put("", parser.parse(""));
+		}
+		return new PatternsRequestCondition(result.keySet(), this.pathHelper, this.pathMatcher,
+				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions,
+				parser, Collections.unmodifiableList(new ArrayList<>(result.values())));
 	}
 
 	/**
@@ -202,11 +290,50 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			RequestPath requestPath = ServletRequestPathUtils.getParsedRequestPath(request);
+			return getMatchingPathPatterns(requestPath.pathWithinApplication());
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
 				new PatternsRequestCondition(matches, this.pathHelper, this.pathMatcher,
-						this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions) : null);
+						this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions, null, null) : null);
+	}
+
+	@Nullable
+	private PatternsRequestCondition getMatchingPathPatterns(PathContainer path) {
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatterns) {
+			if (matches(pattern, path)) {
+				if (matches == null) {
+					matches = new ArrayList<>(this.pathPatterns.size());
+				}
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return null;
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		List<String> patterns = new ArrayList<>(matches.size());
+		for (PathPattern match : matches) {
+			patterns.add(match.getPatternString());
+		}
+		return new PatternsRequestCondition(patterns, this.pathHelper, this.pathMatcher,
+				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions,
+				this.patternParser, Collections.unmodifiableList(matches));
+	}
+
+	private static boolean matches(PathPattern pattern, PathContainer path) {
+		if (pattern.getPatternString().isEmpty()) {
+			// Empty pattern resulting from combining two conditions without patterns
+			String value = path.value();
+			return (value.isEmpty() || value.equals("/"));
+		}
+		return pattern.matches(path);
 	}
 
 	/**
@@ -219,6 +346,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			PatternsRequestCondition match = getMatchingPathPatterns(PathContainer.parsePath(lookupPath));
+			return (match != null ? new ArrayList<>(match.patterns) : new ArrayList<>());
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -276,12 +407,18 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.patternParser != null && other.patternParser != null) {
+			return compareIterators(this.pathPatterns.iterator(), other.pathPatterns.iterator(),
+					PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compareIterators(this.patterns.iterator(), other.patterns.iterator(), patternComparator);
+	}
+
+	private static <P> int compareIterators(Iterator<P> iterator, Iterator<P> iteratorOther, Comparator<P> comparator) {
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
-			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
+			int result = comparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
 				return result;
 			}
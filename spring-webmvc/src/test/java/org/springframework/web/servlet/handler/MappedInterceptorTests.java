@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,11 +24,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -44,6 +46,8 @@ public class MappedInterceptorTests {
 
 	private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
+	private final PathPatternParser patternParser = new PathPatternParser();
+
 	@Before
 	public void setup() {
 		this.interceptor = new LocaleChangeInterceptor();
@@ -86,6 +90,44 @@ public class MappedInterceptorTests {
 		assertFalse(mappedInterceptor.matches("/admin/foo", pathMatcher));
 	}
 
+	@Test
+	public void noPathPatterns() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(null, null, this.interceptor);
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo"), this.patternParser));
+	}
+
+	@Test
+	public void includeAndExcludePathPatterns() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				new String[] { "/foo/**", "/bar/{id}" }, new String[] { "/foo/admin/**" }, this.interceptor);
+
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo/bar"), this.patternParser));
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/bar/42"), this.patternParser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/foo/admin/bar"), this.patternParser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/bar/42/baz"), this.patternParser));
+	}
+
+	@Test
+	public void excludePathPatternWithMatrixVariables() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				null, new String[] { "/admin/**" }, this.interceptor);
+
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo;q=1"), this.patternParser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/admin;q=1/foo"), this.patternParser));
+	}
+
+	@Test
+	public void pathPatternsParsedPerParser() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] { "/foo/*" }, this.interceptor);
+		PathContainer path = PathContainer.parsePath("/foo/bar/");
+		assertTrue(mappedInterceptor.matches(path, this.patternParser));
+
+		PathPatternParser strictParser = new PathPatternParser();
+		strictParser.setMatchOptionalTrailingSeparator(false);
+		assertFalse(mappedInterceptor.matches(path, strictParser));
+		assertTrue(mappedInterceptor.matches(path, this.patternParser));
+	}
+
 	@Test
 	public void customPathMatcher() {
 		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] { "/foo/[0-9]*" }, this.interceptor);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -31,6 +32,8 @@ import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +93,89 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void pathPatternMapping() throws Exception {
+		Object docsController = new Object();
+		Object usersController = new Object();
+		Object userController = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/docs/**", docsController);
+		urlMap.put("/users/**", usersController);
+		urlMap.put("/users/{id}/edit", userController);
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+
+		MockHttpServletRequest req = new MockHttpServletRequest("GET", "/docs/guide/intro.html");
+		HandlerExecutionChain hec = getHandler(handlerMapping, req);
+		assertSame(docsController, hec.getHandler());
+		assertEquals("/docs/**", req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals("guide/intro.html", req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+		req = new MockHttpServletRequest("GET", "/users/42/edit");
+		hec = getHandler(handlerMapping, req);
+		assertSame(userController, hec.getHandler());
+		assertEquals("/users/{id}/edit", req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals(Collections.singletonMap("id", "42"),
+				req.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE));
+
+		req = new MockHttpServletRequest("GET", "/users/42/delete");
+		hec = getHandler(handlerMapping, req);
+		assertSame(usersController, hec.getHandler());
+
+		req = new MockHttpServletRequest("GET", "/other");
+		assertNull(handlerMapping.getHandler(req));
+	}
+
+	@Test
+	public void pathPatternMappingWithPathMappedServlet() throws Exception {
+		Object docsController = new Object();
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setUrlMap(Collections.singletonMap("/docs/**", docsController));
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+
+		MockHttpServletRequest req = new MockHttpServletRequest("GET", "/app/servlet/docs/a%20b;v=1/c");
+		req.setContextPath("/app");
+		req.setServletPath("/servlet");
+		req.setPathInfo("/docs/a b/c");
+		HandlerExecutionChain hec = getHandler(handlerMapping, req);
+		assertSame(docsController, hec.getHandler());
+		assertEquals("a b/c", req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+	}
+
+	@Test
+	public void pathPatternMappingWithAlwaysUseFullPath() throws Exception {
+		Object docsController = new Object();
+		Object servletDocsController = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/docs/intro", docsController);
+		urlMap.put("/servlet/docs/intro", servletDocsController);
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setAlwaysUseFullPath(true);
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+
+		MockHttpServletRequest req = new MockHttpServletRequest("GET", "/app/servlet/docs/intro");
+		req.setContextPath("/app");
+		req.setServletPath("/servlet");
+		req.setPathInfo("/docs/intro");
+		HandlerExecutionChain hec = getHandler(handlerMapping, req);
+		assertSame(docsController, hec.getHandler());
+		assertEquals("/docs/intro", req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+	}
+
+	@Test(expected = PatternParseException.class)
+	public void pathPatternMappingWithUnsupportedInterceptorPattern() {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setInterceptors(
+				new MappedInterceptor(new String[] { "/docs/{*path}/edit" }, new HandlerInterceptor() {}));
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+	}
+
 	@SuppressWarnings("resource")
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.mvc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -24,6 +25,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -213,4 +215,49 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void combineWithPatternParser() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/t1", "/t2"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/m1/{id}"}, parser);
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertEquals(new PatternsRequestCondition("/t1/m1/{id}", "/t2/m1/{id}"), combined);
+		assertEquals(2, combined.getPathPatterns().size());
+	}
+
+	@Test
+	public void matchWithPatternParser() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition =
+				new PatternsRequestCondition(new String[] {"/foo/**", "/foo/{id}", "/foo/bar"}, parser);
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+
+		assertNotNull(match);
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{id}", "/foo/**"), new ArrayList<>(match.getPatterns()));
+		assertEquals("/foo/bar", match.getPathPatterns().get(0).getPatternString());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/other"));
+		assertNull(match);
+	}
+
+	@Test
+	public void matchWithPatternParserAndContextPath() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo/{id}"}, parser);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/1");
+		request.setContextPath("/app");
+
+		assertNotNull(condition.getMatchingCondition(request));
+	}
+
+	@Test
+	public void compareWithPatternParser() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/fo*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+
+		assertEquals(1, c1.compareTo(c2, new MockHttpServletRequest("GET", "/foo")));
+	}
+
 }
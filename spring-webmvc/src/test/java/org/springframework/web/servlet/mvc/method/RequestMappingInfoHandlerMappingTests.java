@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -59,6 +60,7 @@ import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -251,6 +253,57 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 	@SuppressWarnings("unchecked")
+	@Test
+	public void getHandlerWithVariablePathPrefix() throws Exception {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/orders/list");
+		HandlerMethod handlerMethod = getHandler(request);
+
+		assertEquals("orderList", handlerMethod.getMethod().getName());
+		assertEquals("v1", getUriTemplateVariables(request).get("version"));
+	}
+
+	@Test
+	public void getHandlerWithSuffixPattern() throws Exception {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/report.pdf");
+		HandlerMethod handlerMethod = getHandler(request);
+
+		assertEquals("report", handlerMethod.getMethod().getName());
+
+		request = new MockHttpServletRequest("GET", "/api/files/report/");
+		handlerMethod = getHandler(request);
+
+		assertEquals("report", handlerMethod.getMethod().getName());
+	}
+
+	@Test
+	public void getHandlerWithoutMatchingPathPrefixCandidate() throws Exception {
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/unknown/1");
+		assertNull(this.handlerMapping.getHandler(request));
+
+		try {
+			request = new MockHttpServletRequest("POST", "/api/orders/1");
+			this.handlerMapping.getHandler(request);
+			fail("HttpRequestMethodNotSupportedException expected");
+		}
+		catch (HttpRequestMethodNotSupportedException ex) {
+			assertArrayEquals("Invalid supported methods", new String[] {"GET"}, ex.getSupportedMethods());
+		}
+	}
+
+	@Test
+	public void getHandlerWithCustomPathMatcher() throws Exception {
+		this.handlerMapping.setPathMatcher(new AntPathMatcher() {});
+		this.handlerMapping.registerHandler(new PathPrefixController());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+		HandlerMethod handlerMethod = getHandler(request);
+
+		assertEquals("order", handlerMethod.getMethod().getName());
+		assertEquals("1", getUriTemplateVariables(request).get("id"));
+	}
+
 	@Test
 	public void handleMatchUriTemplateVariables() {
 		RequestMappingInfo key = RequestMappingInfo.paths("/{path1}/{path2}").build();
@@ -287,6 +340,28 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertEquals("a/b", uriVariables.get("identifier"));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void handleMatchWithPathPatterns() {
+		RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+		config.setPatternParser(new PathPatternParser());
+		RequestMappingInfo key = RequestMappingInfo.paths("/{group}/{identifier}").options(config).build();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/group/a%2Fb;q=1");
+		this.handlerMapping.handleMatch(key, "/group/a%2Fb", request);
+
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertNotNull(uriVariables);
+		assertEquals("group", uriVariables.get("group"));
+		assertEquals("a/b", uriVariables.get("identifier"));
+		assertEquals("/{group}/{identifier}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+
+		Map<String, MultiValueMap<String, String>> matrixVariables = (Map<String, MultiValueMap<String, String>>)
+				request.getAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE);
+		assertNotNull(matrixVariables);
+		assertEquals("1", matrixVariables.get("identifier").getFirst("q"));
+	}
+
 	@Test
 	public void handleMatchBestMatchingPatternAttribute() {
 		RequestMappingInfo key = RequestMappingInfo.paths("/{path1}/2", "/**").build();
@@ -522,6 +597,24 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class PathPrefixController {
+
+		@RequestMapping(value = "/{version}/orders/list", method = RequestMethod.GET)
+		public void orderList() {
+		}
+
+		@RequestMapping(value = "/api/orders/{id}", method = RequestMethod.GET)
+		public void order() {
+		}
+
+		@RequestMapping(value = "/api/files/report", method = RequestMethod.GET)
+		public void report() {
+		}
+	}
+
+
 	private static class TestRequestMappingInfoHandlerMapping extends RequestMappingInfoHandlerMapping {
 
 		public void registerHandler(Object handler) {